@@ -0,0 +1,16 @@
+package com.a1;
+
+import java.util.List;
+
+/**
+ * Callback that processes a batch of items taken from a queue in one call.
+ *
+ * @param <T> the type of items handled
+ */
+@FunctionalInterface
+public interface BatchHandler<T> {
+  /**
+   * Handles the batch. The list is reused for the next batch, so copy it if it must be kept.
+   */
+  void handleBatch(List<? extends T> batch) throws Exception;
+}
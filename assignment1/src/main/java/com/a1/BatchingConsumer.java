@@ -0,0 +1,157 @@
+package com.a1;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumer that collects items into batches and hands each batch to a {@link BatchHandler}, so
+ * per-call costs of a sink (a lock, a file write, a flush) are paid once per batch instead of once
+ * per item. A batch is flushed when it reaches maxBatchSize items or when maxWaitMicros have passed
+ * since its first item arrived, whichever comes first. Items that are already queued are moved with
+ * {@link ItemQueue#drainTo}, which takes them all under one lock on {@link MyBlockingQueue}.
+ *
+ * @param <T> the type of items consumed
+ */
+public class BatchingConsumer<T> implements Runnable {
+  private final ItemQueue<T> queue;
+  private final BatchHandler<? super T> handler;
+  private final Consumer.ErrorPolicy errorPolicy;
+  private final String name;
+  private final int maxBatchSize;
+  private final long maxWaitNanos;
+  private final int itemsToConsume;
+  private final ItemDigest digest = new ItemDigest();
+  private volatile int itemsConsumed = 0;
+  private volatile int batchesHandled = 0;
+  private volatile int failures = 0;
+
+  /**
+   * Creates a batching consumer. A negative itemsToConsume means consume until the queue is
+   * closed and drained; a maxWaitMicros of 0 flushes whatever is immediately available.
+   */
+  public BatchingConsumer(ItemQueue<T> queue, BatchHandler<? super T> handler,
+                          Consumer.ErrorPolicy errorPolicy, String name, int maxBatchSize,
+                          long maxWaitMicros, int itemsToConsume) {
+    if (maxBatchSize <= 0) {
+      throw new IllegalArgumentException("Batch size must be positive");
+    }
+    if (maxWaitMicros < 0) {
+      throw new IllegalArgumentException("Max wait must not be negative");
+    }
+    this.queue = queue;
+    this.handler = Objects.requireNonNull(handler);
+    this.errorPolicy = Objects.requireNonNull(errorPolicy);
+    this.name = name;
+    this.maxBatchSize = maxBatchSize;
+    this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(maxWaitMicros);
+    this.itemsToConsume = itemsToConsume;
+  }
+
+  /**
+   * Fills and flushes batches until the item count is reached or the queue is closed and drained.
+   */
+  @Override
+  public void run() {
+    List<T> batch = new ArrayList<>(maxBatchSize);
+    try {
+      while (itemsToConsume < 0 || itemsConsumed < itemsToConsume) {
+        boolean closed = fill(batch, batchLimit());
+        if (!batch.isEmpty() && !flush(batch)) {
+          return;
+        }
+        if (closed) {
+          return;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      System.out.println("Consumer " + name + " interrupted");
+    }
+  }
+
+  private int batchLimit() {
+    if (itemsToConsume < 0) {
+      return maxBatchSize;
+    }
+    return Math.min(maxBatchSize, itemsToConsume - itemsConsumed);
+  }
+
+  /**
+   * Blocks for the first item, then adds items until the limit or the wait deadline is reached.
+   * Returns true if the queue turned out to be closed and drained.
+   */
+  private boolean fill(List<T> batch, int limit) throws InterruptedException {
+    try {
+      batch.add(queue.take());
+      long deadline = System.nanoTime() + maxWaitNanos;
+      while (batch.size() < limit) {
+        if (queue.drainTo(batch, limit - batch.size()) > 0) {
+          continue;
+        }
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          break;
+        }
+        T item = queue.poll(remaining, TimeUnit.NANOSECONDS);
+        if (item == null) {
+          break;
+        }
+        batch.add(item);
+      }
+      return false;
+    } catch (QueueClosedException e) {
+      return true;
+    }
+  }
+
+  private boolean flush(List<T> batch) throws InterruptedException {
+    for (T item : batch) {
+      digest.record(Objects.hashCode(item));
+    }
+    itemsConsumed += batch.size();
+    try {
+      handler.handleBatch(batch);
+      batchesHandled++;
+      return true;
+    } catch (InterruptedException e) {
+      throw e;
+    } catch (Exception e) {
+      failures++;
+      System.out.println("Consumer " + name + " failed on a batch of " + batch.size() + " items: " + e);
+      return errorPolicy == Consumer.ErrorPolicy.SKIP;
+    } finally {
+      batch.clear();
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getItemsConsumed() {
+    return itemsConsumed;
+  }
+
+  /**
+   * Returns how many batches the handler completed successfully.
+   */
+  public int getBatchesHandled() {
+    return batchesHandled;
+  }
+
+  /**
+   * Returns how many batches the handler failed on.
+   */
+  public int getFailures() {
+    return failures;
+  }
+
+  /**
+   * Returns the running digest of every item this consumer has taken from the queue.
+   */
+  public ItemDigest getDigest() {
+    return digest;
+  }
+}
@@ -0,0 +1,118 @@
+package com.a1;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded blocking queue that keeps only the latest value per key. A put for a key that is
+ * already pending replaces the pending value in place without taking a new slot, and take
+ * returns values in the order their keys first became pending. Memory and consumer work are
+ * therefore bounded by the number of distinct keys rather than the update rate.
+ *
+ * @param <K> the type of the conflation key
+ * @param <V> the type of elements held in this queue
+ */
+public class ConflatingQueue<K, V> implements ItemQueue<V> {
+    private final LinkedHashMap<K, V> pending;
+    private final Function<? super V, ? extends K> keyExtractor;
+    private final int capacity;
+    private final Object lock = new Object();
+    private long conflatedCount;
+
+    public ConflatingQueue(int capacity, Function<? super V, ? extends K> keyExtractor) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.keyExtractor = Objects.requireNonNull(keyExtractor);
+        this.pending = new LinkedHashMap<>();
+    }
+
+    /**
+     * Replaces the pending value for the item's key, or appends the key if none is pending.
+     * Blocks only when a new key arrives while capacity distinct keys are already pending.
+     */
+    @Override
+    public void put(V item) throws InterruptedException {
+        K key = keyExtractor.apply(item);
+        synchronized (lock) {
+            while (true) {
+                if (pending.containsKey(key)) {
+                    pending.put(key, item);
+                    conflatedCount++;
+                    return;
+                }
+                if (pending.size() < capacity) {
+                    pending.put(key, item);
+                    lock.notifyAll();
+                    return;
+                }
+                lock.wait();
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the latest value of the longest-pending key, blocking if empty.
+     */
+    @Override
+    public V take() throws InterruptedException {
+        synchronized (lock) {
+            while (pending.isEmpty()) {
+                lock.wait();
+            }
+            return removeFirst();
+        }
+    }
+
+    @Override
+    public V poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        synchronized (lock) {
+            while (pending.isEmpty()) {
+                if (remaining <= 0) {
+                    return null;
+                }
+                long deadline = System.nanoTime() + remaining;
+                TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+            return removeFirst();
+        }
+    }
+
+    @Override
+    public int size() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        synchronized (lock) {
+            return pending.isEmpty();
+        }
+    }
+
+    /**
+     * Returns how many puts replaced a pending value instead of adding a new one.
+     */
+    public long getConflatedCount() {
+        synchronized (lock) {
+            return conflatedCount;
+        }
+    }
+
+    private V removeFirst() {
+        Iterator<Map.Entry<K, V>> it = pending.entrySet().iterator();
+        V value = it.next().getValue();
+        it.remove();
+        lock.notifyAll();
+        return value;
+    }
+}
@@ -1,52 +1,171 @@
 package com.a1;
 
 import java.util.List;
+import java.util.Objects;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 /**
- * Consumer thread that takes items from a blocking queue and adds them to a destination list.
- * Implements the consumer side of the producer-consumer pattern with thread synchronization.
+ * Consumer thread that takes items from a blocking queue and passes each one to an
+ * {@link ItemHandler}. Implements the consumer side of the producer-consumer pattern with
+ * thread synchronization.
+ *
+ * <p>The list-based constructors keep the demo behavior: items are added to a destination list
+ * (or only digested, when there is none), every item is logged and the consumer pauses
+ * {@link #DEMO_PAUSE_MILLIS} ms between takes. The handler-based constructor runs without logging
+ * or pauses and applies an {@link ErrorPolicy} when the handler throws. With
+ * {@link #recycleInto(MessagePool)} each item is returned to a pool after it has been handled,
+ * so producers can reuse message objects instead of allocating one per item.
+ *
+ * @param <T> the type of items consumed
  */
-public class Consumer implements Runnable {
-  private final MyBlockingQueue<Integer> queue;
-  private final List<Integer> destination;
+public class Consumer<T> implements Runnable {
+  static final long DEMO_PAUSE_MILLIS = 75;
+
+  /**
+   * What to do when the handler throws.
+   */
+  public enum ErrorPolicy {
+    /** Log the failure and stop consuming. */
+    STOP,
+    /** Log the failure and continue with the next item. */
+    SKIP
+  }
+
+  private final ItemQueue<T> queue;
+  private final ItemHandler<? super T> handler;
+  private final ErrorPolicy errorPolicy;
   private final String name;
   private final int itemsToConsume;
-  private int itemsConsumed = 0;
+  private final long pauseMillis;
+  private final boolean logging;
+  private final ItemDigest digest = new ItemDigest();
+  private MessagePool<? super T> recyclePool;
+  private volatile int itemsConsumed = 0;
+  private volatile int failures = 0;
+
+  public Consumer(ItemQueue<T> queue, List<T> destination, String name, int itemsToConsume) {
+    this(queue, destinationHandler(destination), ErrorPolicy.STOP, name, itemsToConsume,
+            DEMO_PAUSE_MILLIS, true);
+  }
+
+  /**
+   * Creates a consumer that does not retain items and is verified through its digest only.
+   */
+  public Consumer(ItemQueue<T> queue, String name, int itemsToConsume) {
+    this(queue, null, name, itemsToConsume);
+  }
 
-  public Consumer(MyBlockingQueue<Integer> queue, List<Integer> destination,
+  /**
+   * Creates a consumer that hands every item to the handler. A negative itemsToConsume means
+   * consume until the queue is closed and drained.
+   */
+  public Consumer(ItemQueue<T> queue, ItemHandler<? super T> handler, ErrorPolicy errorPolicy,
                   String name, int itemsToConsume) {
+    this(queue, handler, errorPolicy, name, itemsToConsume, 0, false);
+  }
+
+  private Consumer(ItemQueue<T> queue, ItemHandler<? super T> handler, ErrorPolicy errorPolicy,
+                   String name, int itemsToConsume, long pauseMillis, boolean logging) {
     this.queue = queue;
-    this.destination = destination;
+    this.handler = Objects.requireNonNull(handler);
+    this.errorPolicy = Objects.requireNonNull(errorPolicy);
     this.name = name;
     this.itemsToConsume = itemsToConsume;
+    this.pauseMillis = pauseMillis;
+    this.logging = logging;
+  }
+
+  private static <T> ItemHandler<T> destinationHandler(List<T> destination) {
+    if (destination == null) {
+      return item -> { };
+    }
+    return item -> {
+      synchronized (destination) {
+        destination.add(item);
+      }
+    };
+  }
+
+  /**
+   * Returns each item to the pool once it has been handled. Must be set before the consumer runs.
+   */
+  public Consumer<T> recycleInto(MessagePool<? super T> pool) {
+    this.recyclePool = pool;
+    return this;
   }
 
   /**
-   * Consumes items from the queue and adds them to the destination list.
+   * Takes items from the queue and hands each one to the handler.
    */
   @Override
   public void run() {
     try {
-      for (int i = 0; i < itemsToConsume; i++) {
-        Integer item = queue.take();
-        synchronized (destination) {
-          destination.add(item);
-        }
-        LocalDateTime timestamp = LocalDateTime.now();
+      for (int i = 0; itemsToConsume < 0 || i < itemsToConsume; i++) {
+        T item = queue.take();
+        LocalDateTime timestamp = logging ? LocalDateTime.now() : null;
         itemsConsumed++;
-        System.out.println("[" + timestamp.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS")) + "] Consumer " + name + " consumed: " + item);
-        Thread.sleep(75);
+        digest.record(Objects.hashCode(item));
+        boolean handled = handle(item);
+        if (logging) {
+          System.out.println("[" + timestamp.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS")) + "] Consumer " + name + " consumed: " + item);
+        }
+        if (recyclePool != null) {
+          recyclePool.release(item);
+        }
+        if (!handled && errorPolicy == ErrorPolicy.STOP) {
+          return;
+        }
+        if (pauseMillis > 0) {
+          Thread.sleep(pauseMillis);
+        }
+      }
+      if (logging) {
+        System.out.println("[" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS")) + "] Consumer " + name + " finished. Total consumed: " + itemsConsumed);
       }
-      System.out.println("[" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS")) + "] Consumer " + name + " finished. Total consumed: " + itemsConsumed);
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
       System.out.println("Consumer " + name + " interrupted");
+    } catch (QueueClosedException e) {
+      if (itemsToConsume >= 0 || logging) {
+        System.out.println("Consumer " + name + " stopped: " + e.getMessage());
+      }
+    }
+  }
+
+  private boolean handle(T item) throws InterruptedException {
+    try {
+      handler.handle(item);
+      return true;
+    } catch (InterruptedException e) {
+      throw e;
+    } catch (Exception e) {
+      failures++;
+      System.out.println("Consumer " + name + " failed on item " + item + ": " + e);
+      return false;
     }
   }
 
+  public String getName() {
+    return name;
+  }
+
   public int getItemsConsumed() {
     return itemsConsumed;
   }
+
+  /**
+   * Returns how many items the handler failed on.
+   */
+  public int getFailures() {
+    return failures;
+  }
+
+  /**
+   * Returns the running digest of every item this consumer has taken from the queue. Items are
+   * digested by their hash code, which for Integer items is the value itself.
+   */
+  public ItemDigest getDigest() {
+    return digest;
+  }
 }
@@ -2,18 +2,25 @@ package com.a1;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.IntStream;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import javax.management.ObjectName;
 
 
 /**
  * Interactive demonstration of the producer-consumer pattern with customizable configurations.
  */
 public class Demo {
+  private static final long RUN_TIMEOUT_SECONDS = 30;
+
   public static void main(String[] args) {
     Scanner scanner = new Scanner(System.in);
     boolean running = true;
@@ -107,57 +114,75 @@ public class Demo {
     List<Integer> destination = Collections.synchronizedList(new ArrayList<>());
 
 
-    List<Producer> producers = new ArrayList<>();
+    List<Producer<Integer>> producers = new ArrayList<>();
     int itemsPerProducer = totalItems / numProducers;
     int remainingItems = totalItems % numProducers;
 
     int currentItem = 1;
     for (int i = 0; i < numProducers; i++) {
       int itemsForThisProducer = itemsPerProducer + (i < remainingItems ? 1 : 0);
-      List<Integer> source = IntStream.range(currentItem, currentItem + itemsForThisProducer)
-              .boxed()
-              .collect(java.util.stream.Collectors.toList());
+      Iterator<Integer> source = ItemSources.range(currentItem, currentItem + itemsForThisProducer);
       currentItem += itemsForThisProducer;
 
-      Producer producer = new Producer(queue, source, "P" + (i + 1));
+      Producer<Integer> producer = new Producer<>(queue, source, "P" + (i + 1));
       producers.add(producer);
     }
 
-    List<Consumer> consumers = new ArrayList<>();
+    List<Consumer<Integer>> consumers = new ArrayList<>();
     int itemsPerConsumer = totalItems / numConsumers;
     int remainingConsumerItems = totalItems % numConsumers;
 
     for (int i = 0; i < numConsumers; i++) {
       int itemsForThisConsumer = itemsPerConsumer + (i < remainingConsumerItems ? 1 : 0);
-      Consumer consumer = new Consumer(queue, destination, "C" + (i + 1), itemsForThisConsumer);
+      Consumer<Integer> consumer = new Consumer<>(queue, destination, "C" + (i + 1), itemsForThisConsumer);
       consumers.add(consumer);
     }
 
-    ExecutorService executor = Executors.newFixedThreadPool(numProducers + numConsumers);
+    // Visible in JConsole as com.a1:type=Queue and com.a1:type=WorkerGroup while the demo runs.
+    ObjectName queueBean = StatsRegistry.register(new QueueStats(queue), "Queue", "demo");
+    ObjectName workersBean = StatsRegistry.register(
+            new WorkerGroupStats().addProducers(producers).addConsumers(consumers), "WorkerGroup", "demo");
 
-    System.out.println("Starting threads...\n");
+    try {
+      ExecutorService executor = Executors.newFixedThreadPool(numProducers + numConsumers);
 
-    for (Producer producer : producers) {
-      executor.submit(producer);
-    }
+      System.out.println("Starting threads...\n");
 
-    for (Consumer consumer : consumers) {
-      executor.submit(consumer);
-    }
+      List<Future<?>> producerFutures = new ArrayList<>();
+      for (Producer<Integer> producer : producers) {
+        producerFutures.add(executor.submit(producer));
+      }
 
-    executor.shutdown();
-    boolean finished = executor.awaitTermination(30, TimeUnit.SECONDS);
+      for (Consumer<Integer> consumer : consumers) {
+        executor.submit(consumer);
+      }
+
+      executor.shutdown();
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(RUN_TIMEOUT_SECONDS);
+
+      // Once every producer is done no more items can arrive, so closing lets consumers leave as
+      // soon as the queue is drained instead of waiting out the timeout.
+      if (awaitAll(producerFutures, deadline)) {
+        queue.close();
+      }
+      boolean finished = executor.awaitTermination(
+              Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
 
-    if (!finished) {
-      System.out.println("\nWarning: Execution timed out!");
-      executor.shutdownNow();
+      if (!finished) {
+        List<Integer> undelivered = queue.closeNow();
+        System.out.println("\nWarning: Execution timed out! Undelivered items: " + undelivered);
+        executor.shutdownNow();
+      }
+    } finally {
+      StatsRegistry.unregister(queueBean);
+      StatsRegistry.unregister(workersBean);
     }
 
     printAnalysisResults(totalItems, destination, producers, consumers, queue);
   }
 
   private static void printAnalysisResults(int expectedItems, List<Integer> destination,
-                                           List<Producer> producers, List<Consumer> consumers,
+                                           List<Producer<Integer>> producers, List<Consumer<Integer>> consumers,
                                            MyBlockingQueue<Integer> queue) {
     System.out.println("\n=== Analysis Results ===");
 
@@ -187,16 +212,25 @@ public class Demo {
       System.out.println("   (Total: " + destination.size() + " items)");
     }
 
+    ItemDigest producedDigest = ItemDigest.combine(
+            producers.stream().map(Producer::getDigest).collect(Collectors.toList()));
+    ItemDigest consumedDigest = ItemDigest.combine(
+            consumers.stream().map(Consumer::getDigest).collect(Collectors.toList()));
+    boolean digestsMatch = producedDigest.matches(consumedDigest);
+
     System.out.println("\n4. Verification:");
     System.out.println("   - Expected items: " + expectedItems);
     System.out.println("   - Destination size: " + destination.size());
     System.out.println("   - Queue empty: " + queue.isEmpty());
-    System.out.println("   - All items transferred: " + (expectedItems == destination.size()));
+    System.out.println("   - All items transferred: " + (expectedItems == consumedDigest.getCount()));
     System.out.println("   - Production matches consumption: " + (totalProduced == totalConsumed));
+    System.out.println("   - Produced digest: " + producedDigest);
+    System.out.println("   - Consumed digest: " + consumedDigest);
+    System.out.println("   - Digests match: " + digestsMatch);
 
     boolean success = (expectedItems == totalProduced) &&
             (expectedItems == totalConsumed) &&
-            (expectedItems == destination.size()) &&
+            digestsMatch &&
             queue.isEmpty();
 
     if (success) {
@@ -208,6 +242,19 @@ public class Demo {
     System.out.println("\n=== Demo Complete ===");
   }
 
+  private static boolean awaitAll(List<Future<?>> futures, long deadlineNanos) throws InterruptedException {
+    for (Future<?> future : futures) {
+      try {
+        future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+      } catch (ExecutionException e) {
+        System.out.println("Task failed: " + e.getCause());
+      } catch (TimeoutException e) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private static int getValidIntInput(Scanner scanner, int min, int max) {
     while (true) {
       try {
@@ -0,0 +1,203 @@
+package com.a1;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Consumer pool that grows and shrinks with the backlog of a {@link MyBlockingQueue}.
+ *
+ * <p>A monitor thread samples the queue depth and the put-side blocking count every
+ * {@link #SAMPLE_INTERVAL_MILLIS} ms. When the queue is at least {@link #HIGH_WATER_FRACTION}
+ * full, or producers blocked since the last sample, for {@link #SCALE_UP_SAMPLES} samples in a
+ * row, one consumer is added (up to the maximum). A consumer that stays idle for the idle timeout
+ * retires (down to the minimum). Requiring sustained pressure to grow, and a full idle timeout
+ * with no recent growth to shrink, keeps the pool from thrashing.
+ *
+ * @param <T> the type of items consumed
+ */
+public class ElasticConsumerPool<T> {
+  static final long SAMPLE_INTERVAL_MILLIS = 50;
+  static final double HIGH_WATER_FRACTION = 0.75;
+  static final int SCALE_UP_SAMPLES = 3;
+
+  private final MyBlockingQueue<T> queue;
+  private final ItemHandler<? super T> handler;
+  private final String name;
+  private final int minConsumers;
+  private final int maxConsumers;
+  private final long idleTimeoutNanos;
+  private final LongAdder itemsProcessed = new LongAdder();
+  private final Object lock = new Object();
+
+  private int activeConsumers;
+  private int peakConsumers;
+  private int nextConsumerId = 1;
+  private long lastScaleUpNanos;
+  private volatile boolean running;
+  private Thread monitor;
+
+  public ElasticConsumerPool(MyBlockingQueue<T> queue, ItemHandler<? super T> handler, String name,
+                             int minConsumers, int maxConsumers, long idleTimeout, TimeUnit unit) {
+    if (minConsumers < 1 || maxConsumers < minConsumers) {
+      throw new IllegalArgumentException("Require 1 <= minConsumers <= maxConsumers");
+    }
+    this.queue = queue;
+    this.handler = handler;
+    this.name = name;
+    this.minConsumers = minConsumers;
+    this.maxConsumers = maxConsumers;
+    this.idleTimeoutNanos = unit.toNanos(idleTimeout);
+  }
+
+  /**
+   * Starts the minimum number of consumers and the monitor thread.
+   */
+  public void start() {
+    synchronized (lock) {
+      if (running) {
+        throw new IllegalStateException("Pool " + name + " already started");
+      }
+      running = true;
+      lastScaleUpNanos = System.nanoTime();
+      for (int i = 0; i < minConsumers; i++) {
+        startConsumer();
+      }
+    }
+    monitor = new Thread(this::monitorLoop, name + "-monitor");
+    monitor.setDaemon(true);
+    monitor.start();
+  }
+
+  /**
+   * Stops scaling and lets the consumers exit once the queue has been drained.
+   */
+  public void shutdown() {
+    running = false;
+    if (monitor != null) {
+      monitor.interrupt();
+    }
+  }
+
+  /**
+   * Waits for all consumers to exit after {@link #shutdown()}. Returns false on timeout.
+   */
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    long remaining = unit.toNanos(timeout);
+    synchronized (lock) {
+      while (activeConsumers > 0) {
+        if (remaining <= 0) {
+          return false;
+        }
+        long deadline = System.nanoTime() + remaining;
+        TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+        remaining = deadline - System.nanoTime();
+      }
+      return true;
+    }
+  }
+
+  public int getActiveConsumers() {
+    synchronized (lock) {
+      return activeConsumers;
+    }
+  }
+
+  public int getPeakConsumers() {
+    synchronized (lock) {
+      return peakConsumers;
+    }
+  }
+
+  public long getItemsProcessed() {
+    return itemsProcessed.sum();
+  }
+
+  private void monitorLoop() {
+    long lastPutWaits = queue.getPutWaitCount();
+    int pressuredSamples = 0;
+    try {
+      while (running) {
+        Thread.sleep(SAMPLE_INTERVAL_MILLIS);
+        long putWaits = queue.getPutWaitCount();
+        boolean pressured = queue.size() >= queue.getCapacity() * HIGH_WATER_FRACTION
+                || putWaits > lastPutWaits;
+        lastPutWaits = putWaits;
+        pressuredSamples = pressured ? pressuredSamples + 1 : 0;
+
+        if (pressuredSamples >= SCALE_UP_SAMPLES) {
+          pressuredSamples = 0;
+          synchronized (lock) {
+            if (running && activeConsumers < maxConsumers) {
+              lastScaleUpNanos = System.nanoTime();
+              startConsumer();
+              log("scaled up to " + activeConsumers + " consumers");
+            }
+          }
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void startConsumer() {
+    activeConsumers++;
+    peakConsumers = Math.max(peakConsumers, activeConsumers);
+    Thread consumer = new Thread(this::consumeLoop, name + "-C" + nextConsumerId++);
+    consumer.start();
+  }
+
+  private void consumeLoop() {
+    long idleSince = System.nanoTime();
+    try {
+      while (running || !queue.isEmpty()) {
+        T item = queue.poll(SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        if (item != null) {
+          handle(item);
+          idleSince = System.nanoTime();
+        } else if (System.nanoTime() - idleSince >= idleTimeoutNanos && tryRetire()) {
+          log(Thread.currentThread().getName() + " retired after idle timeout");
+          return;
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (QueueClosedException e) {
+      log(Thread.currentThread().getName() + " stopped: " + e.getMessage());
+    }
+    synchronized (lock) {
+      activeConsumers--;
+      lock.notifyAll();
+    }
+  }
+
+  private boolean tryRetire() {
+    synchronized (lock) {
+      boolean scaledUpRecently = System.nanoTime() - lastScaleUpNanos < idleTimeoutNanos;
+      if (!running || activeConsumers <= minConsumers || scaledUpRecently) {
+        return false;
+      }
+      activeConsumers--;
+      lock.notifyAll();
+      return true;
+    }
+  }
+
+  private void handle(T item) {
+    try {
+      handler.handle(item);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      log(Thread.currentThread().getName() + " failed on item " + item + ": " + e);
+    }
+    itemsProcessed.increment();
+  }
+
+  private void log(String message) {
+    System.out.println("[" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS"))
+            + "] Pool " + name + " " + message);
+  }
+}
@@ -0,0 +1,85 @@
+package com.a1;
+
+/**
+ * Running, order-independent digest of the items that passed through one side of the queue.
+ * Tracks count, sum, XOR and a mixed hash sum so two digests can be compared in O(1) memory to
+ * confirm that exactly the same multiset of items was produced and consumed.
+ *
+ * <p>A digest is meant to be updated by a single thread (the producer or consumer that owns it)
+ * and read after that thread has been joined. Use {@link #combine(Iterable)} to fold the digests
+ * of several workers together.
+ */
+public final class ItemDigest {
+  private long count;
+  private long sum;
+  private long xor;
+  private long hash;
+
+  /**
+   * Records one item. Costs a handful of arithmetic operations and never allocates.
+   */
+  public void record(int item) {
+    count++;
+    sum += item;
+    xor ^= item;
+    hash += mix(item);
+  }
+
+  /**
+   * Adds the contents of another digest to this one.
+   */
+  public void merge(ItemDigest other) {
+    count += other.count;
+    sum += other.sum;
+    xor ^= other.xor;
+    hash += other.hash;
+  }
+
+  /**
+   * Returns a new digest holding the combination of all given digests.
+   */
+  public static ItemDigest combine(Iterable<ItemDigest> digests) {
+    ItemDigest combined = new ItemDigest();
+    for (ItemDigest digest : digests) {
+      combined.merge(digest);
+    }
+    return combined;
+  }
+
+  /**
+   * Returns true if both digests saw the same number of items with the same sum, XOR and hash.
+   */
+  public boolean matches(ItemDigest other) {
+    return count == other.count && sum == other.sum && xor == other.xor && hash == other.hash;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getSum() {
+    return sum;
+  }
+
+  public long getXor() {
+    return xor;
+  }
+
+  public long getHash() {
+    return hash;
+  }
+
+  /**
+   * SplitMix64 finalizer, so that sums of hashes are sensitive to which values were seen.
+   */
+  private static long mix(long x) {
+    x = (x ^ (x >>> 30)) * 0xbf58476d1ce4e5b9L;
+    x = (x ^ (x >>> 27)) * 0x94d049bb133111ebL;
+    return x ^ (x >>> 31);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("count=%d, sum=%d, xor=%016x, hash=%016x", count, sum, xor, hash);
+  }
+}
@@ -0,0 +1,11 @@
+package com.a1;
+
+/**
+ * Callback that processes one item taken from a queue.
+ *
+ * @param <T> the type of items handled
+ */
+@FunctionalInterface
+public interface ItemHandler<T> {
+  void handle(T item) throws Exception;
+}
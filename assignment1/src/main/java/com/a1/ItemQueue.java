@@ -0,0 +1,61 @@
+package com.a1;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Blocking FIFO hand-off between producers and consumers. {@link MyBlockingQueue} is the basic
+ * bounded implementation; other implementations change what happens when producers outrun
+ * consumers.
+ *
+ * @param <T> the type of elements held in this queue
+ */
+public interface ItemQueue<T> {
+
+    /**
+     * Adds an item to the queue, blocking if the implementation has no room for it.
+     */
+    void put(T item) throws InterruptedException;
+
+    /**
+     * Removes and returns the next item, blocking until one is available.
+     */
+    T take() throws InterruptedException;
+
+    /**
+     * Removes and returns the next item, waiting up to the timeout. Returns null on timeout.
+     */
+    T poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Moves up to maxItems immediately available items into target without blocking and returns how
+     * many were moved. Returns 0 when the queue is empty, even if it has been closed. Implementations
+     * should override this to move the whole batch under a single lock acquisition.
+     */
+    default int drainTo(Collection<? super T> target, int maxItems) throws InterruptedException {
+        int moved = 0;
+        try {
+            while (moved < maxItems) {
+                T item = poll(0, TimeUnit.NANOSECONDS);
+                if (item == null) {
+                    break;
+                }
+                target.add(item);
+                moved++;
+            }
+        } catch (QueueClosedException e) {
+            // Closed and drained: report what was moved, the next blocking call will throw.
+        }
+        return moved;
+    }
+
+    /**
+     * Returns the current number of items in the queue.
+     */
+    int size();
+
+    /**
+     * Returns true if the queue contains no items.
+     */
+    boolean isEmpty();
+}
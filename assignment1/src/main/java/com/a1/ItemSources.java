@@ -0,0 +1,140 @@
+package com.a1;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntSupplier;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Factory methods for lazy producer sources. Each source yields items on demand, so memory
+ * stays constant no matter how many items flow through the queue.
+ */
+public final class ItemSources {
+
+  private ItemSources() {
+  }
+
+  /**
+   * Returns the integers from startInclusive up to endExclusive, generated one at a time.
+   */
+  public static Iterator<Integer> range(int startInclusive, int endExclusive) {
+    return new Iterator<>() {
+      private int next = startInclusive;
+
+      @Override
+      public boolean hasNext() {
+        return next < endExclusive;
+      }
+
+      @Override
+      public Integer next() {
+        if (next >= endExclusive) {
+          throw new NoSuchElementException();
+        }
+        return next++;
+      }
+    };
+  }
+
+  /**
+   * Returns count values drawn from the supplier. A negative count means the source is unbounded.
+   */
+  public static Iterator<Integer> fromSupplier(IntSupplier supplier, long count) {
+    return new Iterator<>() {
+      private long remaining = count;
+
+      @Override
+      public boolean hasNext() {
+        return remaining != 0;
+      }
+
+      @Override
+      public Integer next() {
+        if (remaining == 0) {
+          throw new NoSuchElementException();
+        }
+        if (remaining > 0) {
+          remaining--;
+        }
+        return supplier.getAsInt();
+      }
+    };
+  }
+
+  /**
+   * Returns count messages acquired from the pool, each filled in with its index. Paired with a
+   * consumer that recycles into the same pool, messages are reused instead of allocated per item.
+   */
+  public static <M> Iterator<M> pooled(MessagePool<M> pool, long count, ObjIntConsumer<? super M> filler) {
+    return new Iterator<>() {
+      private long next = 0;
+
+      @Override
+      public boolean hasNext() {
+        return next < count;
+      }
+
+      @Override
+      public M next() {
+        if (next >= count) {
+          throw new NoSuchElementException();
+        }
+        M message = pool.acquire();
+        filler.accept(message, (int) next++);
+        return message;
+      }
+    };
+  }
+
+  /**
+   * Adapts a spliterator, for example one obtained from a stream, into a producer source.
+   */
+  public static <T> Iterator<T> fromSpliterator(Spliterator<? extends T> spliterator) {
+    return Spliterators.iterator(spliterator);
+  }
+
+  /**
+   * Reads one integer per line from the reader. Blank lines are skipped and the reader is
+   * closed once the last line has been read.
+   */
+  public static Iterator<Integer> fromReader(BufferedReader reader) {
+    return new Iterator<>() {
+      private String nextLine = advance();
+
+      private String advance() {
+        try {
+          String line;
+          while ((line = reader.readLine()) != null) {
+            if (!line.isBlank()) {
+              return line.trim();
+            }
+          }
+          reader.close();
+          return null;
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      }
+
+      @Override
+      public boolean hasNext() {
+        return nextLine != null;
+      }
+
+      @Override
+      public Integer next() {
+        if (nextLine == null) {
+          throw new NoSuchElementException();
+        }
+        int value = Integer.parseInt(nextLine);
+        nextLine = advance();
+        return value;
+      }
+    };
+  }
+}
@@ -0,0 +1,91 @@
+package com.a1;
+
+/**
+ * Fixed-size histogram of non-negative latencies with log-linear buckets, in the style of
+ * HdrHistogram: values below {@link #SUB_BUCKETS} are counted exactly, larger values in buckets
+ * whose width is at most 1/64 of their lower bound. Recording never allocates, so it can run on
+ * a benchmark's hot path without showing up in the GC counts being measured.
+ *
+ * <p>Not thread-safe; give each thread its own histogram and {@link #add} them afterwards.
+ */
+final class LatencyHistogram {
+  static final int SUB_BUCKET_BITS = 7;
+  static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int HALF = SUB_BUCKETS / 2;
+  // Values up to Long.MAX_VALUE have their top bit at 62, i.e. a shift of at most 56.
+  private static final int MAX_SHIFT = 63 - SUB_BUCKET_BITS;
+
+  private final long[] counts = new long[SUB_BUCKETS + MAX_SHIFT * HALF];
+  private long count;
+  private long max;
+
+  /**
+   * Counts one value; negative values are counted as 0.
+   */
+  void record(long value) {
+    long v = Math.max(0, value);
+    counts[indexOf(v)]++;
+    count++;
+    if (v > max) {
+      max = v;
+    }
+  }
+
+  /**
+   * Adds every value counted by {@code other} to this histogram.
+   */
+  void add(LatencyHistogram other) {
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] += other.counts[i];
+    }
+    count += other.count;
+    max = Math.max(max, other.max);
+  }
+
+  long count() {
+    return count;
+  }
+
+  /**
+   * Returns the largest value recorded, exactly, or 0 if none was.
+   */
+  long max() {
+    return max;
+  }
+
+  /**
+   * Returns the value at the given fraction of the counted values, as the highest value of its
+   * bucket but never more than {@link #max()}, or 0 if nothing was counted.
+   */
+  long percentile(double fraction) {
+    if (count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, Math.min(count, (long) Math.ceil(fraction * count)));
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return Math.min(max, highestValueAt(i));
+      }
+    }
+    return max;
+  }
+
+  static int indexOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    return SUB_BUCKETS + (shift - 1) * HALF + (int) (value >>> shift) - HALF;
+  }
+
+  static long highestValueAt(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = (index - SUB_BUCKETS) / HALF + 1;
+    long mantissa = (index - SUB_BUCKETS) % HALF + HALF;
+    return ((mantissa + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,55 @@
+package com.a1;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Pool of reusable message objects. Producers acquire a message, fill it in and put it on the
+ * queue; consumers release it once handled (see {@link Consumer#recycleInto}). In steady state the
+ * number of live messages is bounded by the queue capacity plus the messages in flight, so no
+ * message is allocated per item. Idle messages sit in a fixed array of {@code maxIdle} slots, so
+ * acquiring and releasing allocate nothing either; the queue the messages travel through may
+ * still allocate, e.g. a node per put in {@link MyBlockingQueue}.
+ *
+ * @param <T> the type of pooled message
+ */
+public class MessagePool<T> {
+  private final ArrayBlockingQueue<T> free;
+  private final LongAdder created = new LongAdder();
+  private final Supplier<? extends T> factory;
+
+  public MessagePool(Supplier<? extends T> factory, int maxIdle) {
+    if (maxIdle <= 0) {
+      throw new IllegalArgumentException("maxIdle must be positive");
+    }
+    this.factory = factory;
+    this.free = new ArrayBlockingQueue<>(maxIdle);
+  }
+
+  /**
+   * Returns an idle message, or a new one if none is available.
+   */
+  public T acquire() {
+    T message = free.poll();
+    if (message != null) {
+      return message;
+    }
+    created.increment();
+    return factory.get();
+  }
+
+  /**
+   * Returns a message to the pool. Messages beyond the idle limit are left to the garbage collector.
+   */
+  public void release(T message) {
+    free.offer(message);
+  }
+
+  /**
+   * Returns how many messages the factory has created so far.
+   */
+  public long getCreatedCount() {
+    return created.sum();
+  }
+}
@@ -1,20 +1,41 @@
 package com.a1;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
 
 /**
  *  This class represents a thread-safe blocking queue with fixed capacity that supports blocking
  *  put and take operations. Uses wait/notify mechanism to block producers when full and consumers
- *  when empty.
+ *  when empty. The queue can be closed with {@link #close()} or {@link #closeNow()}, which wake every
+ *  blocked thread immediately so a run can shut down without relying on interruption.
+ *
+ *  <p>Before blocking, put and take spin briefly on a volatile mirror of the size, because under a
+ *  balanced load the queue is usually full or empty for only a few microseconds. {@link SpinPolicy}
+ *  tunes the spin length from how often it pays off, so idle queues park immediately. Wakeups are
+ *  only sent when a thread on the other side is actually waiting.
  *
  * @param <T> the type of elements held in this queue
  */
-public class MyBlockingQueue<T> {
+public class MyBlockingQueue<T> implements ItemQueue<T> {
     private final Queue<T> queue;
     private final int capacity;
     private final Object lock = new Object();
-    
+    // Statistics are only written while holding the lock; volatile lets monitors read them live.
+    private volatile long putWaitCount;
+    private volatile long totalPut;
+    private volatile long totalTaken;
+    private volatile int waitingProducers;
+    private volatile int waitingConsumers;
+    private final SpinPolicy putSpin = new SpinPolicy();
+    private final SpinPolicy takeSpin = new SpinPolicy();
+    // Mirrors queue.size() so spinning threads can watch it without taking the lock.
+    private volatile int count;
+    private volatile boolean closed;
+
     public MyBlockingQueue(int capacity) {
         if (capacity <= 0) {
             throw new IllegalArgumentException("Capacity must be positive");
@@ -25,34 +46,155 @@ public class MyBlockingQueue<T> {
 
     /**
      * Adds an item to the queue, blocking if the queue is full until space becomes available.
+     *
+     * @throws QueueClosedException if the queue is closed before the item could be added
      */
+    @Override
     public void put(T item) throws InterruptedException {
+        if (count >= capacity) {
+            spinWhileFull();
+        }
         synchronized (lock) {
+            ensureOpen();
+            if (queue.size() >= capacity) {
+                putWaitCount++;
+            }
             while (queue.size() >= capacity) {
-                lock.wait();
+                waitingProducers++;
+                try {
+                    lock.wait();
+                } finally {
+                    waitingProducers--;
+                }
+                ensureOpen();
             }
             queue.offer(item);
-            lock.notifyAll();
+            count++;
+            totalPut++;
+            if (waitingConsumers > 0) {
+                lock.notifyAll();
+            }
         }
     }
 
     /**
      * Removes and returns an item from the queue, blocking if empty until an item is available.
+     *
+     * @throws QueueClosedException if the queue is closed and has no items left
      */
+     @Override
      public T take() throws InterruptedException {
+        if (count == 0) {
+            spinWhileEmpty();
+        }
+        synchronized (lock) {
+            while (queue.isEmpty()) {
+                ensureNotDrained();
+                waitingConsumers++;
+                try {
+                    lock.wait();
+                } finally {
+                    waitingConsumers--;
+                }
+            }
+            return dequeue();
+        }
+    }
+
+    /**
+     * Removes and returns an item, waiting up to the given timeout for one to become available.
+     * Returns null if the timeout elapses while the queue is still empty.
+     *
+     * @throws QueueClosedException if the queue is closed and has no items left
+     */
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
         synchronized (lock) {
             while (queue.isEmpty()) {
-                lock.wait();
+                ensureNotDrained();
+                if (remaining <= 0) {
+                    return null;
+                }
+                long deadline = System.nanoTime() + remaining;
+                waitingConsumers++;
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                } finally {
+                    waitingConsumers--;
+                }
+                remaining = deadline - System.nanoTime();
             }
-            T item = queue.poll();
+            return dequeue();
+        }
+    }
+
+    private T dequeue() {
+        T item = queue.poll();
+        count--;
+        totalTaken++;
+        if (waitingProducers > 0) {
             lock.notifyAll();
-            return item;
+        }
+        return item;
+    }
+
+    private void spinWhileFull() {
+        int spins = putSpin.spins();
+        if (spins == 0) {
+            return;
+        }
+        for (int i = 0; i < spins; i++) {
+            if (count < capacity || closed) {
+                putSpin.record(true);
+                return;
+            }
+            Thread.onSpinWait();
+        }
+        putSpin.record(false);
+    }
+
+    private void spinWhileEmpty() {
+        int spins = takeSpin.spins();
+        if (spins == 0) {
+            return;
+        }
+        for (int i = 0; i < spins; i++) {
+            if (count > 0 || closed) {
+                takeSpin.record(true);
+                return;
+            }
+            Thread.onSpinWait();
+        }
+        takeSpin.record(false);
+    }
+
+    /**
+     * Moves up to maxItems items into target under one lock acquisition, waking blocked producers once.
+     */
+    @Override
+    public int drainTo(Collection<? super T> target, int maxItems) {
+        synchronized (lock) {
+            int moved = 0;
+            while (moved < maxItems && !queue.isEmpty()) {
+                target.add(queue.poll());
+                moved++;
+            }
+            if (moved > 0) {
+                count -= moved;
+                totalTaken += moved;
+                if (waitingProducers > 0) {
+                    lock.notifyAll();
+                }
+            }
+            return moved;
         }
     }
 
     /**
      * Returns true if the queue contains no elements.
      */
+    @Override
     public boolean isEmpty() {
         synchronized (lock) {
             return queue.isEmpty();
@@ -71,9 +213,105 @@ public class MyBlockingQueue<T> {
     /**
      * Returns the current number of elements in the queue.
      */
+    @Override
     public int size() {
         synchronized (lock) {
             return queue.size();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns the size from its volatile mirror without taking the lock, for monitoring. The
+     * value may be a moment out of date.
+     */
+    int approximateSize() {
+        return count;
+    }
+
+    /**
+     * Returns the maximum number of elements the queue can hold.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns how many put calls so far found the queue full and had to block.
+     */
+    public long getPutWaitCount() {
+        return putWaitCount;
+    }
+
+    /**
+     * Returns how many items have been put since the queue was created.
+     */
+    public long getTotalPut() {
+        return totalPut;
+    }
+
+    /**
+     * Returns how many items have been taken since the queue was created.
+     */
+    public long getTotalTaken() {
+        return totalTaken;
+    }
+
+    /**
+     * Returns how many producers are currently blocked waiting for space.
+     */
+    public int getWaitingProducers() {
+        return waitingProducers;
+    }
+
+    /**
+     * Returns how many consumers are currently blocked waiting for an item.
+     */
+    public int getWaitingConsumers() {
+        return waitingConsumers;
+    }
+
+    /**
+     * Closes the queue for new items. Blocked and future puts fail, while consumers keep taking
+     * the remaining items and then fail once the queue is empty. Wakes every waiting thread.
+     */
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Closes the queue and removes every undelivered item, returning them in FIFO order. Every
+     * waiting producer and consumer wakes immediately and fails with {@link QueueClosedException}.
+     */
+    public List<T> closeNow() {
+        synchronized (lock) {
+            closed = true;
+            List<T> undelivered = new ArrayList<>(queue);
+            queue.clear();
+            count = 0;
+            lock.notifyAll();
+            return undelivered;
+        }
+    }
+
+    /**
+     * Returns true once {@link #close()} or {@link #closeNow()} has been called.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new QueueClosedException("Queue is closed");
+        }
+    }
+
+    private void ensureNotDrained() {
+        if (closed) {
+            throw new QueueClosedException("Queue is closed and drained");
+        }
+    }
+}
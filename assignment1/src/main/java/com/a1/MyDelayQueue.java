@@ -0,0 +1,334 @@
+package com.a1;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded queue whose items only become available after a delay, for retries and deferred work.
+ * Items are kept in a binary min-heap ordered by due time (ties in insertion order). The heap is
+ * stored as parallel arrays sized to the capacity up front, so scheduling an item allocates nothing.
+ *
+ * <p>Consumers follow the leader/follower pattern: one waiting consumer, the leader, sleeps until
+ * the head item is due, while the others wait indefinitely. Each state change signals a single
+ * thread instead of waking every waiter.
+ *
+ * @param <T> the type of elements held in this queue
+ */
+public class MyDelayQueue<T> implements ItemQueue<T> {
+    private final long[] dueNanos;
+    private final long[] sequence;
+    private final Object[] items;
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private Thread leader;
+    private long nextSequence;
+    private int size;
+    private boolean closed;
+
+    public MyDelayQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.dueNanos = new long[capacity];
+        this.sequence = new long[capacity];
+        this.items = new Object[capacity];
+    }
+
+    /**
+     * Adds an item that is available immediately, blocking while the queue is full.
+     */
+    @Override
+    public void put(T item) throws InterruptedException {
+        put(item, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Adds an item that becomes available after the delay, blocking while the queue is full.
+     *
+     * @throws QueueClosedException if the queue is closed before the item could be added
+     */
+    public void put(T item, long delay, TimeUnit unit) throws InterruptedException {
+        long due = System.nanoTime() + unit.toNanos(delay);
+        lock.lockInterruptibly();
+        try {
+            ensureOpen();
+            while (size == capacity) {
+                notFull.await();
+                ensureOpen();
+            }
+            int index = size++;
+            dueNanos[index] = due;
+            sequence[index] = nextSequence++;
+            items[index] = item;
+            if (siftUp(index) == 0) {
+                // The new item is due before anything the leader is sleeping on.
+                leader = null;
+                available.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the next item, blocking until one is due.
+     *
+     * @throws QueueClosedException if the queue is closed and has no items left
+     */
+    @Override
+    public T take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                if (size == 0) {
+                    ensureNotDrained();
+                    available.await();
+                    continue;
+                }
+                long delay = dueNanos[0] - System.nanoTime();
+                if (delay <= 0) {
+                    return removeHead();
+                }
+                if (leader != null) {
+                    available.await();
+                } else {
+                    Thread current = Thread.currentThread();
+                    leader = current;
+                    try {
+                        available.awaitNanos(delay);
+                    } finally {
+                        if (leader == current) {
+                            leader = null;
+                        }
+                    }
+                }
+            }
+        } finally {
+            handOverLeadership();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the next due item, waiting up to the timeout. Returns null on timeout.
+     *
+     * @throws QueueClosedException if the queue is closed and has no items left
+     */
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (true) {
+                if (size == 0) {
+                    ensureNotDrained();
+                    if (remaining <= 0) {
+                        return null;
+                    }
+                    remaining = available.awaitNanos(remaining);
+                    continue;
+                }
+                long delay = dueNanos[0] - System.nanoTime();
+                if (delay <= 0) {
+                    return removeHead();
+                }
+                if (remaining <= 0) {
+                    return null;
+                }
+                if (leader != null || remaining < delay) {
+                    remaining = available.awaitNanos(remaining);
+                } else {
+                    Thread current = Thread.currentThread();
+                    leader = current;
+                    try {
+                        remaining -= delay - available.awaitNanos(delay);
+                    } finally {
+                        if (leader == current) {
+                            leader = null;
+                        }
+                    }
+                }
+            }
+        } finally {
+            handOverLeadership();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of items in the queue, due or not.
+     */
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns true if the queue holds no items, due or not.
+     */
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the maximum number of items the queue can hold.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the time until the head item is due, or null when the queue is empty. Negative when
+     * the head item is already overdue.
+     */
+    public Long getDelayOfHead(TimeUnit unit) {
+        lock.lock();
+        try {
+            return size == 0 ? null : unit.convert(dueNanos[0] - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the queue for new items. Blocked and future puts fail, while consumers keep taking the
+     * remaining items as they fall due and then fail once the queue is empty.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            available.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes the queue and removes every undelivered item, returning them in due order. Every
+     * waiting producer and consumer wakes immediately and fails with {@link QueueClosedException}.
+     */
+    public List<T> closeNow() {
+        lock.lock();
+        try {
+            closed = true;
+            List<T> undelivered = new ArrayList<>(size);
+            while (size > 0) {
+                undelivered.add(removeHead());
+            }
+            available.signalAll();
+            notFull.signalAll();
+            return undelivered;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns true once {@link #close()} or {@link #closeNow()} has been called.
+     */
+    public boolean isClosed() {
+        lock.lock();
+        try {
+            return closed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void handOverLeadership() {
+        // A consumer leaving the wait loop lets the next waiter take over timing the new head.
+        if (leader == null && size > 0) {
+            available.signal();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T removeHead() {
+        T item = (T) items[0];
+        int last = --size;
+        if (last > 0) {
+            move(last, 0);
+            siftDown(0);
+        }
+        items[last] = null;
+        notFull.signal();
+        return item;
+    }
+
+    private int siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!before(index, parent)) {
+                break;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+        return index;
+    }
+
+    private void siftDown(int index) {
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && before(right, child)) {
+                child = right;
+            }
+            if (!before(child, index)) {
+                break;
+            }
+            swap(index, child);
+            index = child;
+        }
+    }
+
+    private boolean before(int a, int b) {
+        long diff = dueNanos[a] - dueNanos[b];
+        return diff < 0 || (diff == 0 && sequence[a] < sequence[b]);
+    }
+
+    private void move(int from, int to) {
+        dueNanos[to] = dueNanos[from];
+        sequence[to] = sequence[from];
+        items[to] = items[from];
+    }
+
+    private void swap(int a, int b) {
+        long due = dueNanos[a];
+        dueNanos[a] = dueNanos[b];
+        dueNanos[b] = due;
+        long seq = sequence[a];
+        sequence[a] = sequence[b];
+        sequence[b] = seq;
+        Object item = items[a];
+        items[a] = items[b];
+        items[b] = item;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new QueueClosedException("Queue is closed");
+        }
+    }
+
+    private void ensureNotDrained() {
+        if (closed) {
+            throw new QueueClosedException("Queue is closed and drained");
+        }
+    }
+}
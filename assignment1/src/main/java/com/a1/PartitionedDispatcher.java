@@ -0,0 +1,170 @@
+package com.a1;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Routes items to one of N per-consumer queues by hashing each item's key, in the style of
+ * Kafka partitions. Every item with the same key lands on the same partition, so a consumer
+ * that owns a partition sees each key's items in dispatch order and can keep per-key state
+ * in plain thread-local fields without locking.
+ *
+ * <p>Every item taken from a partition must be {@link #complete(int) completed} once it has been
+ * handled, so {@link #rebalance} knows when no key has work left anywhere, queued or in progress.
+ * A {@link Consumer} given {@link #handlerFor} does this itself; code that takes items by hand
+ * calls {@code complete} directly.
+ *
+ * @param <T> the type of items being dispatched
+ */
+public class PartitionedDispatcher<T> {
+
+  /**
+   * Maps a key to a partition index in [0, numPartitions).
+   */
+  @FunctionalInterface
+  public interface Partitioner {
+    int partition(Object key, int numPartitions);
+  }
+
+  /**
+   * Default partitioner: spreads the key's hash code and reduces it modulo the partition count.
+   */
+  public static final Partitioner HASH_PARTITIONER = (key, numPartitions) -> {
+    int h = Objects.hashCode(key);
+    return Math.floorMod(h ^ (h >>> 16), numPartitions);
+  };
+
+  private final List<MyBlockingQueue<T>> partitions;
+  private final Function<? super T, ?> keyExtractor;
+  private final ReentrantReadWriteLock routingLock = new ReentrantReadWriteLock();
+  // Items dispatched to each partition and not yet completed, guarded by idleLock.
+  private final int[] inFlight;
+  private final Object idleLock = new Object();
+  private volatile Partitioner partitioner;
+
+  public PartitionedDispatcher(int numPartitions, int capacityPerPartition,
+                               Function<? super T, ?> keyExtractor) {
+    this(numPartitions, capacityPerPartition, keyExtractor, HASH_PARTITIONER);
+  }
+
+  public PartitionedDispatcher(int numPartitions, int capacityPerPartition,
+                               Function<? super T, ?> keyExtractor, Partitioner partitioner) {
+    if (numPartitions <= 0) {
+      throw new IllegalArgumentException("Number of partitions must be positive");
+    }
+    List<MyBlockingQueue<T>> queues = new ArrayList<>(numPartitions);
+    for (int i = 0; i < numPartitions; i++) {
+      queues.add(new MyBlockingQueue<>(capacityPerPartition));
+    }
+    this.partitions = Collections.unmodifiableList(queues);
+    this.inFlight = new int[numPartitions];
+    this.keyExtractor = Objects.requireNonNull(keyExtractor);
+    this.partitioner = Objects.requireNonNull(partitioner);
+  }
+
+  /**
+   * Puts the item on the partition owning its key, blocking if that partition is full.
+   */
+  public void dispatch(T item) throws InterruptedException {
+    routingLock.readLock().lockInterruptibly();
+    try {
+      int index = partitionFor(item);
+      synchronized (idleLock) {
+        inFlight[index]++;
+      }
+      boolean queued = false;
+      try {
+        partitions.get(index).put(item);
+        queued = true;
+      } finally {
+        if (!queued) {
+          complete(index);
+        }
+      }
+    } finally {
+      routingLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Marks one item taken from the given partition as fully handled. Consumers call this after
+   * their handler returns, whether or not it succeeded.
+   */
+  public void complete(int index) {
+    synchronized (idleLock) {
+      if (inFlight[index] == 0) {
+        throw new IllegalStateException("No item in flight on partition " + index);
+      }
+      if (--inFlight[index] == 0) {
+        idleLock.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Wraps the handler of the consumer draining the given partition so that each item is
+   * completed once the handler returns or throws, whatever the consumer's error policy.
+   */
+  public ItemHandler<T> handlerFor(int index, ItemHandler<? super T> handler) {
+    Objects.checkIndex(index, partitions.size());
+    Objects.requireNonNull(handler);
+    return item -> {
+      try {
+        handler.handle(item);
+      } finally {
+        complete(index);
+      }
+    };
+  }
+
+  /**
+   * Returns the partition index the item is currently routed to.
+   */
+  public int partitionFor(T item) {
+    int index = partitioner.partition(keyExtractor.apply(item), partitions.size());
+    if (index < 0 || index >= partitions.size()) {
+      throw new IllegalStateException("Partitioner returned " + index + " for "
+              + partitions.size() + " partitions");
+    }
+    return index;
+  }
+
+  /**
+   * Returns the queue for the given partition, to be drained by exactly one consumer.
+   */
+  public MyBlockingQueue<T> partition(int index) {
+    return partitions.get(index);
+  }
+
+  public int getPartitionCount() {
+    return partitions.size();
+  }
+
+  /**
+   * Rebalancing hook: swaps in a new key-to-partition mapping. New dispatches are held back and
+   * the swap waits until every dispatched item has been completed, so no key ever has items
+   * queued or being handled on two partitions at once and per-key ordering survives the move.
+   * Consumers must keep draining and completing their partitions while this call waits; items
+   * left on a partition whose consumer has stopped keep it waiting.
+   */
+  public void rebalance(Partitioner newPartitioner) throws InterruptedException {
+    Objects.requireNonNull(newPartitioner);
+    routingLock.writeLock().lockInterruptibly();
+    try {
+      synchronized (idleLock) {
+        for (int index = 0; index < inFlight.length; index++) {
+          while (inFlight[index] > 0) {
+            idleLock.wait();
+          }
+        }
+      }
+      partitioner = newPartitioner;
+    } finally {
+      routingLock.writeLock().unlock();
+    }
+  }
+}
@@ -1,47 +1,110 @@
 package com.a1;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 /**
- * Producer thread that takes items from a source list and puts them into a blocking queue.
+ * Producer thread that pulls items from a source and puts them into a blocking queue.
  * Implements the producer side of the producer-consumer pattern with thread synchronization.
+ * The source is consumed lazily, so unbounded or file-backed sources (see {@link ItemSources})
+ * stream through the queue without being materialized up front.
+ *
+ * <p>The three-argument constructors keep the demo behavior of logging every item and pausing
+ * {@link #DEMO_PAUSE_MILLIS} ms between puts; real workloads pass a pause of 0 and turn logging off.
+ * With {@link #rateLimitedBy(TokenBucket)} every put first takes a permit, pacing the producer to
+ * the bucket's rate.
+ *
+ * @param <T> the type of items produced
  */
-public class Producer implements Runnable {
-  private final MyBlockingQueue<Integer> queue;
-  private final List<Integer> source;
+public class Producer<T> implements Runnable {
+  static final long DEMO_PAUSE_MILLIS = 50;
+
+  private final ItemQueue<T> queue;
+  private final Iterator<? extends T> source;
   private final String name;
-  private int itemsProduced = 0;
+  private final long pauseMillis;
+  private final boolean logging;
+  private final ItemDigest digest = new ItemDigest();
+  private TokenBucket rateLimiter;
+  private volatile int itemsProduced = 0;
+
+  public Producer(ItemQueue<T> queue, List<? extends T> source, String name) {
+    this(queue, source.iterator(), name);
+  }
+
+  public Producer(ItemQueue<T> queue, Iterator<? extends T> source, String name) {
+    this(queue, source, name, DEMO_PAUSE_MILLIS, true);
+  }
 
-  public Producer(MyBlockingQueue<Integer> queue, List<Integer> source, String name) {
+  public Producer(ItemQueue<T> queue, Iterator<? extends T> source, String name,
+                  long pauseMillis, boolean logging) {
     this.queue = queue;
     this.source = source;
     this.name = name;
+    this.pauseMillis = pauseMillis;
+    this.logging = logging;
+  }
+
+  /**
+   * Takes a permit from the bucket before every put. Must be set before the producer runs.
+   */
+  public Producer<T> rateLimitedBy(TokenBucket bucket) {
+    this.rateLimiter = bucket;
+    return this;
   }
 
   /**
-   * Takes items from the source list and puts them into the queue.
+   * Pulls items from the source one at a time and puts them into the queue.
    */
   @Override
   public void run() {
     try {
-      for (Integer item : source) {
+      while (source.hasNext()) {
+        T item = source.next();
+        // Hash before the put: a pooled message may be recycled by a consumer as soon as it is queued.
+        int itemHash = Objects.hashCode(item);
+        String description = logging ? String.valueOf(item) : null;
+        if (rateLimiter != null) {
+          rateLimiter.acquire(1);
+        }
         queue.put(item);
-        LocalDateTime timestamp = LocalDateTime.now();  // Capture timestamp immediately after put
+        LocalDateTime timestamp = logging ? LocalDateTime.now() : null;  // Capture timestamp immediately after put
         itemsProduced++;
-        System.out.println("[" + timestamp.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS")) + "] Producer " + name + " produced: " + item);
-        Thread.sleep(50); // Simulate work
+        digest.record(itemHash);
+        if (logging) {
+          System.out.println("[" + timestamp.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS")) + "] Producer " + name + " produced: " + description);
+        }
+        if (pauseMillis > 0) {
+          Thread.sleep(pauseMillis); // Simulate work
+        }
+      }
+      if (logging) {
+        System.out.println("[" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS")) + "] Producer " + name + " finished. Total produced: " + itemsProduced);
       }
-      System.out.println("[" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS")) + "] Producer " + name + " finished. Total produced: " + itemsProduced);
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
       System.out.println("Producer " + name + " interrupted");
+    } catch (QueueClosedException e) {
+      System.out.println("Producer " + name + " stopped: " + e.getMessage());
     }
   }
 
+  public String getName() {
+    return name;
+  }
+
   public int getItemsProduced() {
     return itemsProduced;
   }
-}
 
+  /**
+   * Returns the running digest of every item this producer has put into the queue. Items are
+   * digested by their hash code, which for Integer items is the value itself.
+   */
+  public ItemDigest getDigest() {
+    return digest;
+  }
+}
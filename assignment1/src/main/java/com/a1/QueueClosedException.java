@@ -0,0 +1,13 @@
+package com.a1;
+
+/**
+ * Thrown when a put is attempted on a closed queue, or a take finds a closed queue with no
+ * items left to drain.
+ */
+public class QueueClosedException extends IllegalStateException {
+  private static final long serialVersionUID = 1L;
+
+  public QueueClosedException(String message) {
+    super(message);
+  }
+}
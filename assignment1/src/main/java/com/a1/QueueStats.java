@@ -0,0 +1,74 @@
+package com.a1;
+
+/**
+ * JMX view of a {@link MyBlockingQueue}. Every attribute reads the queue's volatile counters
+ * directly, so monitoring never takes the queue lock or disturbs the producers and consumers.
+ * The recent throughput is measured between the samples {@link StatsRegistry} takes while the
+ * bean is registered.
+ */
+public class QueueStats implements QueueStatsMXBean, StatsRegistry.Sampled {
+    private final MyBlockingQueue<?> queue;
+    private final long startNanos;
+    private final RateSampler recent = new RateSampler();
+
+    public QueueStats(MyBlockingQueue<?> queue) {
+        this.queue = queue;
+        this.startNanos = System.nanoTime();
+        sample();
+    }
+
+    @Override
+    public void sample() {
+        recent.sample(queue.getTotalTaken());
+    }
+
+    @Override
+    public int getSize() {
+        return queue.approximateSize();
+    }
+
+    @Override
+    public int getCapacity() {
+        return queue.getCapacity();
+    }
+
+    @Override
+    public long getTotalPut() {
+        return queue.getTotalPut();
+    }
+
+    @Override
+    public long getTotalTaken() {
+        return queue.getTotalTaken();
+    }
+
+    @Override
+    public int getBlockedProducers() {
+        return queue.getWaitingProducers();
+    }
+
+    @Override
+    public int getBlockedConsumers() {
+        return queue.getWaitingConsumers();
+    }
+
+    @Override
+    public long getPutWaitCount() {
+        return queue.getPutWaitCount();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return queue.isClosed();
+    }
+
+    @Override
+    public double getThroughputPerSecond() {
+        return RateSampler.perSecond(queue.getTotalTaken(), System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public double getRecentThroughputPerSecond() {
+        return recent.rate();
+    }
+}
@@ -0,0 +1,32 @@
+package com.a1;
+
+/**
+ * Management interface exposing live statistics of a {@link MyBlockingQueue} over JMX.
+ */
+public interface QueueStatsMXBean {
+    int getSize();
+
+    int getCapacity();
+
+    long getTotalPut();
+
+    long getTotalTaken();
+
+    int getBlockedProducers();
+
+    int getBlockedConsumers();
+
+    long getPutWaitCount();
+
+    boolean isClosed();
+
+    /**
+     * Returns items taken per second since the bean was created.
+     */
+    double getThroughputPerSecond();
+
+    /**
+     * Returns items taken per second over the latest sampling period, so a JConsole chart shows the current rate.
+     */
+    double getRecentThroughputPerSecond();
+}
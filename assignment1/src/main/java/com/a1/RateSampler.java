@@ -0,0 +1,33 @@
+package com.a1;
+
+/**
+ * Turns a monotonically increasing counter into a rate measured between consecutive samples.
+ * Samples are taken on a fixed schedule by {@link StatsRegistry}; reading the rate never
+ * changes it, so any number of monitors can watch it without shortening each other's window.
+ */
+final class RateSampler {
+    private long lastCount;
+    private long lastNanos = System.nanoTime();
+    private volatile double rate;
+
+    /**
+     * Records the counter's current value and the per-second rate since the previous sample.
+     */
+    synchronized void sample(long count) {
+        long now = System.nanoTime();
+        rate = perSecond(count - lastCount, now - lastNanos);
+        lastCount = count;
+        lastNanos = now;
+    }
+
+    /**
+     * Returns the rate measured by the latest sample, or 0 before the first one.
+     */
+    double rate() {
+        return rate;
+    }
+
+    static double perSecond(long count, long elapsedNanos) {
+        return elapsedNanos <= 0 ? 0.0 : count * 1_000_000_000.0 / elapsedNanos;
+    }
+}
@@ -0,0 +1,289 @@
+package com.a1;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded reorder buffer that releases items downstream strictly in per-producer sequence order,
+ * whichever consumer thread finishes them first.
+ *
+ * <p>Each producer gets a ring of {@code window} slots. An item that arrives ahead of the next
+ * expected sequence is parked in its slot; an item that is a full window or more ahead blocks
+ * its submitter until the gap closes, which applies backpressure to the consumers. If a gap
+ * persists past the gap timeout the missing sequence is declared lost and skipped, so one failed
+ * item cannot stall the stream forever. Gaps are expired on every {@link #submit} and
+ * {@link #skip}, and {@link #flush()} releases whatever is still parked at the end of the
+ * stream. Consumers that know an item failed can call {@link #skip(int, long)} to release the
+ * gap immediately.
+ *
+ * <p>The downstream handler is called under the resequencer's lock, one item at a time. A
+ * checked exception it throws reaches the caller wrapped in an {@link ExecutionException}.
+ *
+ * @param <T> the type of values released downstream
+ */
+public class Resequencer<T> {
+  private final ItemHandler<? super T> downstream;
+  private final int window;
+  private final long gapTimeoutNanos;
+  private final Map<Integer, ProducerStream> streams = new HashMap<>();
+  private final Object lock = new Object();
+  private long releasedCount;
+  private long skippedCount;
+  private long lateCount;
+
+  public Resequencer(int window, long gapTimeout, TimeUnit unit, ItemHandler<? super T> downstream) {
+    if (window <= 0) {
+      throw new IllegalArgumentException("Window must be positive");
+    }
+    this.window = window;
+    this.gapTimeoutNanos = unit.toNanos(gapTimeout);
+    this.downstream = downstream;
+  }
+
+  /**
+   * Accepts a processed item and releases every item that is now in order. Blocks while the
+   * item is a full window ahead of its producer's next expected sequence. Returns false if the
+   * item arrived after its sequence had already been released or skipped, in which case it is
+   * dropped.
+   *
+   * @throws ExecutionException if the downstream handler threw a checked exception
+   */
+  public boolean submit(Sequenced<? extends T> item) throws InterruptedException, ExecutionException {
+    synchronized (lock) {
+      expireGaps(System.nanoTime());
+      ProducerStream stream = streams.computeIfAbsent(item.getProducerId(), id -> new ProducerStream(window));
+      awaitRoom(stream, item.getSequence());
+
+      int slot = stream.slot(item.getSequence());
+      if (item.getSequence() < stream.nextSequence || stream.present[slot]) {
+        lateCount++;
+        return false;
+      }
+      stream.values[slot] = item.getValue();
+      park(stream, slot);
+      releaseInOrder(stream);
+      return true;
+    }
+  }
+
+  /**
+   * Marks a sequence as permanently missing, for example because its handler failed, so later
+   * items of the same producer are not held back waiting for it.
+   *
+   * @throws ExecutionException if the downstream handler threw a checked exception
+   */
+  public void skip(int producerId, long sequence) throws InterruptedException, ExecutionException {
+    synchronized (lock) {
+      expireGaps(System.nanoTime());
+      ProducerStream stream = streams.computeIfAbsent(producerId, id -> new ProducerStream(window));
+      awaitRoom(stream, sequence);
+      if (sequence < stream.nextSequence) {
+        return;
+      }
+      int slot = stream.slot(sequence);
+      stream.skipped[slot] = true;
+      park(stream, slot);
+      releaseInOrder(stream);
+    }
+  }
+
+  /**
+   * Releases every parked item, for use at the end of the stream. Each remaining gap is given
+   * until its gap timeout to fill and is then skipped, so this returns within about one gap
+   * timeout per gap.
+   *
+   * @throws ExecutionException if the downstream handler threw a checked exception
+   */
+  public void flush() throws InterruptedException, ExecutionException {
+    synchronized (lock) {
+      while (true) {
+        long now = System.nanoTime();
+        expireGaps(now);
+        long wait = Long.MAX_VALUE;
+        for (ProducerStream stream : streams.values()) {
+          if (stream.gapOpen) {
+            wait = Math.min(wait, stream.gapOpenedAt + gapTimeoutNanos - now);
+          }
+        }
+        if (wait == Long.MAX_VALUE) {
+          return;
+        }
+        TimeUnit.NANOSECONDS.timedWait(lock, Math.max(1, wait));
+      }
+    }
+  }
+
+  /**
+   * Returns how many items have been released downstream.
+   */
+  public long getReleasedCount() {
+    synchronized (lock) {
+      return releasedCount;
+    }
+  }
+
+  /**
+   * Returns how many sequences were skipped, explicitly or after the gap timeout.
+   */
+  public long getSkippedCount() {
+    synchronized (lock) {
+      return skippedCount;
+    }
+  }
+
+  /**
+   * Returns how many items arrived too late or twice and were dropped.
+   */
+  public long getLateCount() {
+    synchronized (lock) {
+      return lateCount;
+    }
+  }
+
+  /**
+   * Returns how many items are parked waiting for an earlier sequence.
+   */
+  public int getPendingCount() {
+    synchronized (lock) {
+      int pending = 0;
+      for (ProducerStream stream : streams.values()) {
+        pending += stream.parked;
+      }
+      return pending;
+    }
+  }
+
+  /**
+   * Waits until the sequence fits in its producer's window, skipping the gap at the head of the
+   * window whenever it outlives the gap timeout.
+   */
+  private void awaitRoom(ProducerStream stream, long sequence) throws InterruptedException, ExecutionException {
+    if (sequence - stream.nextSequence < window) {
+      return;
+    }
+    stream.waiting++;
+    try {
+      while (sequence - stream.nextSequence >= window) {
+        long now = System.nanoTime();
+        updateGap(stream, now, false);
+        long remaining = stream.gapOpenedAt + gapTimeoutNanos - now;
+        if (remaining <= 0) {
+          skipGap(stream);
+        } else {
+          TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+        }
+      }
+    } finally {
+      stream.waiting--;
+      updateGap(stream, System.nanoTime(), false);
+    }
+  }
+
+  /**
+   * Skips the head gap of every producer whose gap has outlived the gap timeout.
+   */
+  private void expireGaps(long now) throws InterruptedException, ExecutionException {
+    for (ProducerStream stream : streams.values()) {
+      if (stream.gapOpen && now - stream.gapOpenedAt >= gapTimeoutNanos) {
+        skipGap(stream);
+      }
+    }
+  }
+
+  /**
+   * Declares the missing sequences at the head of the window lost, up to the first parked item
+   * or at most one window, and releases what follows them.
+   */
+  private void skipGap(ProducerStream stream) throws InterruptedException, ExecutionException {
+    long sequence = stream.nextSequence;
+    while (sequence - stream.nextSequence < window && !stream.present[stream.slot(sequence)]) {
+      int slot = stream.slot(sequence++);
+      stream.skipped[slot] = true;
+      park(stream, slot);
+    }
+    releaseInOrder(stream);
+  }
+
+  private static void park(ProducerStream stream, int slot) {
+    stream.present[slot] = true;
+    stream.parked++;
+  }
+
+  /**
+   * Opens a gap when the stream has items parked or submitters waiting and none is open yet, or
+   * restarts it when the head moved on; closes it when nothing is held back.
+   */
+  private static void updateGap(ProducerStream stream, long now, boolean advanced) {
+    if (stream.parked == 0 && stream.waiting == 0) {
+      stream.gapOpen = false;
+    } else if (!stream.gapOpen || advanced) {
+      stream.gapOpen = true;
+      stream.gapOpenedAt = now;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void releaseInOrder(ProducerStream stream) throws InterruptedException, ExecutionException {
+    boolean advanced = false;
+    try {
+      while (stream.present[stream.slot(stream.nextSequence)]) {
+        int slot = stream.slot(stream.nextSequence);
+        T value = (T) stream.values[slot];
+        boolean wasSkipped = stream.skipped[slot];
+        stream.values[slot] = null;
+        stream.present[slot] = false;
+        stream.skipped[slot] = false;
+        stream.parked--;
+        stream.nextSequence++;
+        advanced = true;
+        if (wasSkipped) {
+          skippedCount++;
+        } else {
+          releasedCount++;
+          handleDownstream(value);
+        }
+      }
+    } finally {
+      updateGap(stream, System.nanoTime(), advanced);
+      if (advanced) {
+        lock.notifyAll();
+      }
+    }
+  }
+
+  private void handleDownstream(T value) throws InterruptedException, ExecutionException {
+    try {
+      downstream.handle(value);
+    } catch (InterruptedException | RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new ExecutionException(e);
+    }
+  }
+
+  /**
+   * Reorder ring for one producer.
+   */
+  private static final class ProducerStream {
+    private final Object[] values;
+    private final boolean[] present;
+    private final boolean[] skipped;
+    private long nextSequence;
+    private int parked;
+    private int waiting;
+    private boolean gapOpen;
+    private long gapOpenedAt;
+
+    private ProducerStream(int window) {
+      this.values = new Object[window];
+      this.present = new boolean[window];
+      this.skipped = new boolean[window];
+    }
+
+    private int slot(long sequence) {
+      return (int) Math.floorMod(sequence, (long) values.length);
+    }
+  }
+}
@@ -0,0 +1,345 @@
+package com.a1;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Parameter-sweep benchmark for the producer-consumer system. Iterates a grid of queue capacity,
+ * producer count, consumer count, queue implementation and workload, runs each point with
+ * warm-up and repetitions, and writes throughput, latency percentiles, CPU time and GC counts
+ * to CSV and JSON reports.
+ *
+ * <p>The workers here put and take directly instead of going through {@link Producer} and
+ * {@link Consumer}, whose logging and simulated sleeps would dominate the measurement. Each item
+ * is its own enqueue timestamp, boxed as a {@code Long} because the queues are generic; that one
+ * allocation per item is the same at every grid point. Consumers record latencies into a
+ * fixed-size {@link LatencyHistogram} each, merged after the run, so the harness itself adds
+ * no per-item garbage to the GC counts and memory does not grow with the number of items.
+ *
+ * <p>Usage: {@code java com.a1.ScalingBenchmark [key=value ...]} with keys {@code capacities},
+ * {@code producers}, {@code consumers}, {@code queues}, {@code workloads} (comma-separated lists),
+ * {@code items}, {@code warmups}, {@code reps} and {@code out} (output directory).
+ */
+public class ScalingBenchmark {
+
+  /**
+   * Queue implementations covered by the sweep.
+   */
+  public enum QueueKind { BLOCKING, SPILLING, CONFLATING }
+
+  /**
+   * Per-item consumer work.
+   */
+  public enum Workload { EMPTY, CPU }
+
+  static final int CPU_WORK_ROUNDS = 200;
+  static final int CONFLATING_KEYS = 1024;
+
+  private static volatile long blackhole;
+
+  /**
+   * One point of the parameter grid.
+   */
+  public static final class Point {
+    final int capacity;
+    final int producers;
+    final int consumers;
+    final QueueKind queue;
+    final Workload workload;
+
+    public Point(int capacity, int producers, int consumers, QueueKind queue, Workload workload) {
+      this.capacity = capacity;
+      this.producers = producers;
+      this.consumers = consumers;
+      this.queue = queue;
+      this.workload = workload;
+    }
+  }
+
+  /**
+   * Measurements for one repetition of one point.
+   */
+  public static final class Result {
+    final Point point;
+    final int repetition;
+    final long itemsProduced;
+    final long itemsDelivered;
+    final long elapsedNanos;
+    final long p50Nanos;
+    final long p99Nanos;
+    final long p999Nanos;
+    final long maxNanos;
+    final long cpuNanos;
+    final long gcCount;
+    final long gcMillis;
+
+    Result(Point point, int repetition, long itemsProduced, long itemsDelivered, long elapsedNanos,
+           LatencyHistogram latencies, long cpuNanos, long gcCount, long gcMillis) {
+      this.point = point;
+      this.repetition = repetition;
+      this.itemsProduced = itemsProduced;
+      this.itemsDelivered = itemsDelivered;
+      this.elapsedNanos = elapsedNanos;
+      this.p50Nanos = latencies.percentile(0.50);
+      this.p99Nanos = latencies.percentile(0.99);
+      this.p999Nanos = latencies.percentile(0.999);
+      this.maxNanos = latencies.max();
+      this.cpuNanos = cpuNanos;
+      this.gcCount = gcCount;
+      this.gcMillis = gcMillis;
+    }
+
+    /**
+     * Delivered items per second of wall-clock time.
+     */
+    public double throughput() {
+      return elapsedNanos == 0 ? 0 : itemsDelivered * 1e9 / elapsedNanos;
+    }
+  }
+
+  public static void main(String[] args) throws Exception {
+    int[] capacities = {16, 256, 4096};
+    int[] producerCounts = {1, 2, 4};
+    int[] consumerCounts = {1, 2, 4};
+    List<QueueKind> queues = Arrays.asList(QueueKind.values());
+    List<Workload> workloads = Arrays.asList(Workload.values());
+    int items = 200_000;
+    int warmups = 1;
+    int reps = 3;
+    Path out = Path.of("benchmark-results");
+
+    for (String arg : args) {
+      String[] kv = arg.split("=", 2);
+      if (kv.length != 2) {
+        throw new IllegalArgumentException("Expected key=value but got: " + arg);
+      }
+      switch (kv[0]) {
+        case "capacities": capacities = parseInts(kv[1]); break;
+        case "producers": producerCounts = parseInts(kv[1]); break;
+        case "consumers": consumerCounts = parseInts(kv[1]); break;
+        case "queues": queues = parseEnums(QueueKind.class, kv[1]); break;
+        case "workloads": workloads = parseEnums(Workload.class, kv[1]); break;
+        case "items": items = Integer.parseInt(kv[1]); break;
+        case "warmups": warmups = Integer.parseInt(kv[1]); break;
+        case "reps": reps = Integer.parseInt(kv[1]); break;
+        case "out": out = Path.of(kv[1]); break;
+        default: throw new IllegalArgumentException("Unknown option: " + kv[0]);
+      }
+    }
+
+    List<Result> results = new ArrayList<>();
+    for (QueueKind queue : queues) {
+      for (Workload workload : workloads) {
+        for (int capacity : capacities) {
+          for (int producers : producerCounts) {
+            for (int consumers : consumerCounts) {
+              Point point = new Point(capacity, producers, consumers, queue, workload);
+              for (int i = 0; i < warmups; i++) {
+                runPoint(point, items, -1);
+              }
+              for (int rep = 1; rep <= reps; rep++) {
+                Result result = runPoint(point, items, rep);
+                results.add(result);
+                System.out.printf(Locale.ROOT, "%-10s %-5s cap=%-5d P=%d C=%d rep=%d -> %,.0f items/s, p99=%,d ns%n",
+                        queue, workload, capacity, producers, consumers, rep,
+                        result.throughput(), result.p99Nanos);
+              }
+            }
+          }
+        }
+      }
+    }
+
+    Files.createDirectories(out);
+    writeCsv(results, out.resolve("scaling.csv"));
+    writeJson(results, out.resolve("scaling.json"));
+    System.out.println("Wrote " + results.size() + " results to " + out.toAbsolutePath());
+  }
+
+  /**
+   * Runs one repetition of a grid point and collects its measurements.
+   */
+  static Result runPoint(Point point, int totalItems, int repetition) throws InterruptedException {
+    Path spillDir = null;
+    ItemQueue<Long> queue;
+    try {
+      switch (point.queue) {
+        case SPILLING:
+          spillDir = Files.createTempDirectory("benchmark-spill");
+          queue = new SpillingQueue<>(point.capacity, spillDir, SpillCodec.LONGS);
+          break;
+        case CONFLATING:
+          queue = new ConflatingQueue<Long, Long>(point.capacity, item -> item % CONFLATING_KEYS);
+          break;
+        default:
+          queue = new MyBlockingQueue<>(point.capacity);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    AtomicLong cpuNanos = new AtomicLong();
+    AtomicLong producersRemaining = new AtomicLong(point.producers);
+    LatencyHistogram[] latencies = new LatencyHistogram[point.consumers];
+    int[] delivered = new int[point.consumers];
+    List<Thread> workers = new ArrayList<>();
+    ItemQueue<Long> target = queue;
+
+    for (int p = 0; p < point.producers; p++) {
+      int count = totalItems / point.producers + (p < totalItems % point.producers ? 1 : 0);
+      workers.add(new Thread(() -> {
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        try {
+          for (int i = 0; i < count; i++) {
+            target.put(System.nanoTime());
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          producersRemaining.decrementAndGet();
+          cpuNanos.addAndGet(threads.getCurrentThreadCpuTime() - cpuStart);
+        }
+      }, "bench-P" + p));
+    }
+
+    for (int c = 0; c < point.consumers; c++) {
+      int index = c;
+      latencies[c] = new LatencyHistogram();
+      workers.add(new Thread(() -> {
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        LatencyHistogram samples = latencies[index];
+        int n = 0;
+        long sink = 0;
+        try {
+          while (true) {
+            Long stamp = target.poll(1, TimeUnit.MILLISECONDS);
+            if (stamp == null) {
+              if (producersRemaining.get() == 0 && target.isEmpty()) {
+                break;
+              }
+              continue;
+            }
+            if (point.workload == Workload.CPU) {
+              sink += burnCpu(stamp);
+            }
+            samples.record(System.nanoTime() - stamp);
+            n++;
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        } finally {
+          delivered[index] = n;
+          blackhole = sink;
+          cpuNanos.addAndGet(threads.getCurrentThreadCpuTime() - cpuStart);
+        }
+      }, "bench-C" + c));
+    }
+
+    long gcCountBefore = gcCount();
+    long gcMillisBefore = gcMillis();
+    long start = System.nanoTime();
+    workers.forEach(Thread::start);
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    long elapsed = System.nanoTime() - start;
+    long gcCountAfter = gcCount();
+    long gcMillisAfter = gcMillis();
+
+    if (queue instanceof SpillingQueue) {
+      try {
+        ((SpillingQueue<?>) queue).close();
+        Files.deleteIfExists(spillDir);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    long totalDelivered = 0;
+    for (int count : delivered) {
+      totalDelivered += count;
+    }
+    LatencyHistogram merged = new LatencyHistogram();
+    for (LatencyHistogram histogram : latencies) {
+      merged.add(histogram);
+    }
+
+    return new Result(point, repetition, totalItems, totalDelivered, elapsed, merged,
+            cpuNanos.get(), gcCountAfter - gcCountBefore, gcMillisAfter - gcMillisBefore);
+  }
+
+  static void writeCsv(List<Result> results, Path file) throws IOException {
+    try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+      out.println("queue,workload,capacity,producers,consumers,repetition,items_produced,items_delivered,"
+              + "elapsed_ms,throughput_per_sec,p50_ns,p99_ns,p999_ns,max_ns,cpu_ms,gc_count,gc_ms");
+      for (Result r : results) {
+        out.printf(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%d,%d,%.3f,%.1f,%d,%d,%d,%d,%.3f,%d,%d%n",
+                r.point.queue, r.point.workload, r.point.capacity, r.point.producers, r.point.consumers,
+                r.repetition, r.itemsProduced, r.itemsDelivered, r.elapsedNanos / 1e6, r.throughput(),
+                r.p50Nanos, r.p99Nanos, r.p999Nanos, r.maxNanos, r.cpuNanos / 1e6, r.gcCount, r.gcMillis);
+      }
+    }
+  }
+
+  static void writeJson(List<Result> results, Path file) throws IOException {
+    String body = results.stream()
+            .map(r -> String.format(Locale.ROOT,
+                    "  {\"queue\": \"%s\", \"workload\": \"%s\", \"capacity\": %d, \"producers\": %d, "
+                            + "\"consumers\": %d, \"repetition\": %d, \"itemsProduced\": %d, \"itemsDelivered\": %d, "
+                            + "\"elapsedMs\": %.3f, \"throughputPerSec\": %.1f, \"p50Ns\": %d, \"p99Ns\": %d, "
+                            + "\"p999Ns\": %d, \"maxNs\": %d, \"cpuMs\": %.3f, \"gcCount\": %d, \"gcMs\": %d}",
+                    r.point.queue, r.point.workload, r.point.capacity, r.point.producers, r.point.consumers,
+                    r.repetition, r.itemsProduced, r.itemsDelivered, r.elapsedNanos / 1e6, r.throughput(),
+                    r.p50Nanos, r.p99Nanos, r.p999Nanos, r.maxNanos, r.cpuNanos / 1e6, r.gcCount, r.gcMillis))
+            .collect(Collectors.joining(",\n", "[\n", "\n]\n"));
+    Files.writeString(file, body);
+  }
+
+  private static long burnCpu(long seed) {
+    long x = seed;
+    for (int i = 0; i < CPU_WORK_ROUNDS; i++) {
+      x ^= x << 13;
+      x ^= x >>> 7;
+      x ^= x << 17;
+    }
+    return x;
+  }
+
+  private static long gcCount() {
+    return ManagementFactory.getGarbageCollectorMXBeans().stream()
+            .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+            .filter(count -> count > 0)
+            .sum();
+  }
+
+  private static long gcMillis() {
+    return ManagementFactory.getGarbageCollectorMXBeans().stream()
+            .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+            .filter(time -> time > 0)
+            .sum();
+  }
+
+  private static int[] parseInts(String csv) {
+    return Arrays.stream(csv.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+  }
+
+  private static <E extends Enum<E>> List<E> parseEnums(Class<E> type, String csv) {
+    return Arrays.stream(csv.split(","))
+            .map(value -> Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT)))
+            .collect(Collectors.toList());
+  }
+}
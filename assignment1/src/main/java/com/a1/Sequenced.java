@@ -0,0 +1,64 @@
+package com.a1;
+
+import java.util.Iterator;
+
+/**
+ * Item stamped with the id of the producer that created it and a per-producer sequence number,
+ * so a {@link Resequencer} can restore producer order after parallel consumption.
+ *
+ * @param <T> the type of the stamped value
+ */
+public final class Sequenced<T> {
+  private final int producerId;
+  private final long sequence;
+  private final T value;
+
+  public Sequenced(int producerId, long sequence, T value) {
+    this.producerId = producerId;
+    this.sequence = sequence;
+    this.value = value;
+  }
+
+  /**
+   * Wraps a producer source so each item is stamped with the producer id and 0, 1, 2, ...
+   */
+  public static <T> Iterator<Sequenced<T>> stamp(int producerId, Iterator<? extends T> source) {
+    return new Iterator<>() {
+      private long next = 0;
+
+      @Override
+      public boolean hasNext() {
+        return source.hasNext();
+      }
+
+      @Override
+      public Sequenced<T> next() {
+        return new Sequenced<>(producerId, next++, source.next());
+      }
+    };
+  }
+
+  /**
+   * Returns a copy carrying a new value, typically the processed result, with the same stamp.
+   */
+  public <R> Sequenced<R> withValue(R newValue) {
+    return new Sequenced<>(producerId, sequence, newValue);
+  }
+
+  public int getProducerId() {
+    return producerId;
+  }
+
+  public long getSequence() {
+    return sequence;
+  }
+
+  public T getValue() {
+    return value;
+  }
+
+  @Override
+  public String toString() {
+    return "P" + producerId + "#" + sequence + "=" + value;
+  }
+}
@@ -0,0 +1,108 @@
+package com.a1;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serializes queue items into spill files and back for {@link SpillingQueue}.
+ *
+ * @param <T> the type of items encoded
+ */
+public interface SpillCodec<T> {
+
+    /**
+     * Returns the number of bytes {@link #encode} will write for the item.
+     */
+    int encodedSize(T item);
+
+    /**
+     * Writes the item into the buffer at its current position.
+     */
+    void encode(T item, ByteBuffer out);
+
+    /**
+     * Reads an item of the given encoded length from the buffer at its current position.
+     */
+    T decode(ByteBuffer in, int length);
+
+    /**
+     * Fixed four-byte encoding for integers.
+     */
+    SpillCodec<Integer> INTEGERS = new SpillCodec<>() {
+        @Override
+        public int encodedSize(Integer item) {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void encode(Integer item, ByteBuffer out) {
+            out.putInt(item);
+        }
+
+        @Override
+        public Integer decode(ByteBuffer in, int length) {
+            return in.getInt();
+        }
+    };
+
+    /**
+     * Fixed eight-byte encoding for longs.
+     */
+    SpillCodec<Long> LONGS = new SpillCodec<>() {
+        @Override
+        public int encodedSize(Long item) {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void encode(Long item, ByteBuffer out) {
+            out.putLong(item);
+        }
+
+        @Override
+        public Long decode(ByteBuffer in, int length) {
+            return in.getLong();
+        }
+    };
+
+    /**
+     * UTF-8 encoding for strings. The size is counted from the chars, so each string is encoded
+     * only once, when it is written.
+     */
+    SpillCodec<String> STRINGS = new SpillCodec<>() {
+        @Override
+        public int encodedSize(String item) {
+            int bytes = 0;
+            for (int i = 0; i < item.length(); i++) {
+                char c = item.charAt(i);
+                if (c < 0x80) {
+                    bytes += 1;
+                } else if (c < 0x800) {
+                    bytes += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < item.length()
+                        && Character.isLowSurrogate(item.charAt(i + 1))) {
+                    bytes += 4;
+                    i++;
+                } else if (Character.isSurrogate(c)) {
+                    // getBytes replaces an unpaired surrogate with '?'.
+                    bytes += 1;
+                } else {
+                    bytes += 3;
+                }
+            }
+            return bytes;
+        }
+
+        @Override
+        public void encode(String item, ByteBuffer out) {
+            out.put(item.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String decode(ByteBuffer in, int length) {
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+}
@@ -0,0 +1,314 @@
+package com.a1;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hybrid queue that keeps up to a fixed number of items in memory and spills the overflow to
+ * local disk instead of blocking producers. Consumers drain the in-memory items first, then
+ * the spill files, so overall order stays FIFO.
+ *
+ * <p>Once an item has been spilled, every later put also goes to disk until the spill has
+ * been fully drained; that keeps all in-memory items older than all spilled ones. Spilled
+ * records are framed as a four-byte length followed by the {@link SpillCodec} payload, batched
+ * in a write buffer and appended to segment files through a {@link FileChannel}. Fully read
+ * segments are deleted. Spill files are a buffer, not a durable log: they are not fsynced and
+ * are deleted by {@link #close()}.
+ *
+ * @param <T> the type of elements held in this queue
+ */
+public class SpillingQueue<T> implements ItemQueue<T>, Closeable {
+    static final int BUFFER_BYTES = 64 * 1024;
+    static final long SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    private final Deque<T> memory;
+    private final int memoryCapacity;
+    private final Path spillDirectory;
+    private final SpillCodec<T> codec;
+    private final long segmentBytes;
+    private final Object lock = new Object();
+
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private long spilledCount;
+    private long totalSpilled;
+
+    public SpillingQueue(int memoryCapacity, Path spillDirectory, SpillCodec<T> codec) {
+        this(memoryCapacity, spillDirectory, codec, SEGMENT_BYTES);
+    }
+
+    SpillingQueue(int memoryCapacity, Path spillDirectory, SpillCodec<T> codec, long segmentBytes) {
+        if (memoryCapacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.memoryCapacity = memoryCapacity;
+        this.memory = new ArrayDeque<>(memoryCapacity);
+        this.spillDirectory = spillDirectory;
+        this.codec = codec;
+        this.segmentBytes = segmentBytes;
+        readBuffer.limit(0);
+    }
+
+    /**
+     * Adds an item without blocking, spilling it to disk if the in-memory buffer is full.
+     */
+    @Override
+    public void put(T item) {
+        synchronized (lock) {
+            if (spilledCount == 0 && memory.size() < memoryCapacity) {
+                memory.addLast(item);
+            } else {
+                spill(item);
+            }
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Removes and returns the oldest item, blocking while the queue is empty.
+     */
+    @Override
+    public T take() throws InterruptedException {
+        synchronized (lock) {
+            while (isEmptyLocked()) {
+                lock.wait();
+            }
+            return removeOldest();
+        }
+    }
+
+    @Override
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        synchronized (lock) {
+            while (isEmptyLocked()) {
+                if (remaining <= 0) {
+                    return null;
+                }
+                long deadline = System.nanoTime() + remaining;
+                TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+            return removeOldest();
+        }
+    }
+
+    /**
+     * Returns the total number of queued items, in memory and on disk. Saturates at
+     * Integer.MAX_VALUE; see {@link #getSpilledCount()} for the exact on-disk count.
+     */
+    @Override
+    public int size() {
+        synchronized (lock) {
+            return (int) Math.min(Integer.MAX_VALUE, memory.size() + spilledCount);
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        synchronized (lock) {
+            return isEmptyLocked();
+        }
+    }
+
+    /**
+     * Returns the number of items currently waiting in spill files.
+     */
+    public long getSpilledCount() {
+        synchronized (lock) {
+            return spilledCount;
+        }
+    }
+
+    /**
+     * Returns how many items have been spilled to disk since the queue was created.
+     */
+    public long getTotalSpilled() {
+        synchronized (lock) {
+            return totalSpilled;
+        }
+    }
+
+    /**
+     * Writes any batched spill records to their segment file.
+     */
+    public void flush() {
+        synchronized (lock) {
+            flushWriteBuffer();
+        }
+    }
+
+    /**
+     * Discards spilled items and deletes all spill files.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            while (!segments.isEmpty()) {
+                segments.removeFirst().delete();
+            }
+            writeBuffer.clear();
+            readBuffer.limit(0);
+            spilledCount = 0;
+        }
+    }
+
+    private boolean isEmptyLocked() {
+        return memory.isEmpty() && spilledCount == 0;
+    }
+
+    private T removeOldest() {
+        T item = memory.isEmpty() ? readSpilled() : memory.removeFirst();
+        lock.notifyAll();
+        return item;
+    }
+
+    private void spill(T item) {
+        int length = codec.encodedSize(item);
+        int recordBytes = Integer.BYTES + length;
+        Segment segment = segments.peekLast();
+        if (segment == null || segment.writePosition + writeBuffer.position() >= segmentBytes) {
+            flushWriteBuffer();
+            segment = openSegment();
+        }
+
+        if (recordBytes > writeBuffer.remaining()) {
+            flushWriteBuffer();
+        }
+        if (recordBytes > writeBuffer.capacity()) {
+            ByteBuffer large = ByteBuffer.allocate(recordBytes);
+            large.putInt(length);
+            codec.encode(item, large);
+            large.flip();
+            writeFully(segment, large);
+        } else {
+            writeBuffer.putInt(length);
+            codec.encode(item, writeBuffer);
+        }
+        segment.recordsWritten++;
+        spilledCount++;
+        totalSpilled++;
+    }
+
+    private T readSpilled() {
+        Segment segment = segments.peekFirst();
+        if (segment == segments.peekLast() && writeBuffer.position() > 0) {
+            flushWriteBuffer();
+        }
+
+        ensureReadable(segment, Integer.BYTES);
+        int length = readBuffer.getInt();
+        T item;
+        if (length > readBuffer.capacity()) {
+            ByteBuffer large = ByteBuffer.allocate(length);
+            large.put(readBuffer);
+            readInto(segment, large);
+            large.flip();
+            item = codec.decode(large, length);
+        } else {
+            ensureReadable(segment, length);
+            item = codec.decode(readBuffer, length);
+        }
+        segment.recordsRead++;
+        spilledCount--;
+
+        if (segment.recordsRead == segment.recordsWritten) {
+            segments.removeFirst().delete();
+            readBuffer.limit(0);
+        }
+        return item;
+    }
+
+    private void ensureReadable(Segment segment, int bytes) {
+        if (readBuffer.remaining() >= bytes) {
+            return;
+        }
+        readBuffer.compact();
+        readInto(segment, readBuffer);
+        readBuffer.flip();
+        if (readBuffer.remaining() < bytes) {
+            throw new IllegalStateException("Spill segment " + segment.path + " is truncated");
+        }
+    }
+
+    private void readInto(Segment segment, ByteBuffer target) {
+        try {
+            while (target.hasRemaining() && segment.readPosition < segment.writePosition) {
+                int read = segment.channel.read(target, segment.readPosition);
+                if (read < 0) {
+                    break;
+                }
+                segment.readPosition += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void flushWriteBuffer() {
+        Segment segment = segments.peekLast();
+        if (segment == null || writeBuffer.position() == 0) {
+            return;
+        }
+        writeBuffer.flip();
+        writeFully(segment, writeBuffer);
+        writeBuffer.clear();
+    }
+
+    private void writeFully(Segment segment, ByteBuffer source) {
+        try {
+            while (source.hasRemaining()) {
+                segment.writePosition += segment.channel.write(source, segment.writePosition);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Segment openSegment() {
+        try {
+            Files.createDirectories(spillDirectory);
+            // A fresh unique file, so queues sharing a spill directory never touch each other's segments.
+            Path path = Files.createTempFile(spillDirectory, "spill-", ".seg");
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            Segment segment = new Segment(path, channel);
+            segments.addLast(segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private long writePosition;
+        private long readPosition;
+        private long recordsWritten;
+        private long recordsRead;
+
+        private Segment(Path path, FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+
+        private void delete() {
+            try {
+                channel.close();
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
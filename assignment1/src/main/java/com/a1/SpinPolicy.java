@@ -0,0 +1,59 @@
+package com.a1;
+
+/**
+ * Decides how long a thread should busy-wait before parking, based on how often recent spins
+ * ended with the awaited condition becoming true. Each success doubles the spin budget and each
+ * failure halves it, so near-balanced workloads settle on spinning while idle ones park straight away.
+ * Once the budget has dropped to zero, every {@link #PROBE_INTERVAL}-th call still spins briefly so
+ * the policy notices when spinning starts to pay off again.
+ *
+ * <p>Updates are unsynchronized; a lost update only nudges a heuristic and never affects correctness.
+ */
+final class SpinPolicy {
+    static final int MAX_SPINS = 4096;
+    static final int PROBE_SPINS = 32;
+    static final int PROBE_INTERVAL = 64;
+    private static final boolean MULTI_CPU = Runtime.getRuntime().availableProcessors() > 1;
+
+    private volatile int limit;
+    private int calls;
+
+    SpinPolicy() {
+        this(MULTI_CPU ? PROBE_SPINS : 0);
+    }
+
+    SpinPolicy(int initialLimit) {
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Returns how many spin iterations the caller should try before parking.
+     */
+    int spins() {
+        if (!MULTI_CPU) {
+            // Spinning on a single CPU only delays the thread that would make progress.
+            return 0;
+        }
+        int current = limit;
+        if (current == 0 && ++calls % PROBE_INTERVAL == 0) {
+            return PROBE_SPINS;
+        }
+        return current;
+    }
+
+    /**
+     * Records whether the last spin saw the condition become true before its budget ran out.
+     */
+    void record(boolean success) {
+        int current = limit;
+        if (success) {
+            limit = Math.min(MAX_SPINS, Math.max(PROBE_SPINS, current * 2));
+        } else {
+            limit = current / 2;
+        }
+    }
+
+    int getLimit() {
+        return limit;
+    }
+}
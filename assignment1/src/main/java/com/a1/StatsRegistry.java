@@ -0,0 +1,92 @@
+package com.a1;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registers statistics beans with the platform MBean server under the {@code com.a1} domain,
+ * where JConsole and VisualVM list them next to the JVM's own beans.
+ *
+ * <p>Beans that report recent rates implement {@link Sampled}; while registered, a daemon thread
+ * samples them every {@link #SAMPLE_PERIOD_MILLIS}, so reading an attribute never moves the
+ * sampling window.
+ */
+public final class StatsRegistry {
+    static final String DOMAIN = "com.a1";
+    static final long SAMPLE_PERIOD_MILLIS = 1000;
+
+    /**
+     * A bean whose rates are measured between periodic samples.
+     */
+    interface Sampled {
+        void sample();
+    }
+
+    private static final ScheduledExecutorService SAMPLER = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "stats-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final Map<ObjectName, ScheduledFuture<?>> SAMPLING = new ConcurrentHashMap<>();
+
+    private StatsRegistry() {
+    }
+
+    /**
+     * Registers {@code bean} as {@code com.a1:type=<type>,name=<name>}, replacing any bean
+     * already registered under that name, and returns the name used.
+     */
+    public static ObjectName register(Object bean, String type, String name) {
+        try {
+            ObjectName objectName = objectName(type, name);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                stopSampling(objectName);
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(bean, objectName);
+            if (bean instanceof Sampled) {
+                Sampled sampled = (Sampled) bean;
+                SAMPLING.put(objectName, SAMPLER.scheduleAtFixedRate(sampled::sample,
+                        SAMPLE_PERIOD_MILLIS, SAMPLE_PERIOD_MILLIS, TimeUnit.MILLISECONDS));
+            }
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register " + type + " " + name, e);
+        }
+    }
+
+    /**
+     * Removes a bean registered by {@link #register}; unknown names are ignored.
+     */
+    public static void unregister(ObjectName objectName) {
+        stopSampling(objectName);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not unregister " + objectName, e);
+        }
+    }
+
+    private static void stopSampling(ObjectName objectName) {
+        ScheduledFuture<?> sampling = SAMPLING.remove(objectName);
+        if (sampling != null) {
+            sampling.cancel(false);
+        }
+    }
+
+    static ObjectName objectName(String type, String name) throws JMException {
+        return new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+    }
+}
@@ -0,0 +1,94 @@
+package com.a1;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token-bucket rate limiter. It is implemented as the generic cell rate algorithm: a
+ * single atomic "theoretical arrival time" advances by one emission interval per permit, and a
+ * caller may run ahead of it by at most the burst size. This makes acquiring a CAS on one long
+ * rather than a lock plus a refill computation.
+ *
+ * <p>Share one bucket between producers for a combined budget, or give each producer its own for
+ * per-producer budgets.
+ */
+public class TokenBucket {
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int burst;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * Creates a bucket refilled at permitsPerSecond that can hold up to burst permits. The bucket
+     * starts full.
+     */
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("Rate must be positive");
+        }
+        if (burst <= 0) {
+            throw new IllegalArgumentException("Burst must be positive");
+        }
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000.0 / permitsPerSecond));
+        this.burstNanos = intervalNanos * burst;
+        this.burst = burst;
+        this.theoreticalArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Takes permits if they are available right now. Never waits and never takes part of a request.
+     */
+    public boolean tryAcquire(int permits) {
+        checkPermits(permits);
+        while (true) {
+            long now = System.nanoTime();
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + permits * intervalNanos;
+            if (next - now > burstNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Reserves permits and sleeps until they are due. Returns how long the caller waited in nanoseconds.
+     * Requests larger than the burst are allowed and simply wait for the extra permits.
+     */
+    public long acquire(int permits) throws InterruptedException {
+        checkPermits(permits);
+        long now;
+        long next;
+        do {
+            now = System.nanoTime();
+            long current = theoreticalArrival.get();
+            next = Math.max(current, now) + permits * intervalNanos;
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                break;
+            }
+        } while (true);
+        long wait = next - burstNanos - now;
+        if (wait > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+            return wait;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns how many permits could be taken right now without waiting.
+     */
+    public int availablePermits() {
+        long now = System.nanoTime();
+        long ahead = Math.max(0, theoreticalArrival.get() - now);
+        return (int) Math.max(0, Math.min(burst, (burstNanos - ahead) / intervalNanos));
+    }
+
+    private static void checkPermits(int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("Permits must be positive");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.a1;
+
+import java.util.Map;
+
+/**
+ * Management interface exposing live counters of a group of producers and consumers over JMX.
+ */
+public interface WorkerGroupMXBean {
+    int getProducerCount();
+
+    int getConsumerCount();
+
+    long getItemsProduced();
+
+    long getItemsConsumed();
+
+    long getFailures();
+
+    /**
+     * Returns the items handled so far by each worker, keyed by worker name.
+     */
+    Map<String, Long> getItemsPerWorker();
+
+    /**
+     * Returns items consumed per second over the latest sampling period.
+     */
+    double getRecentConsumeRatePerSecond();
+}
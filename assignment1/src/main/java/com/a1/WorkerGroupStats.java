@@ -0,0 +1,85 @@
+package com.a1;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * JMX view of the producers and consumers working on one queue. Workers can be added while the
+ * group is registered; their counters are volatile, so the totals are live while the threads run.
+ */
+public class WorkerGroupStats implements WorkerGroupMXBean, StatsRegistry.Sampled {
+    private final List<Producer<?>> producers = new CopyOnWriteArrayList<>();
+    private final List<Consumer<?>> consumers = new CopyOnWriteArrayList<>();
+    private final RateSampler recent = new RateSampler();
+
+    public WorkerGroupStats addProducers(List<? extends Producer<?>> workers) {
+        producers.addAll(workers);
+        return this;
+    }
+
+    public WorkerGroupStats addConsumers(List<? extends Consumer<?>> workers) {
+        consumers.addAll(workers);
+        return this;
+    }
+
+    @Override
+    public int getProducerCount() {
+        return producers.size();
+    }
+
+    @Override
+    public int getConsumerCount() {
+        return consumers.size();
+    }
+
+    @Override
+    public long getItemsProduced() {
+        long total = 0;
+        for (Producer<?> producer : producers) {
+            total += producer.getItemsProduced();
+        }
+        return total;
+    }
+
+    @Override
+    public long getItemsConsumed() {
+        long total = 0;
+        for (Consumer<?> consumer : consumers) {
+            total += consumer.getItemsConsumed();
+        }
+        return total;
+    }
+
+    @Override
+    public long getFailures() {
+        long total = 0;
+        for (Consumer<?> consumer : consumers) {
+            total += consumer.getFailures();
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, Long> getItemsPerWorker() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Producer<?> producer : producers) {
+            counts.merge(producer.getName(), (long) producer.getItemsProduced(), Long::sum);
+        }
+        for (Consumer<?> consumer : consumers) {
+            counts.merge(consumer.getName(), (long) consumer.getItemsConsumed(), Long::sum);
+        }
+        return counts;
+    }
+
+    @Override
+    public double getRecentConsumeRatePerSecond() {
+        return recent.rate();
+    }
+
+    @Override
+    public void sample() {
+        recent.sample(getItemsConsumed());
+    }
+}
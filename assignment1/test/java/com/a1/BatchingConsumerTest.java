@@ -0,0 +1,117 @@
+package com.a1;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for BatchingConsumer verifying size-based, time-based and close-triggered flushes.
+ */
+public class BatchingConsumerTest {
+  @BeforeEach
+  void setUp() {
+    System.setOut(new java.io.PrintStream(new java.io.ByteArrayOutputStream()));
+  }
+
+  /**
+   * Verifies queued items are delivered in full batches of the maximum size.
+   */
+  @Test
+  void testFlushesFullBatches() throws InterruptedException {
+    MyBlockingQueue<Integer> queue = new MyBlockingQueue<>(100);
+    for (int i = 0; i < 30; i++) {
+      queue.put(i);
+    }
+    List<Integer> sizes = new ArrayList<>();
+    List<Integer> received = new ArrayList<>();
+    BatchingConsumer<Integer> consumer = new BatchingConsumer<>(queue, batch -> {
+      sizes.add(batch.size());
+      received.addAll(batch);
+    }, Consumer.ErrorPolicy.STOP, "B1", 10, 1_000_000, 30);
+
+    consumer.run();
+
+    assertEquals(List.of(10, 10, 10), sizes);
+    assertEquals(30, received.size());
+    assertEquals(0, received.get(0));
+    assertEquals(29, received.get(29));
+    assertEquals(3, consumer.getBatchesHandled());
+  }
+
+  /**
+   * Verifies a partial batch is flushed once the maximum wait has passed.
+   */
+  @Test
+  void testFlushesPartialBatchAfterTimeout() throws InterruptedException {
+    MyBlockingQueue<Integer> queue = new MyBlockingQueue<>(10);
+    List<List<Integer>> batches = new ArrayList<>();
+    BatchingConsumer<Integer> consumer = new BatchingConsumer<>(queue,
+            batch -> batches.add(new ArrayList<>(batch)), Consumer.ErrorPolicy.STOP, "B1", 100, 20_000, 4);
+    Thread thread = new Thread(consumer);
+    thread.start();
+
+    queue.put(1);
+    queue.put(2);
+    Thread.sleep(300);
+    queue.put(3);
+    queue.put(4);
+    thread.join(5000);
+
+    assertFalse(thread.isAlive());
+    assertEquals(List.of(1, 2), batches.get(0));
+    assertEquals(4, consumer.getItemsConsumed());
+  }
+
+  /**
+   * Verifies the remaining items are flushed and the consumer stops when the queue is closed.
+   */
+  @Test
+  void testFlushesRemainderOnClose() throws InterruptedException {
+    MyBlockingQueue<Integer> queue = new MyBlockingQueue<>(10);
+    for (int i = 0; i < 7; i++) {
+      queue.put(i);
+    }
+    queue.close();
+    List<Integer> received = new ArrayList<>();
+    BatchingConsumer<Integer> consumer = new BatchingConsumer<>(queue, received::addAll,
+            Consumer.ErrorPolicy.STOP, "B1", 5, 1_000_000, -1);
+
+    consumer.run();
+
+    assertEquals(List.of(0, 1, 2, 3, 4, 5, 6), received);
+    assertEquals(2, consumer.getBatchesHandled());
+    ItemDigest expected = new ItemDigest();
+    for (int i = 0; i < 7; i++) {
+      expected.record(i);
+    }
+    assertTrue(expected.matches(consumer.getDigest()));
+  }
+
+  /**
+   * Verifies a failing batch is skipped under the SKIP policy and counted as a failure.
+   */
+  @Test
+  void testSkipPolicyContinuesAfterFailedBatch() throws InterruptedException {
+    MyBlockingQueue<Integer> queue = new MyBlockingQueue<>(10);
+    for (int i = 0; i < 6; i++) {
+      queue.put(i);
+    }
+    queue.close();
+    List<Integer> received = new ArrayList<>();
+    BatchingConsumer<Integer> consumer = new BatchingConsumer<>(queue, batch -> {
+      if (batch.contains(0)) {
+        throw new IllegalStateException("bad batch");
+      }
+      received.addAll(batch);
+    }, Consumer.ErrorPolicy.SKIP, "B1", 3, 1_000_000, -1);
+
+    consumer.run();
+
+    assertEquals(List.of(3, 4, 5), received);
+    assertEquals(1, consumer.getFailures());
+    assertEquals(6, consumer.getItemsConsumed());
+  }
+}
@@ -0,0 +1,90 @@
+package com.a1;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Unit tests for ConflatingQueue verifying latest-value-per-key semantics and ordering.
+ */
+public class ConflatingQueueTest {
+
+    /**
+     * Simple keyed update used as a queue element.
+     */
+    private static final class Quote {
+        final String symbol;
+        final int price;
+
+        Quote(String symbol, int price) {
+            this.symbol = symbol;
+            this.price = price;
+        }
+    }
+
+    /**
+     * Verifies an update for a pending key replaces its value and keeps its original position.
+     */
+    @Test
+    void testReplacesPendingValueInPlace() throws InterruptedException {
+        ConflatingQueue<String, Quote> queue = new ConflatingQueue<>(10, q -> q.symbol);
+        queue.put(new Quote("AAA", 1));
+        queue.put(new Quote("BBB", 1));
+        queue.put(new Quote("AAA", 2));
+        queue.put(new Quote("AAA", 3));
+
+        assertEquals(2, queue.size());
+        assertEquals(2, queue.getConflatedCount());
+
+        Quote first = queue.take();
+        assertEquals("AAA", first.symbol);
+        assertEquals(3, first.price);
+        assertEquals("BBB", queue.take().symbol);
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Verifies a key becomes a new entry at the tail once its previous value has been taken.
+     */
+    @Test
+    void testKeyRequeuedAfterTake() throws InterruptedException {
+        ConflatingQueue<String, Quote> queue = new ConflatingQueue<>(10, q -> q.symbol);
+        queue.put(new Quote("AAA", 1));
+        queue.put(new Quote("BBB", 1));
+        queue.take();
+        queue.put(new Quote("AAA", 2));
+
+        assertEquals("BBB", queue.take().symbol);
+        assertEquals(2, queue.take().price);
+    }
+
+    /**
+     * Verifies a full queue blocks new keys but still accepts updates to pending keys.
+     */
+    @Test
+    void testFullQueueBlocksOnlyNewKeys() throws InterruptedException {
+        ConflatingQueue<String, Quote> queue = new ConflatingQueue<>(1, q -> q.symbol);
+        queue.put(new Quote("AAA", 1));
+        queue.put(new Quote("AAA", 2));
+
+        AtomicBoolean added = new AtomicBoolean();
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put(new Quote("BBB", 1));
+                added.set(true);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        Thread.sleep(100);
+        assertFalse(added.get(), "A new key must wait for a free slot");
+
+        assertEquals(2, queue.take().price);
+        producer.join(1000);
+        assertTrue(added.get());
+        assertEquals("BBB", queue.take().symbol);
+    }
+}
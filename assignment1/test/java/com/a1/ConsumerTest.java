@@ -61,4 +61,93 @@ public class ConsumerTest {
     assertEquals(3, consumer.getItemsConsumed());
     assertEquals(3, destination.size());
   }
+
+  /**
+   * Verifies a consumer waiting for more items than will arrive stops as soon as the queue is closed.
+   */
+  @Test
+  void testConsumerStopsWhenQueueClosed() throws InterruptedException {
+    queue.put(1);
+    Consumer consumer = new Consumer(queue, destination, "TestConsumer", 5);
+    Thread thread = new Thread(consumer);
+    thread.start();
+
+    Thread.sleep(200);
+    queue.close();
+    thread.join(1000);
+
+    assertFalse(thread.isAlive());
+    assertEquals(1, consumer.getItemsConsumed());
+    assertEquals(List.of(1), destination);
+  }
+
+  /**
+   * Verifies a handler-based consumer skips failing items under the SKIP policy.
+   */
+  @Test
+  void testHandlerSkipPolicyContinuesAfterFailure() throws InterruptedException {
+    MyBlockingQueue<String> words = new MyBlockingQueue<>(10);
+    List<String> handled = new ArrayList<>();
+    for (String word : List.of("alpha", "bad", "gamma")) {
+      words.put(word);
+    }
+
+    Consumer<String> consumer = new Consumer<>(words, word -> {
+      if (word.equals("bad")) {
+        throw new IllegalArgumentException("rejected");
+      }
+      handled.add(word.toUpperCase());
+    }, Consumer.ErrorPolicy.SKIP, "TestConsumer", 3);
+    Thread thread = new Thread(consumer);
+    thread.start();
+    thread.join(1000);
+
+    assertEquals(List.of("ALPHA", "GAMMA"), handled);
+    assertEquals(3, consumer.getItemsConsumed());
+    assertEquals(1, consumer.getFailures());
+  }
+
+  /**
+   * Verifies a handler-based consumer stops at the first failure under the STOP policy.
+   */
+  @Test
+  void testHandlerStopPolicyStopsAtFailure() throws InterruptedException {
+    for (int i = 1; i <= 5; i++) {
+      queue.put(i);
+    }
+
+    Consumer<Integer> consumer = new Consumer<>(queue, item -> {
+      if (item == 2) {
+        throw new IllegalStateException("boom");
+      }
+    }, Consumer.ErrorPolicy.STOP, "TestConsumer", 5);
+    Thread thread = new Thread(consumer);
+    thread.start();
+    thread.join(1000);
+
+    assertFalse(thread.isAlive());
+    assertEquals(2, consumer.getItemsConsumed());
+    assertEquals(1, consumer.getFailures());
+    assertEquals(3, queue.size());
+  }
+
+  /**
+   * Verifies an unbounded handler-based consumer runs until the queue is closed and drained.
+   */
+  @Test
+  void testUnboundedConsumerRunsUntilClosed() throws InterruptedException {
+    List<Integer> handled = new ArrayList<>();
+    Consumer<Integer> consumer = new Consumer<>(queue, handled::add, Consumer.ErrorPolicy.STOP, "TestConsumer", -1);
+    Thread thread = new Thread(consumer);
+    thread.start();
+
+    for (int i = 1; i <= 4; i++) {
+      queue.put(i);
+    }
+    queue.close();
+    thread.join(1000);
+
+    assertFalse(thread.isAlive());
+    assertEquals(List.of(1, 2, 3, 4), handled);
+  }
 }
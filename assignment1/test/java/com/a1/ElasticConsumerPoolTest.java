@@ -0,0 +1,87 @@
+package com.a1;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for ElasticConsumerPool verifying scale-up under backlog and scale-down when idle.
+ */
+public class ElasticConsumerPoolTest {
+  @BeforeEach
+  void setUp() {
+    System.setOut(new java.io.PrintStream(new java.io.ByteArrayOutputStream()));
+  }
+
+  /**
+   * Verifies the pool adds consumers while the queue is backed up, within the maximum.
+   */
+  @Test
+  void testScalesUpUnderBacklog() throws InterruptedException {
+    MyBlockingQueue<Integer> queue = new MyBlockingQueue<>(10);
+    ElasticConsumerPool<Integer> pool = new ElasticConsumerPool<>(
+            queue, item -> Thread.sleep(10), "test", 1, 4, 5, TimeUnit.SECONDS);
+    pool.start();
+
+    for (int i = 0; i < 300; i++) {
+      queue.put(i);
+    }
+    pool.shutdown();
+
+    assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+    assertEquals(300, pool.getItemsProcessed());
+    assertTrue(pool.getPeakConsumers() > 1, "Pool should have grown under backlog");
+    assertTrue(pool.getPeakConsumers() <= 4, "Pool must not exceed its maximum");
+  }
+
+  /**
+   * Verifies idle consumers retire back to the minimum after the idle timeout.
+   */
+  @Test
+  void testScalesDownWhenIdle() throws InterruptedException {
+    MyBlockingQueue<Integer> queue = new MyBlockingQueue<>(5);
+    ElasticConsumerPool<Integer> pool = new ElasticConsumerPool<>(
+            queue, item -> Thread.sleep(10), "test", 1, 3, 300, TimeUnit.MILLISECONDS);
+    pool.start();
+
+    for (int i = 0; i < 150; i++) {
+      queue.put(i);
+    }
+    assertTrue(pool.getPeakConsumers() > 1);
+
+    long deadline = System.currentTimeMillis() + 5000;
+    while (pool.getActiveConsumers() > 1 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(50);
+    }
+    assertEquals(1, pool.getActiveConsumers());
+
+    pool.shutdown();
+    assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+    assertEquals(150, pool.getItemsProcessed());
+  }
+
+  /**
+   * Verifies a failing handler does not kill its consumer.
+   */
+  @Test
+  void testHandlerFailureDoesNotStopPool() throws InterruptedException {
+    MyBlockingQueue<Integer> queue = new MyBlockingQueue<>(5);
+    ElasticConsumerPool<Integer> pool = new ElasticConsumerPool<>(queue, item -> {
+      if (item % 2 == 0) {
+        throw new IllegalStateException("bad item");
+      }
+    }, "test", 1, 1, 1, TimeUnit.SECONDS);
+    pool.start();
+
+    for (int i = 0; i < 10; i++) {
+      queue.put(i);
+    }
+    pool.shutdown();
+
+    assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+    assertEquals(10, pool.getItemsProcessed());
+    assertTrue(queue.isEmpty());
+  }
+}
@@ -686,4 +686,35 @@ public class EndToEndTest {
     assertEquals(2, p3.getItemsProduced());
     assertEquals(6, destination.size());
   }
+
+  /**
+   * Verifies a run can be checked through producer and consumer digests without retaining items.
+   */
+  @Test
+  @DisplayName("Scenario 20: Streaming Verification Without Retaining Items")
+  void testStreamingDigestVerification() throws InterruptedException {
+    MyBlockingQueue<Integer> queue = new MyBlockingQueue<>(5);
+
+    Producer producer1 = new Producer(queue, ItemSources.range(1, 11), "P1");
+    Producer producer2 = new Producer(queue, ItemSources.range(11, 21), "P2");
+    Consumer consumer1 = new Consumer(queue, "C1", 10);
+    Consumer consumer2 = new Consumer(queue, "C2", 10);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    executor.submit(producer1);
+    executor.submit(producer2);
+    executor.submit(consumer1);
+    executor.submit(consumer2);
+
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+    ItemDigest produced = ItemDigest.combine(List.of(producer1.getDigest(), producer2.getDigest()));
+    ItemDigest consumed = ItemDigest.combine(List.of(consumer1.getDigest(), consumer2.getDigest()));
+
+    assertEquals(20, produced.getCount());
+    assertEquals(210, produced.getSum());
+    assertTrue(produced.matches(consumed));
+    assertTrue(queue.isEmpty());
+  }
 }
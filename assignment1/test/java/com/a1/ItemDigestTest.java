@@ -0,0 +1,49 @@
+package com.a1;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+/**
+ * Unit tests for ItemDigest verifying order independence and mismatch detection.
+ */
+public class ItemDigestTest {
+
+  private static ItemDigest digestOf(int... items) {
+    ItemDigest digest = new ItemDigest();
+    for (int item : items) {
+      digest.record(item);
+    }
+    return digest;
+  }
+
+  /**
+   * Verifies digests of the same items in different orders match.
+   */
+  @Test
+  void testOrderIndependent() {
+    assertTrue(digestOf(1, 2, 3, 4).matches(digestOf(4, 2, 1, 3)));
+  }
+
+  /**
+   * Verifies digests split across workers combine to the digest of the whole run.
+   */
+  @Test
+  void testCombineAcrossWorkers() {
+    ItemDigest combined = ItemDigest.combine(List.of(digestOf(1, 2), digestOf(3), digestOf(4, 5)));
+    assertTrue(combined.matches(digestOf(5, 4, 3, 2, 1)));
+    assertEquals(5, combined.getCount());
+    assertEquals(15, combined.getSum());
+  }
+
+  /**
+   * Verifies a lost item or a swapped value with the same count and sum is detected.
+   */
+  @Test
+  void testDetectsMismatch() {
+    assertFalse(digestOf(1, 2, 3).matches(digestOf(1, 2)));
+    assertFalse(digestOf(1, 4).matches(digestOf(2, 3)));
+    assertFalse(digestOf(7, 7).matches(digestOf(7)));
+  }
+}
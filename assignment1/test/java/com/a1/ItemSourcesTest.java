@@ -0,0 +1,66 @@
+package com.a1;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Unit tests for the lazy producer sources in ItemSources.
+ */
+public class ItemSourcesTest {
+
+  private static List<Integer> drain(Iterator<Integer> source) {
+    List<Integer> items = new ArrayList<>();
+    source.forEachRemaining(items::add);
+    return items;
+  }
+
+  /**
+   * Verifies a range source yields every value once and then reports exhaustion.
+   */
+  @Test
+  void testRangeSource() {
+    Iterator<Integer> source = ItemSources.range(3, 7);
+    assertEquals(List.of(3, 4, 5, 6), drain(source));
+    assertThrows(NoSuchElementException.class, source::next);
+  }
+
+  /**
+   * Verifies a supplier source only calls the supplier for values actually pulled.
+   */
+  @Test
+  void testSupplierSourceIsLazy() {
+    AtomicInteger calls = new AtomicInteger();
+    Iterator<Integer> source = ItemSources.fromSupplier(calls::incrementAndGet, 1_000_000_000L);
+
+    assertEquals(1, source.next());
+    assertEquals(2, source.next());
+    assertEquals(2, calls.get());
+  }
+
+  /**
+   * Verifies a spliterator source adapts stream output without collecting it.
+   */
+  @Test
+  void testSpliteratorSource() {
+    Iterator<Integer> source = ItemSources.fromSpliterator(IntStream.range(0, 4).boxed().spliterator());
+    assertEquals(List.of(0, 1, 2, 3), drain(source));
+  }
+
+  /**
+   * Verifies a reader source parses one integer per line and skips blank lines.
+   */
+  @Test
+  void testReaderSource() {
+    BufferedReader reader = new BufferedReader(new StringReader("10\n\n 20 \n30\n"));
+    assertEquals(List.of(10, 20, 30), drain(ItemSources.fromReader(reader)));
+  }
+}
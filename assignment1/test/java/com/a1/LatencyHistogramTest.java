@@ -0,0 +1,56 @@
+package com.a1;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Unit tests for LatencyHistogram comparing its percentiles with exact ones.
+ */
+public class LatencyHistogramTest {
+
+  /**
+   * Verifies every value lands in a bucket whose range contains it and is at most 1/64 wide.
+   */
+  @Test
+  void testBucketsCoverValues() {
+    long[] values = {0, 1, 127, 128, 129, 255, 256, 1_000, 123_456_789, Long.MAX_VALUE};
+    for (long value : values) {
+      int index = LatencyHistogram.indexOf(value);
+      long highest = LatencyHistogram.highestValueAt(index);
+      long lowest = index == 0 ? 0 : LatencyHistogram.highestValueAt(index - 1) + 1;
+      assertTrue(lowest <= value && value <= highest, "bucket of " + value);
+      assertTrue(highest - lowest <= Math.max(0, lowest / 64), "width of bucket of " + value);
+    }
+  }
+
+  /**
+   * Verifies merged percentiles stay within the bucket precision and the maximum is exact.
+   */
+  @Test
+  void testMergedPercentilesMatchSortedValues() {
+    Random random = new Random(7);
+    long[] all = new long[30_000];
+    LatencyHistogram[] parts = {new LatencyHistogram(), new LatencyHistogram(), new LatencyHistogram()};
+    for (int i = 0; i < all.length; i++) {
+      all[i] = (long) Math.exp(random.nextDouble() * 20);
+      parts[i % parts.length].record(all[i]);
+    }
+    LatencyHistogram merged = new LatencyHistogram();
+    for (LatencyHistogram part : parts) {
+      merged.add(part);
+    }
+    Arrays.sort(all);
+
+    assertEquals(all.length, merged.count());
+    assertEquals(all[all.length - 1], merged.max());
+    for (double fraction : new double[] {0.5, 0.99, 0.999}) {
+      long exact = all[(int) Math.ceil(fraction * all.length) - 1];
+      long estimate = merged.percentile(fraction);
+      assertTrue(estimate >= exact && estimate <= exact + exact / 64, fraction + ": " + estimate + " vs " + exact);
+    }
+    assertEquals(0, new LatencyHistogram().percentile(0.99));
+  }
+}
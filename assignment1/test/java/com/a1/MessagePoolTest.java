@@ -0,0 +1,82 @@
+package com.a1;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MessagePool verifying message reuse across producer and consumer threads.
+ */
+public class MessagePoolTest {
+
+  /**
+   * Mutable message that is refilled for every item.
+   */
+  private static final class Event {
+    int sequence;
+
+    @Override
+    public int hashCode() {
+      return sequence;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return other instanceof Event && ((Event) other).sequence == sequence;
+    }
+  }
+
+  /**
+   * Verifies released messages are handed out again instead of creating new ones.
+   */
+  @Test
+  void testAcquireReusesReleasedMessage() {
+    MessagePool<Event> pool = new MessagePool<>(Event::new, 4);
+    Event first = pool.acquire();
+    pool.release(first);
+
+    assertSame(first, pool.acquire());
+    assertEquals(1, pool.getCreatedCount());
+  }
+
+  /**
+   * Verifies releases beyond the idle limit are dropped rather than kept.
+   */
+  @Test
+  void testReleaseBeyondIdleLimitIsDropped() {
+    MessagePool<Event> pool = new MessagePool<>(Event::new, 2);
+    Event[] events = {pool.acquire(), pool.acquire(), pool.acquire()};
+    for (Event event : events) {
+      pool.release(event);
+    }
+    assertSame(events[0], pool.acquire());
+    assertSame(events[1], pool.acquire());
+    assertNotSame(events[2], pool.acquire());
+    assertEquals(4, pool.getCreatedCount());
+  }
+
+  /**
+   * Verifies a recycling pipeline allocates only about as many messages as can be in flight.
+   */
+  @Test
+  void testPipelineRecyclesMessages() throws InterruptedException {
+    MessagePool<Event> pool = new MessagePool<>(Event::new, 64);
+    MyBlockingQueue<Event> queue = new MyBlockingQueue<>(8);
+    long[] sum = new long[1];
+
+    Producer<Event> producer = new Producer<>(queue,
+            ItemSources.pooled(pool, 10_000, (event, i) -> event.sequence = i), "P1", 0, false);
+    Consumer<Event> consumer = new Consumer<Event>(queue, event -> sum[0] += event.sequence,
+            Consumer.ErrorPolicy.STOP, "C1", 10_000).recycleInto(pool);
+
+    Thread producerThread = new Thread(producer);
+    Thread consumerThread = new Thread(consumer);
+    producerThread.start();
+    consumerThread.start();
+    producerThread.join(5000);
+    consumerThread.join(5000);
+
+    assertEquals(10_000L * 9_999 / 2, sum[0]);
+    assertTrue(producer.getDigest().matches(consumer.getDigest()));
+    assertTrue(pool.getCreatedCount() <= 8 + 4, "Created " + pool.getCreatedCount() + " messages");
+  }
+}
@@ -8,6 +8,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -189,4 +190,135 @@ public class MyBlockingQueueTest {
         queue.take();
         assertEquals(1, queue.size());
     }
+
+    /**
+     * Verifies poll returns null when no item arrives before the timeout, and an item otherwise.
+     */
+    @Test
+    void testPollWithTimeout() throws InterruptedException {
+        long start = System.nanoTime();
+        assertNull(queue.poll(50, TimeUnit.MILLISECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+
+        queue.put(7);
+        assertEquals(7, queue.poll(50, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Verifies puts that block on a full queue are counted.
+     */
+    @Test
+    void testPutWaitCount() throws InterruptedException {
+        for (int i = 0; i < CAPACITY; i++) {
+            queue.put(i);
+        }
+        assertEquals(0, queue.getPutWaitCount());
+
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put(99);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        Thread.sleep(100);
+        queue.take();
+        producer.join(1000);
+
+        assertEquals(1, queue.getPutWaitCount());
+        assertEquals(CAPACITY, queue.getCapacity());
+    }
+
+    /**
+     * Verifies close rejects new puts while consumers still drain the remaining items.
+     */
+    @Test
+    void testCloseRejectsPutsAndAllowsDrain() throws InterruptedException {
+        queue.put(1);
+        queue.put(2);
+        queue.close();
+
+        assertTrue(queue.isClosed());
+        assertThrows(QueueClosedException.class, () -> queue.put(3));
+        assertEquals(1, queue.take());
+        assertEquals(2, queue.take());
+        assertThrows(QueueClosedException.class, () -> queue.take());
+    }
+
+    /**
+     * Verifies close immediately wakes a consumer blocked on an empty queue.
+     */
+    @Test
+    void testCloseWakesBlockedConsumer() throws InterruptedException {
+        AtomicInteger outcome = new AtomicInteger();
+        Thread consumer = new Thread(() -> {
+            try {
+                queue.take();
+            } catch (QueueClosedException e) {
+                outcome.set(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+        Thread.sleep(100);
+
+        long start = System.nanoTime();
+        queue.close();
+        consumer.join(1000);
+
+        assertFalse(consumer.isAlive());
+        assertEquals(1, outcome.get());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    /**
+     * Verifies closeNow hands back undelivered items and wakes blocked producers.
+     */
+    @Test
+    void testCloseNowReturnsItemsAndWakesProducers() throws InterruptedException {
+        for (int i = 0; i < CAPACITY; i++) {
+            queue.put(i);
+        }
+        AtomicInteger rejected = new AtomicInteger();
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put(99);
+            } catch (QueueClosedException e) {
+                rejected.set(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        Thread.sleep(100);
+
+        List<Integer> undelivered = queue.closeNow();
+        producer.join(1000);
+
+        assertEquals(List.of(0, 1, 2, 3, 4), undelivered);
+        assertEquals(1, rejected.get());
+        assertTrue(queue.isEmpty());
+        assertThrows(QueueClosedException.class, () -> queue.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Verifies drainTo moves at most the requested items in FIFO order and frees space for producers.
+     */
+    @Test
+    void testDrainToMovesAvailableItems() throws InterruptedException {
+        MyBlockingQueue<Integer> queue = new MyBlockingQueue<>(5);
+        for (int i = 0; i < 5; i++) {
+            queue.put(i);
+        }
+        List<Integer> target = new ArrayList<>();
+
+        assertEquals(3, queue.drainTo(target, 3));
+        assertEquals(List.of(0, 1, 2), target);
+        assertEquals(2, queue.size());
+        assertEquals(2, queue.drainTo(target, 10));
+        assertEquals(0, queue.drainTo(target, 10));
+        assertEquals(5, queue.getTotalTaken());
+    }
 }
@@ -0,0 +1,119 @@
+package com.a1;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for MyDelayQueue verifying due-time ordering, blocking and closing behavior.
+ */
+public class MyDelayQueueTest {
+
+    /**
+     * Verifies items come out in due order regardless of insertion order, ties in FIFO order.
+     */
+    @Test
+    void testItemsAreTakenInDueOrder() throws InterruptedException {
+        MyDelayQueue<String> queue = new MyDelayQueue<>(10);
+        queue.put("c", 60, TimeUnit.MILLISECONDS);
+        queue.put("a", 0, TimeUnit.MILLISECONDS);
+        queue.put("b", 30, TimeUnit.MILLISECONDS);
+        queue.put("a2", 0, TimeUnit.MILLISECONDS);
+
+        List<String> taken = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            taken.add(queue.take());
+        }
+
+        assertEquals(List.of("a", "a2", "b", "c"), taken);
+    }
+
+    /**
+     * Verifies take blocks until the head item is due and poll times out before that.
+     */
+    @Test
+    void testTakeWaitsForDueTime() throws InterruptedException {
+        MyDelayQueue<Integer> queue = new MyDelayQueue<>(5);
+        queue.put(1, 200, TimeUnit.MILLISECONDS);
+
+        assertNull(queue.poll(50, TimeUnit.MILLISECONDS));
+        long start = System.nanoTime();
+        assertEquals(1, queue.take());
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(waitedMillis >= 100, "take returned " + waitedMillis + " ms after the poll timed out");
+    }
+
+    /**
+     * Verifies an earlier item put while a consumer is sleeping on a later one is delivered first.
+     */
+    @Test
+    void testEarlierItemPreemptsSleepingConsumer() throws InterruptedException {
+        MyDelayQueue<String> queue = new MyDelayQueue<>(5);
+        queue.put("late", 2, TimeUnit.SECONDS);
+        List<String> taken = Collections.synchronizedList(new ArrayList<>());
+        Thread consumer = new Thread(() -> {
+            try {
+                taken.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+        Thread.sleep(50);
+
+        queue.put("early", 10, TimeUnit.MILLISECONDS);
+        consumer.join(1000);
+
+        assertEquals(List.of("early"), taken);
+        assertEquals(1, queue.size());
+    }
+
+    /**
+     * Verifies the queue is bounded and close lets consumers drain what is left.
+     */
+    @Test
+    void testBoundedAndCloseDrains() throws InterruptedException {
+        MyDelayQueue<Integer> queue = new MyDelayQueue<>(2);
+        queue.put(1);
+        queue.put(2, 20, TimeUnit.MILLISECONDS);
+        Thread producer = new Thread(() -> {
+            try {
+                queue.put(3);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (QueueClosedException e) {
+                // Expected once the queue is closed.
+            }
+        });
+        producer.start();
+        Thread.sleep(50);
+        assertTrue(producer.isAlive(), "Producer should block while the queue is full");
+
+        queue.close();
+        producer.join(1000);
+        assertFalse(producer.isAlive());
+
+        assertEquals(1, queue.take());
+        assertEquals(2, queue.take());
+        assertThrows(QueueClosedException.class, queue::take);
+    }
+
+    /**
+     * Verifies closeNow returns pending items in due order and wakes blocked consumers.
+     */
+    @Test
+    void testCloseNowReturnsPendingItems() throws InterruptedException {
+        MyDelayQueue<Integer> queue = new MyDelayQueue<>(5);
+        queue.put(2, 10, TimeUnit.SECONDS);
+        queue.put(1, 5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(1, 2), queue.closeNow());
+        assertTrue(queue.isEmpty());
+        assertThrows(QueueClosedException.class, () -> queue.poll(10, TimeUnit.MILLISECONDS));
+    }
+}
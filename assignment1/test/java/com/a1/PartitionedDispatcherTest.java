@@ -0,0 +1,152 @@
+package com.a1;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for PartitionedDispatcher verifying key affinity, per-key ordering and rebalancing.
+ */
+public class PartitionedDispatcherTest {
+
+  /**
+   * Verifies every item with the same key is routed to the same partition.
+   */
+  @Test
+  void testSameKeySamePartition() throws InterruptedException {
+    PartitionedDispatcher<Integer> dispatcher = new PartitionedDispatcher<>(4, 100, item -> item % 10);
+
+    for (int i = 0; i < 100; i++) {
+      dispatcher.dispatch(i);
+    }
+
+    for (int p = 0; p < dispatcher.getPartitionCount(); p++) {
+      MyBlockingQueue<Integer> partition = dispatcher.partition(p);
+      while (!partition.isEmpty()) {
+        int item = partition.take();
+        assertEquals(p, dispatcher.partitionFor(item));
+      }
+    }
+  }
+
+  /**
+   * Verifies a partition's consumer sees each key's items in dispatch order.
+   */
+  @Test
+  void testPerKeyOrderingPreserved() throws InterruptedException {
+    PartitionedDispatcher<Integer> dispatcher = new PartitionedDispatcher<>(3, 5, item -> item % 7);
+    List<List<Integer>> seen = new ArrayList<>();
+    List<Thread> consumers = new ArrayList<>();
+
+    for (int p = 0; p < dispatcher.getPartitionCount(); p++) {
+      List<Integer> received = new ArrayList<>();
+      seen.add(received);
+      MyBlockingQueue<Integer> partition = dispatcher.partition(p);
+      Thread consumer = new Thread(() -> {
+        try {
+          while (true) {
+            int item = partition.take();
+            if (item < 0) {
+              return;
+            }
+            received.add(item);
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      consumers.add(consumer);
+      consumer.start();
+    }
+
+    for (int i = 0; i < 700; i++) {
+      dispatcher.dispatch(i);
+    }
+    for (int p = 0; p < dispatcher.getPartitionCount(); p++) {
+      dispatcher.partition(p).put(-1);
+    }
+    for (Thread consumer : consumers) {
+      consumer.join(5000);
+    }
+
+    int total = 0;
+    for (List<Integer> received : seen) {
+      int[] lastByKey = new int[7];
+      Arrays.fill(lastByKey, -1);
+      for (int item : received) {
+        assertTrue(item > lastByKey[item % 7], "Items of one key must arrive in order");
+        lastByKey[item % 7] = item;
+      }
+      total += received.size();
+    }
+    assertEquals(700, total);
+  }
+
+  /**
+   * Verifies rebalancing with real consumers waits for items still being handled, including one
+   * whose failure stops its consumer, and then applies the new mapping.
+   */
+  @Test
+  void testRebalanceAppliesNewPartitioner() throws InterruptedException {
+    System.setOut(new java.io.PrintStream(new java.io.ByteArrayOutputStream()));
+    PartitionedDispatcher<Integer> dispatcher = new PartitionedDispatcher<>(2, 10, item -> item);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    List<Integer> handled = Collections.synchronizedList(new ArrayList<>());
+    ItemHandler<Integer> handler = item -> {
+      if (item == 1) {
+        started.countDown();
+        release.await();
+      }
+      if (item == 2) {
+        throw new IllegalArgumentException("bad item");
+      }
+      handled.add(item);
+    };
+    List<Thread> consumers = new ArrayList<>();
+    for (int p = 0; p < dispatcher.getPartitionCount(); p++) {
+      Consumer<Integer> consumer = new Consumer<>(dispatcher.partition(p), dispatcher.handlerFor(p, handler),
+              Consumer.ErrorPolicy.STOP, "C" + p, -1);
+      consumers.add(new Thread(consumer));
+    }
+    consumers.forEach(Thread::start);
+
+    // Items 1 and 2 hash to different partitions; 2 fails and stops its consumer.
+    dispatcher.dispatch(1);
+    dispatcher.dispatch(2);
+    assertTrue(started.await(2, TimeUnit.SECONDS));
+
+    Thread rebalancer = new Thread(() -> {
+      try {
+        dispatcher.rebalance((key, numPartitions) -> 1);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    rebalancer.start();
+    Thread.sleep(100);
+    assertTrue(rebalancer.isAlive(), "Rebalance should wait for the item being handled");
+
+    release.countDown();
+    rebalancer.join(2000);
+    assertFalse(rebalancer.isAlive());
+
+    dispatcher.dispatch(3);
+    dispatcher.dispatch(4);
+    for (int p = 0; p < dispatcher.getPartitionCount(); p++) {
+      dispatcher.partition(p).close();
+    }
+    for (Thread consumer : consumers) {
+      consumer.join(2000);
+      assertFalse(consumer.isAlive());
+    }
+    assertEquals(List.of(1, 3, 4), handled);
+    assertThrows(IllegalStateException.class, () -> dispatcher.complete(1));
+  }
+}
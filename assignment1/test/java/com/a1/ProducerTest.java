@@ -74,4 +74,39 @@ public class ProducerTest {
 
     assertEquals(5, producer.getItemsProduced(), "All items should eventually be produced");
   }
-}
\ No newline at end of file
+
+  /**
+   * Verifies that a producer streams items from a lazy iterator source without a backing list.
+   */
+  @Test
+  void testProducerStreamsFromIteratorSource() throws InterruptedException {
+    Producer producer = new Producer(queue, ItemSources.range(1, 6), "TestProducer");
+    Thread thread = new Thread(producer);
+    thread.start();
+    thread.join();
+
+    assertEquals(5, producer.getItemsProduced());
+    for (int i = 1; i <= 5; i++) {
+      assertEquals(i, queue.take());
+    }
+  }
+
+  /**
+   * Verifies a typed producer moves non-integer items without the demo pause.
+   */
+  @Test
+  void testTypedProducerWithoutPause() throws InterruptedException {
+    MyBlockingQueue<String> words = new MyBlockingQueue<>(10);
+    Producer<String> producer = new Producer<>(words, List.of("a", "b", "c").iterator(), "TestProducer", 0, false);
+    long start = System.nanoTime();
+    Thread thread = new Thread(producer);
+    thread.start();
+    thread.join();
+
+    assertTrue(System.nanoTime() - start < 500_000_000L, "No simulated pause expected");
+    assertEquals(3, producer.getItemsProduced());
+    assertEquals("a", words.take());
+    assertEquals("b", words.take());
+    assertEquals("c", words.take());
+  }
+}
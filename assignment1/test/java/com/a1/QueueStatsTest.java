@@ -0,0 +1,129 @@
+package com.a1;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+/**
+ * Unit tests for the JMX statistics beans, read back through the platform MBean server.
+ */
+public class QueueStatsTest {
+
+  /**
+   * Verifies queue depth, totals and blocked producers are visible while a producer is stuck.
+   */
+  @Test
+  void testQueueAttributesAreLive() throws Exception {
+    MyBlockingQueue<Integer> queue = new MyBlockingQueue<>(2);
+    ObjectName name = StatsRegistry.register(new QueueStats(queue), "Queue", "test-live");
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      queue.put(1);
+      queue.put(2);
+      Thread blocked = new Thread(() -> {
+        try {
+          queue.put(3);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      blocked.start();
+
+      long deadline = System.currentTimeMillis() + 5000;
+      while ((Integer) server.getAttribute(name, "BlockedProducers") == 0
+              && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      assertEquals(1, server.getAttribute(name, "BlockedProducers"));
+      assertEquals(2, server.getAttribute(name, "Size"));
+      assertEquals(2, server.getAttribute(name, "Capacity"));
+      assertEquals(2L, server.getAttribute(name, "TotalPut"));
+
+      queue.take();
+      blocked.join(5000);
+      assertEquals(0, server.getAttribute(name, "BlockedProducers"));
+      assertEquals(3L, server.getAttribute(name, "TotalPut"));
+      assertEquals(1L, server.getAttribute(name, "TotalTaken"));
+      assertEquals(1L, server.getAttribute(name, "PutWaitCount"));
+      assertTrue((Double) server.getAttribute(name, "ThroughputPerSecond") > 0);
+    } finally {
+      StatsRegistry.unregister(name);
+    }
+    assertFalse(server.isRegistered(name));
+  }
+
+  /**
+   * Verifies worker group totals and per-worker counters after a run.
+   */
+  @Test
+  void testWorkerGroupAttributes() throws Exception {
+    System.setOut(new java.io.PrintStream(new java.io.ByteArrayOutputStream()));
+    MyBlockingQueue<Integer> queue = new MyBlockingQueue<>(4);
+    Producer<Integer> producer = new Producer<>(queue, ItemSources.range(0, 20), "P1", 0, false);
+    Consumer<Integer> consumer = new Consumer<>(queue, item -> { }, Consumer.ErrorPolicy.STOP, "C1", 20);
+    WorkerGroupStats stats = new WorkerGroupStats()
+            .addProducers(List.of(producer))
+            .addConsumers(List.of(consumer));
+    ObjectName name = StatsRegistry.register(stats, "WorkerGroup", "test-group");
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      Thread consumerThread = new Thread(consumer);
+      consumerThread.start();
+      producer.run();
+      consumerThread.join(5000);
+
+      assertEquals(1, server.getAttribute(name, "ProducerCount"));
+      assertEquals(20L, server.getAttribute(name, "ItemsProduced"));
+      assertEquals(20L, server.getAttribute(name, "ItemsConsumed"));
+      assertEquals(0L, server.getAttribute(name, "Failures"));
+
+      TabularData perWorker = (TabularData) server.getAttribute(name, "ItemsPerWorker");
+      assertEquals(2, perWorker.size());
+      assertEquals(20L, perWorker.get(new Object[] {"C1"}).get("value"));
+    } finally {
+      StatsRegistry.unregister(name);
+    }
+  }
+
+  /**
+   * Verifies reading the recent rate does not move the sampling window, and that a registered
+   * bean is sampled on its own.
+   */
+  @Test
+  void testRecentRateIsOnlyChangedBySampling() throws Exception {
+    MyBlockingQueue<Integer> queue = new MyBlockingQueue<>(10);
+    QueueStats stats = new QueueStats(queue);
+    for (int i = 0; i < 5; i++) {
+      queue.put(i);
+      queue.take();
+    }
+    Thread.sleep(10);
+    stats.sample();
+    double rate = stats.getRecentThroughputPerSecond();
+    assertTrue(rate > 0);
+    assertEquals(rate, stats.getRecentThroughputPerSecond());
+    assertEquals(rate, stats.getRecentThroughputPerSecond());
+
+    QueueStats registered = new QueueStats(queue);
+    ObjectName name = StatsRegistry.register(registered, "Queue", "test-sampled");
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      queue.put(5);
+      queue.take();
+      long deadline = System.currentTimeMillis() + 5000;
+      double sampled = 0;
+      while (sampled == 0 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(50);
+        sampled = (Double) server.getAttribute(name, "RecentThroughputPerSecond");
+      }
+      assertTrue(sampled > 0);
+    } finally {
+      StatsRegistry.unregister(name);
+    }
+  }
+}
@@ -0,0 +1,162 @@
+package com.a1;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Unit tests for Resequencer verifying in-order release, backpressure and gap handling.
+ */
+public class ResequencerTest {
+
+  /**
+   * Verifies items submitted out of order are released in sequence order.
+   */
+  @Test
+  void testReleasesInSequenceOrder() throws Exception {
+    List<String> released = new ArrayList<>();
+    Resequencer<String> resequencer = new Resequencer<>(8, 1, TimeUnit.SECONDS, released::add);
+
+    resequencer.submit(new Sequenced<>(1, 2, "c"));
+    resequencer.submit(new Sequenced<>(1, 1, "b"));
+    assertTrue(released.isEmpty());
+    assertEquals(2, resequencer.getPendingCount());
+
+    resequencer.submit(new Sequenced<>(1, 0, "a"));
+    assertEquals(List.of("a", "b", "c"), released);
+    assertFalse(resequencer.submit(new Sequenced<>(1, 1, "b")), "Duplicates are dropped");
+    assertEquals(1, resequencer.getLateCount());
+  }
+
+  /**
+   * Verifies an item a full window ahead blocks until the gap closes.
+   */
+  @Test
+  void testBackpressureWhenWindowFull() throws Exception {
+    List<Integer> released = Collections.synchronizedList(new ArrayList<>());
+    Resequencer<Integer> resequencer = new Resequencer<>(2, 10, TimeUnit.SECONDS, released::add);
+    resequencer.submit(new Sequenced<>(1, 1, 1));
+
+    AtomicBoolean accepted = new AtomicBoolean();
+    Thread submitter = new Thread(() -> {
+      try {
+        accepted.set(resequencer.submit(new Sequenced<>(1, 2, 2)));
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
+    });
+    submitter.start();
+    Thread.sleep(100);
+    assertTrue(submitter.isAlive(), "Submitter should block while the gap persists");
+
+    resequencer.submit(new Sequenced<>(1, 0, 0));
+    submitter.join(1000);
+    assertTrue(accepted.get());
+    assertEquals(List.of(0, 1, 2), released);
+  }
+
+  /**
+   * Verifies a gap is skipped explicitly or after the gap timeout.
+   */
+  @Test
+  void testSkipsPersistentGaps() throws Exception {
+    List<Integer> released = new ArrayList<>();
+    Resequencer<Integer> resequencer = new Resequencer<>(2, 50, TimeUnit.MILLISECONDS, released::add);
+
+    resequencer.submit(new Sequenced<>(1, 1, 1));
+    resequencer.skip(1, 0);
+    assertEquals(List.of(1), released);
+
+    resequencer.submit(new Sequenced<>(1, 3, 3));
+    resequencer.submit(new Sequenced<>(1, 4, 4));
+    assertEquals(List.of(1, 3, 4), released);
+    assertEquals(2, resequencer.getSkippedCount());
+  }
+
+  /**
+   * Verifies a gap inside the window expires on a later call, and flush releases what is still
+   * parked at the end of the stream.
+   */
+  @Test
+  void testExpiresGapsInsideWindowAndFlushes() throws Exception {
+    List<Integer> released = new ArrayList<>();
+    Resequencer<Integer> resequencer = new Resequencer<>(8, 50, TimeUnit.MILLISECONDS, released::add);
+
+    resequencer.submit(new Sequenced<>(1, 2, 2));
+    Thread.sleep(80);
+    resequencer.submit(new Sequenced<>(2, 0, 100));
+    assertEquals(List.of(2, 100), released, "Lost sequences 0 and 1 expire on the next submit");
+    assertEquals(2, resequencer.getSkippedCount());
+
+    resequencer.submit(new Sequenced<>(1, 5, 5));
+    resequencer.submit(new Sequenced<>(1, 7, 7));
+    assertEquals(2, resequencer.getPendingCount());
+    long start = System.nanoTime();
+    resequencer.flush();
+    assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+    assertEquals(List.of(2, 100, 5, 7), released);
+    assertEquals(0, resequencer.getPendingCount());
+    assertEquals(5, resequencer.getSkippedCount());
+  }
+
+  /**
+   * Verifies checked exceptions from the downstream handler are wrapped.
+   */
+  @Test
+  void testWrapsDownstreamFailures() {
+    Resequencer<Integer> resequencer = new Resequencer<>(4, 1, TimeUnit.SECONDS, item -> {
+      throw new java.io.IOException("downstream failed");
+    });
+    ExecutionException e = assertThrows(ExecutionException.class,
+            () -> resequencer.submit(new Sequenced<>(1, 0, 0)));
+    assertTrue(e.getCause() instanceof java.io.IOException);
+  }
+
+  /**
+   * Verifies per-producer order is restored after parallel consumption by several consumers.
+   */
+  @Test
+  void testRestoresOrderAfterParallelConsumers() throws InterruptedException {
+    System.setOut(new java.io.PrintStream(new java.io.ByteArrayOutputStream()));
+    MyBlockingQueue<Sequenced<Integer>> queue = new MyBlockingQueue<>(16);
+    List<Sequenced<Integer>> released = new ArrayList<>();
+    Resequencer<Sequenced<Integer>> resequencer = new Resequencer<>(32, 5, TimeUnit.SECONDS, released::add);
+
+    List<Thread> threads = new ArrayList<>();
+    for (int p = 1; p <= 2; p++) {
+      threads.add(new Thread(new Producer<>(queue,
+              Sequenced.stamp(p, ItemSources.range(p * 1000, p * 1000 + 500)), "P" + p, 0, false)));
+    }
+    for (int c = 1; c <= 3; c++) {
+      threads.add(new Thread(new Consumer<Sequenced<Integer>>(queue, item -> {
+        if (ThreadLocalRandom.current().nextInt(10) == 0) {
+          Thread.sleep(1);
+        }
+        resequencer.submit(item.withValue(item));
+      }, Consumer.ErrorPolicy.STOP, "C" + c, -1)));
+    }
+    threads.forEach(Thread::start);
+    threads.get(0).join(5000);
+    threads.get(1).join(5000);
+    queue.close();
+    for (Thread thread : threads) {
+      thread.join(5000);
+    }
+
+    assertEquals(1000, released.size());
+    long[] next = new long[3];
+    for (Sequenced<Integer> item : released) {
+      int producer = item.getProducerId();
+      assertEquals(next[producer], item.getSequence());
+      assertEquals(producer * 1000 + next[producer], (long) item.getValue());
+      next[producer]++;
+    }
+  }
+}
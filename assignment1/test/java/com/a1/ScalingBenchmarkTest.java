@@ -0,0 +1,63 @@
+package com.a1;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for ScalingBenchmark verifying a grid point runs and the reports are written.
+ */
+public class ScalingBenchmarkTest {
+
+  @TempDir
+  Path outDir;
+
+  /**
+   * Verifies each queue implementation delivers items and yields ordered latency percentiles.
+   */
+  @Test
+  void testRunPointForEachQueue() throws InterruptedException {
+    for (ScalingBenchmark.QueueKind kind : ScalingBenchmark.QueueKind.values()) {
+      ScalingBenchmark.Point point = new ScalingBenchmark.Point(16, 2, 2, kind, ScalingBenchmark.Workload.CPU);
+      ScalingBenchmark.Result result = ScalingBenchmark.runPoint(point, 5_000, 1);
+
+      assertEquals(5_000, result.itemsProduced);
+      if (kind == ScalingBenchmark.QueueKind.CONFLATING) {
+        assertTrue(result.itemsDelivered > 0 && result.itemsDelivered <= 5_000);
+      } else {
+        assertEquals(5_000, result.itemsDelivered, kind + " must deliver every item");
+      }
+      assertTrue(result.p50Nanos <= result.p99Nanos);
+      assertTrue(result.p99Nanos <= result.maxNanos);
+      assertTrue(result.throughput() > 0);
+    }
+  }
+
+  /**
+   * Verifies the CSV and JSON reports contain one entry per result.
+   */
+  @Test
+  void testWritesReports() throws Exception {
+    List<ScalingBenchmark.Result> results = new ArrayList<>();
+    ScalingBenchmark.Point point = new ScalingBenchmark.Point(
+            4, 1, 1, ScalingBenchmark.QueueKind.BLOCKING, ScalingBenchmark.Workload.EMPTY);
+    results.add(ScalingBenchmark.runPoint(point, 1_000, 1));
+    results.add(ScalingBenchmark.runPoint(point, 1_000, 2));
+
+    Path csv = outDir.resolve("scaling.csv");
+    Path json = outDir.resolve("scaling.json");
+    ScalingBenchmark.writeCsv(results, csv);
+    ScalingBenchmark.writeJson(results, json);
+
+    List<String> lines = Files.readAllLines(csv);
+    assertEquals(3, lines.size());
+    assertTrue(lines.get(0).startsWith("queue,workload,capacity,producers,consumers"));
+    assertTrue(lines.get(1).startsWith("BLOCKING,EMPTY,4,1,1,1,1000,1000,"));
+    assertEquals(2, Files.readString(json).split("\"queue\"").length - 1);
+  }
+}
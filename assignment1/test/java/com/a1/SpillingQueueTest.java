@@ -0,0 +1,160 @@
+package com.a1;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Unit tests for SpillingQueue verifying FIFO order across memory and spill files.
+ */
+public class SpillingQueueTest {
+
+    @TempDir
+    Path spillDir;
+
+    private long spillFileCount() throws IOException {
+        try (Stream<Path> files = Files.list(spillDir)) {
+            return files.count();
+        }
+    }
+
+    /**
+     * Verifies puts beyond the memory capacity do not block and come back in FIFO order.
+     */
+    @Test
+    void testOverflowSpillsAndKeepsFifoOrder() throws Exception {
+        try (SpillingQueue<Integer> queue = new SpillingQueue<>(10, spillDir, SpillCodec.INTEGERS, 4096)) {
+            for (int i = 0; i < 50_000; i++) {
+                queue.put(i);
+            }
+            assertEquals(50_000, queue.size());
+            assertEquals(49_990, queue.getSpilledCount());
+            assertTrue(spillFileCount() > 1, "Spill should rotate across several segments");
+
+            for (int i = 0; i < 50_000; i++) {
+                assertEquals(i, queue.take());
+            }
+            assertTrue(queue.isEmpty());
+            assertEquals(0, spillFileCount(), "Drained segments should be deleted");
+        }
+    }
+
+    /**
+     * Verifies new puts go back to memory once the spill has been drained.
+     */
+    @Test
+    void testReturnsToMemoryAfterSpillDrained() throws Exception {
+        try (SpillingQueue<Integer> queue = new SpillingQueue<>(2, spillDir, SpillCodec.INTEGERS)) {
+            queue.put(1);
+            queue.put(2);
+            queue.put(3);
+            assertEquals(1, queue.getSpilledCount());
+
+            queue.take();
+            queue.put(4);
+            assertEquals(2, queue.getSpilledCount(), "Puts keep spilling while older items are on disk");
+
+            assertEquals(2, queue.take());
+            assertEquals(3, queue.take());
+            assertEquals(4, queue.take());
+
+            queue.put(5);
+            assertEquals(0, queue.getSpilledCount());
+            assertEquals(2, queue.getTotalSpilled());
+            assertEquals(5, queue.take());
+        }
+    }
+
+    /**
+     * Verifies records larger than the batch buffer round-trip intact.
+     */
+    @Test
+    void testLargeRecords() throws Exception {
+        String large = "x".repeat(SpillingQueue.BUFFER_BYTES * 2);
+        try (SpillingQueue<String> queue = new SpillingQueue<>(1, spillDir, SpillCodec.STRINGS)) {
+            queue.put("first");
+            queue.put("second");
+            queue.put(large);
+            queue.put("last");
+
+            assertEquals("first", queue.take());
+            assertEquals("second", queue.take());
+            assertEquals(large, queue.take());
+            assertEquals("last", queue.take());
+            assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    /**
+     * Verifies two queues spilling into one directory keep their own segments, and that string
+     * sizes are counted exactly for multi-byte and unpaired-surrogate text.
+     */
+    @Test
+    void testQueuesShareSpillDirectory() throws Exception {
+        String[] texts = {"plain", "caf\u00e9", "\u20ac100", "\ud83d\ude97 car", "bad \ud800 pair"};
+        for (String text : texts) {
+            assertEquals(text.getBytes(java.nio.charset.StandardCharsets.UTF_8).length,
+                    SpillCodec.STRINGS.encodedSize(text));
+        }
+        try (SpillingQueue<String> first = new SpillingQueue<>(1, spillDir, SpillCodec.STRINGS, 64);
+             SpillingQueue<String> second = new SpillingQueue<>(1, spillDir, SpillCodec.STRINGS, 64)) {
+            for (int i = 0; i < 200; i++) {
+                first.put("a" + i + texts[i % texts.length]);
+                second.put("b" + i + texts[i % texts.length]);
+            }
+            for (int i = 0; i < 200; i++) {
+                assertEquals("a" + i + texts[i % texts.length].replace('\ud800', '?'), first.take());
+                assertEquals("b" + i + texts[i % texts.length].replace('\ud800', '?'), second.take());
+            }
+        }
+    }
+
+    /**
+     * Verifies a concurrent producer and consumer transfer every item in order.
+     */
+    @Test
+    void testConcurrentProducerAndConsumer() throws Exception {
+        try (SpillingQueue<Integer> queue = new SpillingQueue<>(16, spillDir, SpillCodec.INTEGERS, 8192)) {
+            int total = 100_000;
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < total; i++) {
+                    queue.put(i);
+                }
+            });
+            producer.start();
+
+            for (int i = 0; i < total; i++) {
+                assertEquals(i, queue.take());
+            }
+            producer.join(5000);
+            assertTrue(queue.isEmpty());
+        }
+    }
+
+    /**
+     * Verifies the spilling queue plugs into the existing Producer and Consumer.
+     */
+    @Test
+    void testWithProducerAndConsumer() throws Exception {
+        System.setOut(new java.io.PrintStream(new java.io.ByteArrayOutputStream()));
+        try (SpillingQueue<Integer> queue = new SpillingQueue<>(2, spillDir, SpillCodec.INTEGERS)) {
+            Producer producer = new Producer(queue, ItemSources.range(0, 5), "P1");
+            Thread producerThread = new Thread(producer);
+            producerThread.start();
+            producerThread.join(5000);
+            assertEquals(5, producer.getItemsProduced());
+
+            Consumer consumer = new Consumer(queue, "C1", 5);
+            Thread consumerThread = new Thread(consumer);
+            consumerThread.start();
+            consumerThread.join(5000);
+            assertTrue(producer.getDigest().matches(consumer.getDigest()));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.a1;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Unit tests for SpinPolicy verifying the spin budget adapts to how often spinning succeeds.
+ */
+public class SpinPolicyTest {
+
+  /**
+   * Verifies successes grow the budget up to the maximum and failures shrink it to zero.
+   */
+  @Test
+  void testBudgetFollowsOutcomes() {
+    SpinPolicy policy = new SpinPolicy(SpinPolicy.PROBE_SPINS);
+
+    policy.record(true);
+    assertEquals(SpinPolicy.PROBE_SPINS * 2, policy.getLimit());
+    for (int i = 0; i < 20; i++) {
+      policy.record(true);
+    }
+    assertEquals(SpinPolicy.MAX_SPINS, policy.getLimit());
+
+    for (int i = 0; i < 20; i++) {
+      policy.record(false);
+    }
+    assertEquals(0, policy.getLimit());
+  }
+
+  /**
+   * Verifies a policy that stopped spinning still probes periodically and recovers after a success.
+   */
+  @Test
+  void testProbesAfterBackingOff() {
+    assumeTrue(Runtime.getRuntime().availableProcessors() > 1, "Spinning is disabled on one CPU");
+    SpinPolicy policy = new SpinPolicy(0);
+
+    int probes = 0;
+    for (int i = 0; i < SpinPolicy.PROBE_INTERVAL * 3; i++) {
+      if (policy.spins() > 0) {
+        probes++;
+      }
+    }
+    assertEquals(3, probes);
+
+    policy.record(true);
+    assertEquals(SpinPolicy.PROBE_SPINS, policy.spins());
+  }
+
+  /**
+   * Verifies a queue handing items back and forth between two threads delivers every item in order.
+   */
+  @Test
+  void testSpinningQueueHandsOffInOrder() throws InterruptedException {
+    MyBlockingQueue<Integer> queue = new MyBlockingQueue<>(1);
+    int items = 50_000;
+    Thread producer = new Thread(() -> {
+      try {
+        for (int i = 0; i < items; i++) {
+          queue.put(i);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    producer.start();
+
+    for (int i = 0; i < items; i++) {
+      assertEquals(i, queue.take());
+    }
+    producer.join(5000);
+    assertTrue(queue.isEmpty());
+    assertEquals(items, queue.getTotalTaken());
+  }
+}
@@ -0,0 +1,76 @@
+package com.a1;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for TokenBucket verifying burst capacity and pacing of producers.
+ */
+public class TokenBucketTest {
+
+  /**
+   * Verifies a full bucket grants exactly its burst without waiting.
+   */
+  @Test
+  void testBurstIsAvailableImmediately() {
+    TokenBucket bucket = new TokenBucket(1, 5);
+
+    assertEquals(5, bucket.availablePermits());
+    for (int i = 0; i < 5; i++) {
+      assertTrue(bucket.tryAcquire(1));
+    }
+    assertFalse(bucket.tryAcquire(1));
+    assertEquals(0, bucket.availablePermits());
+  }
+
+  /**
+   * Verifies acquire paces callers to the configured rate once the burst is used up.
+   */
+  @Test
+  void testAcquirePacesToRate() throws InterruptedException {
+    TokenBucket bucket = new TokenBucket(100, 1);
+    long start = System.nanoTime();
+    for (int i = 0; i < 21; i++) {
+      bucket.acquire(1);
+    }
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    assertTrue(elapsedMillis >= 180, "20 paced permits at 100/s should take about 200 ms, took " + elapsedMillis);
+  }
+
+  /**
+   * Verifies producers sharing one bucket are limited to the combined rate.
+   */
+  @Test
+  void testSharedBucketLimitsProducersTogether() throws InterruptedException {
+    System.setOut(new java.io.PrintStream(new java.io.ByteArrayOutputStream()));
+    MyBlockingQueue<Integer> queue = new MyBlockingQueue<>(100);
+    TokenBucket shared = new TokenBucket(200, 1);
+    Producer<Integer> first = new Producer<>(queue, ItemSources.range(0, 20), "P1", 0, false)
+            .rateLimitedBy(shared);
+    Producer<Integer> second = new Producer<>(queue, ItemSources.range(20, 40), "P2", 0, false)
+            .rateLimitedBy(shared);
+
+    long start = System.nanoTime();
+    Thread thread = new Thread(first);
+    thread.start();
+    second.run();
+    thread.join(5000);
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    assertEquals(40, queue.size());
+    assertTrue(elapsedMillis >= 180, "40 items at 200/s should take about 200 ms, took " + elapsedMillis);
+  }
+
+  /**
+   * Verifies invalid rates and permit counts are rejected.
+   */
+  @Test
+  void testRejectsInvalidArguments() {
+    assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+    assertThrows(IllegalArgumentException.class, () -> new TokenBucket(10, 0));
+    assertThrows(IllegalArgumentException.class, () -> new TokenBucket(10, 1).tryAcquire(0));
+  }
+}
@@ -6,6 +6,8 @@ import java.util.DoubleSummaryStatistics;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.time.Month;
 import java.util.*;
@@ -13,6 +15,8 @@ import java.util.*;
 
 /**
  * Pure analytical functions on top of List<CarPricePOJO>, using Streams.
+ * Each report is also exposed as a {@link Collector}, so several reports can be computed in one
+ * pass with {@link FusedAggregator}, or over a stream that is never materialized as a list.
  */
 public class CarAnalytics {
 
@@ -20,52 +24,97 @@ public class CarAnalytics {
    * Average selling price across all cars.
    */
   public static double averageSellingPrice(List<CarPricePOJO> cars) {
-    return cars.stream()
-            .mapToInt(CarPricePOJO::getSellingPrice)
-            .average()
-            .orElse(0.0);
+    return cars.stream().collect(averageSellingPriceCollector());
+  }
+
+  /**
+   * Collector behind {@link #averageSellingPrice}, for use in a fused or parallel pass.
+   */
+  public static Collector<CarPricePOJO, ?, Double> averageSellingPriceCollector() {
+    return Collectors.averagingInt(CarPricePOJO::getSellingPrice);
   }
 
   /**
    * Returns average selling price grouped by make.
    */
   public static Map<String, Double> averageSellingPriceByMake(List<CarPricePOJO> cars) {
-    return cars.stream()
-            .collect(Collectors.groupingBy(
-                    CarPricePOJO::getMake,
-                    Collectors.averagingInt(CarPricePOJO::getSellingPrice)
-            ));
+    return cars.stream().collect(averageSellingPriceByMakeCollector());
+  }
+
+  /**
+   * Collector behind {@link #averageSellingPriceByMake}, for use in a fused or parallel pass.
+   */
+  public static Collector<CarPricePOJO, ?, Map<String, Double>> averageSellingPriceByMakeCollector() {
+    return Collectors.groupingBy(
+            CarPricePOJO::getMake,
+            Collectors.averagingInt(CarPricePOJO::getSellingPrice)
+    );
   }
 
   /**
    * Returns average selling price grouped by make and model.
    */
   public static Map<String, Double> averageSellingPriceByMakeModel(List<CarPricePOJO> cars) {
-    return cars.stream()
-            .collect(Collectors.groupingBy(
-                    CarPricePOJO::getMakeModelKey,
-                    Collectors.averagingInt(CarPricePOJO::getSellingPrice)
-            ));
+    return cars.stream().collect(averageSellingPriceByMakeModelCollector());
+  }
+
+  /**
+   * Collector behind {@link #averageSellingPriceByMakeModel}, for use in a fused or parallel pass.
+   */
+  public static Collector<CarPricePOJO, ?, Map<String, Double>> averageSellingPriceByMakeModelCollector() {
+    return Collectors.groupingBy(
+            CarPricePOJO::getMakeModelKey,
+            Collectors.averagingInt(CarPricePOJO::getSellingPrice)
+    );
   }
 
   /**
    * Returns count of sales grouped by state.
    */
   public static Map<String, Long> salesCountByState(List<CarPricePOJO> cars) {
-    return cars.stream()
-            .collect(Collectors.groupingBy(
-                    CarPricePOJO::getState,
-                    Collectors.counting()
-            ));
+    return cars.stream().collect(salesCountByStateCollector());
+  }
+
+  /**
+   * Collector behind {@link #salesCountByState}, for use in a fused or parallel pass.
+   */
+  public static Collector<CarPricePOJO, ?, Map<String, Long>> salesCountByStateCollector() {
+    return Collectors.groupingBy(
+            CarPricePOJO::getState,
+            Collectors.counting()
+    );
+  }
+
+  /**
+   * Returns count of sales grouped by make.
+   */
+  public static Map<String, Long> salesCountByMake(List<CarPricePOJO> cars) {
+    return cars.stream().collect(salesCountByMakeCollector());
+  }
+
+  /**
+   * Collector behind {@link #salesCountByMake}, for use in a fused or parallel pass.
+   */
+  public static Collector<CarPricePOJO, ?, Map<String, Long>> salesCountByMakeCollector() {
+    return Collectors.groupingBy(
+            CarPricePOJO::getMake,
+            Collectors.counting()
+    );
   }
 
   /**
    * Returns average odometer reading by make, excluding invalid readings.
    */
   public static Map<String, Double> averageOdometerByMake(List<CarPricePOJO> cars) {
-    return cars.stream()
-            .filter(car -> car.getOdometer() > 0)
-            .collect(Collectors.groupingBy(
+    return cars.stream().collect(averageOdometerByMakeCollector());
+  }
+
+  /**
+   * Collector behind {@link #averageOdometerByMake}, for use in a fused or parallel pass.
+   */
+  public static Collector<CarPricePOJO, ?, Map<String, Double>> averageOdometerByMakeCollector() {
+    return Collectors.filtering(car -> car.getOdometer() > 0,
+            Collectors.groupingBy(
                     CarPricePOJO::getMake,
                     Collectors.averagingInt(CarPricePOJO::getOdometer)
             ));
@@ -76,9 +125,15 @@ public class CarAnalytics {
    * Only cars with mmr > 0 are included.
    */
   public static Map<String, DoubleSummaryStatistics> priceDeltaStatsByMake(List<CarPricePOJO> cars) {
-    return cars.stream()
-            .filter(car -> car.getMmr() > 0)
-            .collect(Collectors.groupingBy(
+    return cars.stream().collect(priceDeltaStatsByMakeCollector());
+  }
+
+  /**
+   * Collector behind {@link #priceDeltaStatsByMake}, for use in a fused or parallel pass.
+   */
+  public static Collector<CarPricePOJO, ?, Map<String, DoubleSummaryStatistics>> priceDeltaStatsByMakeCollector() {
+    return Collectors.filtering(car -> car.getMmr() > 0,
+            Collectors.groupingBy(
                     CarPricePOJO::getMake,
                     Collectors.summarizingDouble(CarPricePOJO::getPriceDeltaFromMmr)
             ));
@@ -88,34 +143,57 @@ public class CarAnalytics {
    * Returns count of sales grouped by vehicle year.
    */
   public static Map<Integer, Long> salesCountByYear(List<CarPricePOJO> cars) {
-    return cars.stream()
-            .collect(Collectors.groupingBy(
-                    CarPricePOJO::getYear,
-                    Collectors.counting()
-            ));
+    return cars.stream().collect(salesCountByYearCollector());
+  }
+
+  /**
+   * Collector behind {@link #salesCountByYear}, for use in a fused or parallel pass.
+   */
+  public static Collector<CarPricePOJO, ?, Map<Integer, Long>> salesCountByYearCollector() {
+    return Collectors.groupingBy(
+            CarPricePOJO::getYear,
+            Collectors.counting()
+    );
   }
 
   /**
    * Returns average selling price grouped by year-month of sale.
    */
   public static Map<YearMonth, Double> averagePriceByYearMonth(List<CarPricePOJO> cars) {
-    return cars.stream()
-            .collect(Collectors.groupingBy(
-                    car -> YearMonth.from(car.getSaleDateTime()),
-                    Collectors.averagingInt(CarPricePOJO::getSellingPrice)
-            ));
+    return cars.stream().collect(averagePriceByYearMonthCollector());
+  }
+
+  /**
+   * Collector behind {@link #averagePriceByYearMonth}, for use in a fused or parallel pass.
+   */
+  public static Collector<CarPricePOJO, ?, Map<YearMonth, Double>> averagePriceByYearMonthCollector() {
+    return Collectors.groupingBy(
+            CarPricePOJO::getSaleYearMonth,
+            Collectors.averagingInt(CarPricePOJO::getSellingPrice)
+    );
   }
 
   /**
    * Returns top N make-model combinations by sales volume.
    */
   public static List<Map.Entry<String, Long>> topMakeModelsByVolume(List<CarPricePOJO> cars, int n) {
-    return cars.stream()
-            .collect(Collectors.groupingBy(
+    return cars.stream().collect(topMakeModelsByVolumeCollector(n));
+  }
+
+  /**
+   * Collector behind {@link #topMakeModelsByVolume}, for use in a fused or parallel pass.
+   */
+  public static Collector<CarPricePOJO, ?, List<Map.Entry<String, Long>>> topMakeModelsByVolumeCollector(int n) {
+    return Collectors.collectingAndThen(
+            Collectors.groupingBy(
                     CarPricePOJO::getMakeModelKey,
                     Collectors.counting()
-            ))
-            .entrySet()
+            ),
+            volumes -> topByValue(volumes, n));
+  }
+
+  static List<Map.Entry<String, Long>> topByValue(Map<String, Long> volumes, int n) {
+    return volumes.entrySet()
             .stream()
             .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
             .limit(n)
@@ -126,11 +204,17 @@ public class CarAnalytics {
    * Returns count of cars grouped by body style (Sedan, SUV, etc).
    */
   public static Map<String, Long> countByBody(List<CarPricePOJO> cars) {
-    return cars.stream()
-            .collect(Collectors.groupingBy(
-                    CarPricePOJO::getBody,
-                    Collectors.counting()
-            ));
+    return cars.stream().collect(countByBodyCollector());
+  }
+
+  /**
+   * Collector behind {@link #countByBody}, for use in a fused or parallel pass.
+   */
+  public static Collector<CarPricePOJO, ?, Map<String, Long>> countByBodyCollector() {
+    return Collectors.groupingBy(
+            CarPricePOJO::getBody,
+            Collectors.counting()
+    );
   }
 
   /**
@@ -166,15 +250,35 @@ public class CarAnalytics {
    * Returns cars where selling price is at least 10% below MMR
    */
   public static List<CarPricePOJO> findBestDeals(List<CarPricePOJO> cars, double thresholdPercent) {
-    return cars.stream()
-            .filter(car -> car.getMmr() > 0)
-            .filter(car -> {
-              double discount = ((double)(car.getMmr() - car.getSellingPrice()) / car.getMmr()) * 100;
-              return discount >= thresholdPercent;
-            })
-            .sorted(Comparator.comparingDouble(car ->
-                    ((CarPricePOJO)car).getMmr() - ((CarPricePOJO) car).getSellingPrice()).reversed())
-            .collect(Collectors.toList());
+    return cars.stream().collect(findBestDealsCollector(thresholdPercent));
+  }
+
+  /**
+   * Collector behind {@link #findBestDeals}, for use in a fused or parallel pass.
+   */
+  public static Collector<CarPricePOJO, ?, List<CarPricePOJO>> findBestDealsCollector(double thresholdPercent) {
+    return Collectors.collectingAndThen(
+            Collectors.filtering(car -> isDeal(car, thresholdPercent), Collectors.toList()),
+            deals -> {
+              sortBySavingDesc(deals);
+              return deals;
+            });
+  }
+
+  static boolean isDeal(CarPricePOJO car, double thresholdPercent) {
+    if (car.getMmr() <= 0) {
+      return false;
+    }
+    double discount = ((double)(car.getMmr() - car.getSellingPrice()) / car.getMmr()) * 100;
+    return discount >= thresholdPercent;
+  }
+
+  /**
+   * Stable sort by saving below MMR, biggest first, so equal savings keep their input order.
+   */
+  static void sortBySavingDesc(List<CarPricePOJO> deals) {
+    deals.sort(Comparator.comparingDouble(car ->
+            ((CarPricePOJO)car).getMmr() - ((CarPricePOJO) car).getSellingPrice()).reversed());
   }
 
   /**
@@ -182,53 +286,81 @@ public class CarAnalytics {
    * Higher value = better value retention
    */
   public static Map<String, Double> depreciationRateByMake(List<CarPricePOJO> cars, int currentYear) {
-    return cars.stream()
-            .filter(car -> car.getYear() < currentYear)
-            .collect(Collectors.groupingBy(
+    return cars.stream().collect(depreciationRateByMakeCollector(currentYear));
+  }
+
+  /**
+   * Collector behind {@link #depreciationRateByMake}, for use in a fused or parallel pass.
+   */
+  public static Collector<CarPricePOJO, ?, Map<String, Double>> depreciationRateByMakeCollector(int currentYear) {
+    return Collectors.filtering(car -> car.getYear() < currentYear,
+            Collectors.groupingBy(
                     CarPricePOJO::getMake,
-                    Collectors.averagingDouble(car -> {
-                      int age = currentYear - car.getYear();
-                      return age > 0 ? (double) car.getSellingPrice() / age : 0;
-                    })
+                    averagingExactly(car -> valuePerYearOfAge(car, currentYear))
             ));
   }
 
+  static double valuePerYearOfAge(CarPricePOJO car, int currentYear) {
+    int age = currentYear - car.getYear();
+    return age > 0 ? (double) car.getSellingPrice() / age : 0;
+  }
+
   /**
    * Returns average selling price grouped by month to identify seasonal trends.
    */
   public static Map<Month, Double> averagePriceByMonth(List<CarPricePOJO> cars) {
-    return cars.stream()
-            .collect(Collectors.groupingBy(
-                    car -> car.getSaleDateTime().getMonth(),
-                    Collectors.averagingInt(CarPricePOJO::getSellingPrice)
-            ));
+    return cars.stream().collect(averagePriceByMonthCollector());
+  }
+
+  /**
+   * Collector behind {@link #averagePriceByMonth}, for use in a fused or parallel pass.
+   */
+  public static Collector<CarPricePOJO, ?, Map<Month, Double>> averagePriceByMonthCollector() {
+    return Collectors.groupingBy(
+            CarPricePOJO::getSaleMonth,
+            Collectors.averagingInt(CarPricePOJO::getSellingPrice)
+    );
   }
 
   /**
    * Returns average price grouped by 10k mile brackets to show depreciation by mileage
    */
   public static Map<String, Double> priceByMileageBracket(List<CarPricePOJO> cars) {
-    return cars.stream()
-            .filter(car -> car.getOdometer() > 0)
-            .collect(Collectors.groupingBy(
-                    car -> {
-                      int bracket = (car.getOdometer() / 10000) * 10;
-                      return bracket + "k-" + (bracket + 10) + "k miles";
-                    },
+    return cars.stream().collect(priceByMileageBracketCollector());
+  }
+
+  /**
+   * Collector behind {@link #priceByMileageBracket}, for use in a fused or parallel pass.
+   */
+  public static Collector<CarPricePOJO, ?, Map<String, Double>> priceByMileageBracketCollector() {
+    return Collectors.filtering(car -> car.getOdometer() > 0,
+            Collectors.groupingBy(
+                    car -> mileageBracket(car.getOdometer()),
                     Collectors.averagingInt(CarPricePOJO::getSellingPrice)
             ));
   }
 
+  static String mileageBracket(int odometer) {
+    int bracket = (odometer / 10000) * 10;
+    return bracket + "k-" + (bracket + 10) + "k miles";
+  }
+
   /**
    * Returns price statistics grouped by condition rating to show savings for lower condition
    */
   public static Map<Integer, DoubleSummaryStatistics> priceStatsByCondition(List<CarPricePOJO> cars) {
-    return cars.stream()
-            .collect(Collectors.groupingBy(
-                    CarPricePOJO::getCondition,
-                    TreeMap::new,
-                    Collectors.summarizingDouble(CarPricePOJO::getSellingPrice)
-            ));
+    return cars.stream().collect(priceStatsByConditionCollector());
+  }
+
+  /**
+   * Collector behind {@link #priceStatsByCondition}, for use in a fused or parallel pass.
+   */
+  public static Collector<CarPricePOJO, ?, Map<Integer, DoubleSummaryStatistics>> priceStatsByConditionCollector() {
+    return Collectors.groupingBy(
+            CarPricePOJO::getCondition,
+            TreeMap::new,
+            Collectors.summarizingDouble(CarPricePOJO::getSellingPrice)
+    );
   }
 
   /**
@@ -236,9 +368,16 @@ public class CarAnalytics {
    */
   public static Map<String, Map<String, Double>> regionalPriceByModel(
           List<CarPricePOJO> cars, List<String> topModels) {
-    return cars.stream()
-            .filter(car -> topModels.contains(car.getMakeModelKey()))
-            .collect(Collectors.groupingBy(
+    return cars.stream().collect(regionalPriceByModelCollector(topModels));
+  }
+
+  /**
+   * Collector behind {@link #regionalPriceByModel}, for use in a fused or parallel pass.
+   */
+  public static Collector<CarPricePOJO, ?, Map<String, Map<String, Double>>> regionalPriceByModelCollector(
+          List<String> topModels) {
+    return Collectors.filtering(car -> topModels.contains(car.getMakeModelKey()),
+            Collectors.groupingBy(
                     CarPricePOJO::getMakeModelKey,
                     Collectors.groupingBy(
                             CarPricePOJO::getState,
@@ -246,22 +385,67 @@ public class CarAnalytics {
                     )
             ));
   }
-  
+
+  /**
+   * Returns average prices by state for the top N make-models by volume, the same result as
+   * {@link #regionalPriceByModel} with the models of {@link #topMakeModelsByVolume}, in one pass.
+   */
+  public static Collector<CarPricePOJO, ?, Map<String, Map<String, Double>>> regionalPriceForTopModelsCollector(
+          int topN) {
+    // Groups are kept in first-seen order so the finisher can rebuild the map the two-pass
+    // version would have built, insertion order included.
+    Collector<CarPricePOJO, ?, Map<String, Map<String, Double>>> allModels = Collectors.groupingBy(
+            CarPricePOJO::getMakeModelKey,
+            LinkedHashMap::new,
+            Collectors.groupingBy(
+                    CarPricePOJO::getState,
+                    Collectors.averagingInt(CarPricePOJO::getSellingPrice)
+            ));
+    Collector<CarPricePOJO, ?, Map<String, Long>> volumes = Collectors.groupingBy(
+            CarPricePOJO::getMakeModelKey,
+            Collectors.counting());
+    return Collectors.teeing(allModels, volumes, (regional, volume) -> regionalForTopModels(regional, volume, topN));
+  }
+
+  /**
+   * Keeps the regional prices of the top N models by volume; {@code regional} must iterate in
+   * first-seen order.
+   */
+  static Map<String, Map<String, Double>> regionalForTopModels(Map<String, Map<String, Double>> regional,
+                                                              Map<String, Long> volume, int topN) {
+    Set<String> topModels = new HashSet<>();
+    topByValue(volume, topN).forEach(entry -> topModels.add(entry.getKey()));
+    Map<String, Map<String, Double>> result = new HashMap<>();
+    regional.forEach((model, byState) -> {
+      if (topModels.contains(model)) {
+        result.put(model, byState);
+      }
+    });
+    return result;
+  }
 
   /**
    * Average markup percentage (above/below MMR) by seller
    */
   public static Map<String, Double> sellerMarkupPercentage(List<CarPricePOJO> cars) {
-    return cars.stream()
-            .filter(car -> car.getMmr() > 0)
-            .collect(Collectors.groupingBy(
+    return cars.stream().collect(sellerMarkupPercentageCollector());
+  }
+
+  /**
+   * Collector behind {@link #sellerMarkupPercentage}, for use in a fused or parallel pass.
+   */
+  public static Collector<CarPricePOJO, ?, Map<String, Double>> sellerMarkupPercentageCollector() {
+    return Collectors.filtering(car -> car.getMmr() > 0,
+            Collectors.groupingBy(
                     CarPricePOJO::getSeller,
-                    Collectors.averagingDouble(car ->
-                            ((double)(car.getSellingPrice() - car.getMmr()) / car.getMmr()) * 100
-                    )
+                    averagingExactly(CarAnalytics::markupPercent)
             ));
   }
 
+  static double markupPercent(CarPricePOJO car) {
+    return ((double)(car.getSellingPrice() - car.getMmr()) / car.getMmr()) * 100;
+  }
+
 
   /**
    * Returns top N make-models ranked by profitability score combining volume and profit margin.
@@ -287,25 +471,28 @@ public class CarAnalytics {
   }
 
   public static List<InventoryMetrics> inventoryProfitabilityRanking(List<CarPricePOJO> cars, int topN) {
-    Map<String, Long> volumeMap = cars.stream()
-            .filter(car -> car.getMmr() > 0)
-            .collect(Collectors.groupingBy(
-                    CarPricePOJO::getMakeModelKey,
-                    Collectors.counting()
-            ));
+    return cars.stream().collect(inventoryProfitabilityRankingCollector(topN));
+  }
 
-    Map<String, Double> profitMap = cars.stream()
-            .filter(car -> car.getMmr() > 0)
-            .collect(Collectors.groupingBy(
-                    CarPricePOJO::getMakeModelKey,
-                    Collectors.averagingDouble(CarPricePOJO::getPriceDeltaFromMmr)
-            ));
+  /**
+   * Volume and average profit come from one summary per make-model instead of two group-bys.
+   */
+  public static Collector<CarPricePOJO, ?, List<InventoryMetrics>> inventoryProfitabilityRankingCollector(int topN) {
+    return Collectors.filtering(car -> car.getMmr() > 0,
+            Collectors.collectingAndThen(
+                    Collectors.groupingBy(
+                            CarPricePOJO::getMakeModelKey,
+                            Collectors.summarizingDouble(CarPricePOJO::getPriceDeltaFromMmr)
+                    ),
+                    profits -> rankInventory(profits, topN)));
+  }
 
-    return volumeMap.keySet().stream()
-            .map(makeModel -> new InventoryMetrics(
-                    makeModel,
-                    volumeMap.get(makeModel),
-                    profitMap.getOrDefault(makeModel, 0.0)
+  static List<InventoryMetrics> rankInventory(Map<String, DoubleSummaryStatistics> profits, int topN) {
+    return profits.entrySet().stream()
+            .map(entry -> new InventoryMetrics(
+                    entry.getKey(),
+                    entry.getValue().getCount(),
+                    entry.getValue().getAverage()
             ))
             .sorted(Comparator.comparingDouble(m -> -m.profitabilityScore))
             .limit(topN)
@@ -313,6 +500,19 @@ public class CarAnalytics {
   }
 
 
+  /**
+   * Like {@link Collectors#averagingDouble} but with an exactly rounded sum, so the result does not
+   * depend on the order rows are visited or on how partial results are merged.
+   */
+  static <T> Collector<T, ?, Double> averagingExactly(ToDoubleFunction<? super T> mapper) {
+    return Collector.of(
+            ExactSum::new,
+            (sum, item) -> sum.add(mapper.applyAsDouble(item)),
+            ExactSum::combine,
+            ExactSum::getAverage
+    );
+  }
+
   /**
    * HELPER: Format price with commas
    */
@@ -330,4 +530,4 @@ public class CarAnalytics {
             formatPrice(stats.getMax()),
             stats.getCount());
   }
-}
\ No newline at end of file
+}
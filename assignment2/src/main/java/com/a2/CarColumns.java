@@ -0,0 +1,431 @@
+package com.a2;
+
+import java.time.YearMonth;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Column-oriented, read-only copy of the car dataset. Numeric fields are {@code int[]} columns,
+ * text fields are {@code int[]} columns of {@link CarDictionaries} codes, and VINs are kept as
+ * Strings. A derived column holds a code for each make-model pair. Scans over one column read
+ * contiguous memory instead of following a pointer per record; {@link ColumnarAnalytics} runs the
+ * {@link CarAnalytics} reports on it.
+ *
+ * <p>The arrays returned by the package-private column accessors are shared, not copied.
+ */
+public class CarColumns {
+
+  private final int size;
+  private final CarDictionaries dictionaries;
+  private final StringDictionary makeModels;
+  private final int[] year;
+  private final int[] make;
+  private final int[] model;
+  private final int[] trim;
+  private final int[] body;
+  private final int[] transmission;
+  private final String[] vin;
+  private final int[] state;
+  private final int[] condition;
+  private final int[] odometer;
+  private final int[] color;
+  private final int[] interior;
+  private final int[] seller;
+  private final int[] mmr;
+  private final int[] sellingPrice;
+  private final int[] saleEpochDay;
+  private final int[] saleSecondOfDay;
+  private final int[] makeModel;
+
+  static final int INT_COLUMN_COUNT = 17;
+
+  private CarColumns(Builder b, CarDictionaries dictionaries) {
+    this.size = b.size;
+    this.dictionaries = dictionaries;
+    this.year = b.year;
+    this.make = b.make;
+    this.model = b.model;
+    this.trim = b.trim;
+    this.body = b.body;
+    this.transmission = b.transmission;
+    this.vin = b.vin;
+    this.state = b.state;
+    this.condition = b.condition;
+    this.odometer = b.odometer;
+    this.color = b.color;
+    this.interior = b.interior;
+    this.seller = b.seller;
+    this.mmr = b.mmr;
+    this.sellingPrice = b.sellingPrice;
+    this.saleEpochDay = b.saleEpochDay;
+    this.saleSecondOfDay = b.saleSecondOfDay;
+
+    this.makeModels = new StringDictionary();
+    this.makeModel = new int[size];
+    StringBuilder key = new StringBuilder();
+    for (int i = 0; i < size; i++) {
+      key.setLength(0);
+      key.append(dictionaries.make().value(make[i])).append(' ').append(dictionaries.model().value(model[i]));
+      makeModel[i] = makeModels.intern(key);
+    }
+  }
+
+  /**
+   * Wraps finished columns without copying them. The int columns come in {@link #intColumns()}
+   * order and must all have {@code vin.length} entries.
+   */
+  CarColumns(CarDictionaries dictionaries, StringDictionary makeModels, int[][] columns, String[] vin) {
+    if (columns.length != INT_COLUMN_COUNT) {
+      throw new IllegalArgumentException("Expected " + INT_COLUMN_COUNT + " int columns, got " + columns.length);
+    }
+    for (int[] column : columns) {
+      if (column.length != vin.length) {
+        throw new IllegalArgumentException("Columns have different lengths");
+      }
+    }
+    this.size = vin.length;
+    this.dictionaries = dictionaries;
+    this.makeModels = makeModels;
+    this.year = columns[0];
+    this.make = columns[1];
+    this.model = columns[2];
+    this.trim = columns[3];
+    this.body = columns[4];
+    this.transmission = columns[5];
+    this.state = columns[6];
+    this.condition = columns[7];
+    this.odometer = columns[8];
+    this.color = columns[9];
+    this.interior = columns[10];
+    this.seller = columns[11];
+    this.mmr = columns[12];
+    this.sellingPrice = columns[13];
+    this.saleEpochDay = columns[14];
+    this.saleSecondOfDay = columns[15];
+    this.makeModel = columns[16];
+    this.vin = vin;
+  }
+
+  /**
+   * Builds columns from records, interning their text fields unchanged into new dictionaries.
+   */
+  public static CarColumns from(List<CarPricePOJO> cars) {
+    return from(cars, CarDictionaries.exact());
+  }
+
+  /**
+   * Builds columns from records, interning their text fields into the given dictionaries, whose
+   * normalizers apply.
+   */
+  public static CarColumns from(List<CarPricePOJO> cars, CarDictionaries dictionaries) {
+    Builder builder = new Builder();
+    for (CarPricePOJO car : cars) {
+      builder.add(
+              car.getYear(),
+              dictionaries.make().intern(car.getMake()),
+              dictionaries.model().intern(car.getModel()),
+              dictionaries.trim().intern(car.getTrim()),
+              dictionaries.body().intern(car.getBody()),
+              dictionaries.transmission().intern(car.getTransmission()),
+              car.getVin(),
+              dictionaries.state().intern(car.getState()),
+              car.getCondition(),
+              car.getOdometer(),
+              dictionaries.color().intern(car.getColor()),
+              dictionaries.interior().intern(car.getInterior()),
+              dictionaries.seller().intern(car.getSeller()),
+              car.getMmr(),
+              car.getSellingPrice(),
+              car.getSaleEpochSeconds());
+    }
+    return builder.build(dictionaries);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public CarDictionaries getDictionaries() {
+    return dictionaries;
+  }
+
+  /**
+   * Returns the dictionary of the derived make-model column, whose values read "make model".
+   */
+  public StringDictionary getMakeModels() {
+    return makeModels;
+  }
+
+  /**
+   * Materializes one row as a record; text fields use the shared dictionary Strings.
+   */
+  public CarPricePOJO row(int index) {
+    return new CarPricePOJO(
+            year[index],
+            dictionaries.make().value(make[index]),
+            dictionaries.model().value(model[index]),
+            dictionaries.trim().value(trim[index]),
+            dictionaries.body().value(body[index]),
+            dictionaries.transmission().value(transmission[index]),
+            vin[index],
+            dictionaries.state().value(state[index]),
+            condition[index],
+            odometer[index],
+            dictionaries.color().value(color[index]),
+            dictionaries.interior().value(interior[index]),
+            dictionaries.seller().value(seller[index]),
+            mmr[index],
+            sellingPrice[index],
+            saleEpochDay[index] * (long) SaleDateParser.SECONDS_PER_DAY + saleSecondOfDay[index]);
+  }
+
+  /**
+   * Returns a read-only list view that creates a record for a row each time it is read, for code
+   * that still needs {@code List<CarPricePOJO>}.
+   */
+  public List<CarPricePOJO> asRows() {
+    return new RowView();
+  }
+
+  /**
+   * Returns the year-month of a row's sale date.
+   */
+  public YearMonth saleYearMonth(int index) {
+    return SaleDateParser.yearMonthOf(SaleDateParser.epochMonth(saleEpochDay[index]));
+  }
+
+  /**
+   * Returns every int column, in the order year, make, model, trim, body, transmission, state,
+   * condition, odometer, color, interior, seller, mmr, selling price, sale epoch day, sale second
+   * of day and make-model.
+   */
+  int[][] intColumns() {
+    return new int[][] {
+            year, make, model, trim, body, transmission, state, condition, odometer,
+            color, interior, seller, mmr, sellingPrice, saleEpochDay, saleSecondOfDay, makeModel
+    };
+  }
+
+  int[] year() {
+    return year;
+  }
+
+  int[] make() {
+    return make;
+  }
+
+  int[] model() {
+    return model;
+  }
+
+  int[] trim() {
+    return trim;
+  }
+
+  int[] body() {
+    return body;
+  }
+
+  int[] transmission() {
+    return transmission;
+  }
+
+  String[] vin() {
+    return vin;
+  }
+
+  int[] state() {
+    return state;
+  }
+
+  int[] condition() {
+    return condition;
+  }
+
+  int[] odometer() {
+    return odometer;
+  }
+
+  int[] color() {
+    return color;
+  }
+
+  int[] interior() {
+    return interior;
+  }
+
+  int[] seller() {
+    return seller;
+  }
+
+  int[] mmr() {
+    return mmr;
+  }
+
+  int[] sellingPrice() {
+    return sellingPrice;
+  }
+
+  int[] saleEpochDay() {
+    return saleEpochDay;
+  }
+
+  int[] saleSecondOfDay() {
+    return saleSecondOfDay;
+  }
+
+  int[] makeModel() {
+    return makeModel;
+  }
+
+  private final class RowView extends AbstractList<CarPricePOJO> implements RandomAccess {
+    @Override
+    public CarPricePOJO get(int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+      }
+      return row(index);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+
+  /**
+   * Growable column buffers that rows are appended to while loading.
+   */
+  static final class Builder {
+    private int size;
+    private int[] year = new int[1024];
+    private int[] make = new int[1024];
+    private int[] model = new int[1024];
+    private int[] trim = new int[1024];
+    private int[] body = new int[1024];
+    private int[] transmission = new int[1024];
+    private String[] vin = new String[1024];
+    private int[] state = new int[1024];
+    private int[] condition = new int[1024];
+    private int[] odometer = new int[1024];
+    private int[] color = new int[1024];
+    private int[] interior = new int[1024];
+    private int[] seller = new int[1024];
+    private int[] mmr = new int[1024];
+    private int[] sellingPrice = new int[1024];
+    private int[] saleEpochDay = new int[1024];
+    private int[] saleSecondOfDay = new int[1024];
+
+    void add(int year, int make, int model, int trim, int body, int transmission, String vin,
+             int state, int condition, int odometer, int color, int interior, int seller,
+             int mmr, int sellingPrice, long saleEpochSeconds) {
+      ensureCapacity(size + 1);
+      int i = size++;
+      this.year[i] = year;
+      this.make[i] = make;
+      this.model[i] = model;
+      this.trim[i] = trim;
+      this.body[i] = body;
+      this.transmission[i] = transmission;
+      this.vin[i] = vin;
+      this.state[i] = state;
+      this.condition[i] = condition;
+      this.odometer[i] = odometer;
+      this.color[i] = color;
+      this.interior[i] = interior;
+      this.seller[i] = seller;
+      this.mmr[i] = mmr;
+      this.sellingPrice[i] = sellingPrice;
+      this.saleEpochDay[i] = SaleDateParser.epochDay(saleEpochSeconds);
+      this.saleSecondOfDay[i] = SaleDateParser.secondOfDay(saleEpochSeconds);
+    }
+
+    /**
+     * Appends every row of other after the rows of this builder and returns this builder.
+     */
+    Builder appendAll(Builder other) {
+      ensureCapacity(size + other.size);
+      int n = other.size;
+      System.arraycopy(other.year, 0, year, size, n);
+      System.arraycopy(other.make, 0, make, size, n);
+      System.arraycopy(other.model, 0, model, size, n);
+      System.arraycopy(other.trim, 0, trim, size, n);
+      System.arraycopy(other.body, 0, body, size, n);
+      System.arraycopy(other.transmission, 0, transmission, size, n);
+      System.arraycopy(other.vin, 0, vin, size, n);
+      System.arraycopy(other.state, 0, state, size, n);
+      System.arraycopy(other.condition, 0, condition, size, n);
+      System.arraycopy(other.odometer, 0, odometer, size, n);
+      System.arraycopy(other.color, 0, color, size, n);
+      System.arraycopy(other.interior, 0, interior, size, n);
+      System.arraycopy(other.seller, 0, seller, size, n);
+      System.arraycopy(other.mmr, 0, mmr, size, n);
+      System.arraycopy(other.sellingPrice, 0, sellingPrice, size, n);
+      System.arraycopy(other.saleEpochDay, 0, saleEpochDay, size, n);
+      System.arraycopy(other.saleSecondOfDay, 0, saleSecondOfDay, size, n);
+      size += n;
+      return this;
+    }
+
+    /**
+     * Trims the buffers to the row count and hands them to a new store; the builder must not be
+     * used afterwards. Buffers that are already full are adopted, and the others are trimmed one
+     * at a time with the oversized one dropped before the next copy, so at most one column is
+     * ever held twice.
+     */
+    CarColumns build(CarDictionaries dictionaries) {
+      year = trimmed(year);
+      make = trimmed(make);
+      model = trimmed(model);
+      trim = trimmed(trim);
+      body = trimmed(body);
+      transmission = trimmed(transmission);
+      vin = trimmed(vin);
+      state = trimmed(state);
+      condition = trimmed(condition);
+      odometer = trimmed(odometer);
+      color = trimmed(color);
+      interior = trimmed(interior);
+      seller = trimmed(seller);
+      mmr = trimmed(mmr);
+      sellingPrice = trimmed(sellingPrice);
+      saleEpochDay = trimmed(saleEpochDay);
+      saleSecondOfDay = trimmed(saleSecondOfDay);
+      return new CarColumns(this, dictionaries);
+    }
+
+    private int[] trimmed(int[] column) {
+      return column.length == size ? column : Arrays.copyOf(column, size);
+    }
+
+    private String[] trimmed(String[] column) {
+      return column.length == size ? column : Arrays.copyOf(column, size);
+    }
+
+    private void ensureCapacity(int needed) {
+      if (needed <= year.length) {
+        return;
+      }
+      int capacity = Math.max(needed, year.length * 2);
+      year = Arrays.copyOf(year, capacity);
+      make = Arrays.copyOf(make, capacity);
+      model = Arrays.copyOf(model, capacity);
+      trim = Arrays.copyOf(trim, capacity);
+      body = Arrays.copyOf(body, capacity);
+      transmission = Arrays.copyOf(transmission, capacity);
+      vin = Arrays.copyOf(vin, capacity);
+      state = Arrays.copyOf(state, capacity);
+      condition = Arrays.copyOf(condition, capacity);
+      odometer = Arrays.copyOf(odometer, capacity);
+      color = Arrays.copyOf(color, capacity);
+      interior = Arrays.copyOf(interior, capacity);
+      seller = Arrays.copyOf(seller, capacity);
+      mmr = Arrays.copyOf(mmr, capacity);
+      sellingPrice = Arrays.copyOf(sellingPrice, capacity);
+      saleEpochDay = Arrays.copyOf(saleEpochDay, capacity);
+      saleSecondOfDay = Arrays.copyOf(saleSecondOfDay, capacity);
+    }
+  }
+}
@@ -2,10 +2,9 @@ package com.a2;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -14,45 +13,171 @@ import java.util.stream.Stream;
  */
 public class CarCsvLoader {
 
-  private static final DateTimeFormatter SALEDATE_FORMATTER =
-          DateTimeFormatter.ofPattern("EEE MMM dd yyyy HH:mm:ss", Locale.ENGLISH);
+  // Parsing reuses one tokenizer per thread, so even a parallel stream allocates no offset arrays per row.
+  private final ThreadLocal<CsvTokenizer> tokenizers = ThreadLocal.withInitial(CsvTokenizer::new);
+  private final CarDictionaries dictionaries;
+
+  public CarCsvLoader() {
+    this(new CarDictionaries());
+  }
+
+  /**
+   * Creates a loader that interns text columns into the given dictionaries, so several loaders
+   * or loads share one String instance and code per distinct value.
+   */
+  public CarCsvLoader(CarDictionaries dictionaries) {
+    this.dictionaries = dictionaries;
+  }
+
+  /**
+   * Returns the dictionaries the text columns of every loaded record are interned into.
+   */
+  public CarDictionaries getDictionaries() {
+    return dictionaries;
+  }
 
   public List<CarPricePOJO> load(Path csvPath) throws IOException {
-    try (Stream<String> lines = Files.lines(csvPath)) {
-      return lines
-              .skip(1)
-              .filter(line -> !line.isBlank())
-              .map(this::parseLine)
-              .collect(Collectors.toList());
+    try (Stream<CarPricePOJO> cars = stream(csvPath)) {
+      return cars.collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * Loads the file on all cores of the common fork-join pool. The file is memory-mapped and split
+   * into newline-aligned chunks that are parsed independently; rows come back in file order, so the
+   * result equals {@link #load(Path)}.
+   */
+  public List<CarPricePOJO> loadParallel(Path csvPath) throws IOException {
+    return loadParallel(csvPath, ParallelCsvLoad.DEFAULT_CHUNK_BYTES);
+  }
+
+  List<CarPricePOJO> loadParallel(Path csvPath, int chunkBytes) throws IOException {
+    ParallelCsvLoad<List<CarPricePOJO>> load = new ParallelCsvLoad<>(
+            ArrayList::new,
+            (tokenizer, text, from, to, rows) -> rows.add(parseLine(tokenizer, text, from, to)),
+            (left, right) -> {
+              left.addAll(right);
+              return left;
+            });
+    return load.load(csvPath, chunkBytes);
+  }
+
+  /**
+   * Loads the file in parallel straight into a columnar store, without creating a record per row.
+   * Text columns are stored as codes of this loader's dictionaries.
+   */
+  public CarColumns loadColumns(Path csvPath) throws IOException {
+    return loadColumns(csvPath, ParallelCsvLoad.DEFAULT_CHUNK_BYTES);
+  }
+
+  CarColumns loadColumns(Path csvPath, int chunkBytes) throws IOException {
+    ParallelCsvLoad<CarColumns.Builder> load = new ParallelCsvLoad<>(
+            CarColumns.Builder::new,
+            this::parseColumns,
+            CarColumns.Builder::appendAll);
+    return load.load(csvPath, chunkBytes).build(dictionaries);
+  }
+
+  /**
+   * Parses the lines in bytes {@code [from, to)} of the file in parallel into report aggregates;
+   * {@code from} must be the start of a line.
+   */
+  ReportAggregates loadAggregates(Path csvPath, long from, long to) throws IOException {
+    ParallelCsvLoad<ReportAggregates> load = new ParallelCsvLoad<>(
+            ReportAggregates::new,
+            (tokenizer, text, lineFrom, lineTo, aggregates) ->
+                    aggregates.add(parseLine(tokenizer, text, lineFrom, lineTo)),
+            ReportAggregates::merge);
+    return load.load(csvPath, from, to, ParallelCsvLoad.DEFAULT_CHUNK_BYTES);
+  }
+
+  /**
+   * Like {@link #loadColumns(Path)}, but keeps a binary snapshot of the columns next to the CSV, in
+   * {@code <csv name>.snapshot}. The snapshot is used instead of parsing when it is at least as new
+   * as the CSV and was built from a CSV of the same size; otherwise the CSV is parsed and the
+   * snapshot rewritten.
+   */
+  public CarColumns loadColumnsCached(Path csvPath) throws IOException {
+    return loadColumnsCached(csvPath, csvPath.resolveSibling(csvPath.getFileName() + ".snapshot"));
+  }
+
+  public CarColumns loadColumnsCached(Path csvPath, Path snapshotPath) throws IOException {
+    long csvSize = Files.size(csvPath);
+    if (Files.exists(snapshotPath)
+            && Files.getLastModifiedTime(snapshotPath).compareTo(Files.getLastModifiedTime(csvPath)) >= 0) {
+      try {
+        return CarSnapshot.read(snapshotPath, dictionaries, csvSize);
+      } catch (IOException e) {
+        // A stale or damaged snapshot is rebuilt from the CSV below.
+      }
+    }
+    CarColumns columns = loadColumns(csvPath);
+    try {
+      CarSnapshot.write(columns, csvSize, snapshotPath);
+    } catch (IOException e) {
+      // Without a snapshot the next run parses the CSV again; the load itself succeeded.
+      System.err.println("Warning: could not write snapshot " + snapshotPath + ": " + e.getMessage());
+    }
+    return columns;
+  }
+
+  /**
+   * Returns the rows as a lazily parsed stream, so only the rows in flight are held in memory.
+   * The stream keeps the file open and must be closed, e.g. with try-with-resources.
+   */
+  public Stream<CarPricePOJO> stream(Path csvPath) throws IOException {
+    return Files.lines(csvPath)
+            .skip(1)
+            .filter(line -> !line.isBlank())
+            .map(this::parseLine);
+  }
+
+  /**
+   * Parses the file row by row, handing each row to the callback, and closes the file afterwards.
+   * Returns the number of rows read.
+   */
+  public long forEach(Path csvPath, Consumer<? super CarPricePOJO> callback) throws IOException {
+    try (Stream<CarPricePOJO> cars = stream(csvPath)) {
+      long[] count = new long[1];
+      cars.forEach(car -> {
+        callback.accept(car);
+        count[0]++;
+      });
+      return count[0];
     }
   }
 
 
   private CarPricePOJO parseLine(String line) {
-    String[] parts = line.split(",", -1);
-    if (parts.length != 16) {
-      throw new IllegalArgumentException("Invalid CSV line (expected 16 columns): " + line);
+    return parseLine(tokenizers.get(), line, 0, line.length());
+  }
+
+  /**
+   * Builds a record from one CSV line. Numeric columns are parsed straight from the line and
+   * low-cardinality text columns are interned, so a String is only created per row for the VIN.
+   */
+  CarPricePOJO parseLine(CsvTokenizer tokenizer, CharSequence text, int from, int to) {
+    if (tokenizer.tokenize(text, from, to) != 16) {
+      throw new IllegalArgumentException("Invalid CSV line (expected 16 columns): " + text.subSequence(from, to));
     }
 
     int index = 0;
-    int year = parseIntSafe(parts[index++]);
-    String make = parts[index++].trim();
-    String model = parts[index++].trim();
-    String trim = parts[index++].trim();
-    String body = normalizeBodyStyle(parts[index++].trim());
-    String transmission = parts[index++].trim();
-    String vin = parts[index++].trim();
-    String state = parts[index++].trim();
-    int condition = parseIntSafe(parts[index++]);
-    int odometer = parseIntSafe(parts[index++]);
-    String color = parts[index++].trim();
-    String interior = parts[index++].trim();
-    String seller = parts[index++].trim();
-    int mmr = parseIntSafe(parts[index++]);
-    int sellingPrice = parseIntSafe(parts[index++]);
-    String saledateRaw = parts[index].trim();
-
-    LocalDateTime saleDateTime = parseSaleDateTimeSafe(saledateRaw);
+    int year = tokenizer.parseInt(index++);
+    String make = interned(dictionaries.make(), tokenizer, text, index++);
+    String model = interned(dictionaries.model(), tokenizer, text, index++);
+    String trim = interned(dictionaries.trim(), tokenizer, text, index++);
+    String body = interned(dictionaries.body(), tokenizer, text, index++);
+    String transmission = interned(dictionaries.transmission(), tokenizer, text, index++);
+    String vin = tokenizer.text(index++);
+    String state = interned(dictionaries.state(), tokenizer, text, index++);
+    int condition = tokenizer.parseInt(index++);
+    int odometer = tokenizer.parseInt(index++);
+    String color = interned(dictionaries.color(), tokenizer, text, index++);
+    String interior = interned(dictionaries.interior(), tokenizer, text, index++);
+    String seller = interned(dictionaries.seller(), tokenizer, text, index++);
+    int mmr = tokenizer.parseInt(index++);
+    int sellingPrice = tokenizer.parseInt(index++);
+    long saleEpochSeconds = SaleDateParser.parseEpochSeconds(text, tokenizer.start(index), tokenizer.end(index));
 
     return new CarPricePOJO(
             year,
@@ -70,11 +195,52 @@ public class CarCsvLoader {
             seller,
             mmr,
             sellingPrice,
-            saleDateTime
+            saleEpochSeconds
     );
   }
 
-  private String normalizeBodyStyle(String body) {
+  /**
+   * Appends one CSV line to a column builder, storing text columns as dictionary codes.
+   */
+  void parseColumns(CsvTokenizer tokenizer, CharSequence text, int from, int to, CarColumns.Builder columns) {
+    if (tokenizer.tokenize(text, from, to) != 16) {
+      throw new IllegalArgumentException("Invalid CSV line (expected 16 columns): " + text.subSequence(from, to));
+    }
+    columns.add(
+            tokenizer.parseInt(0),
+            code(dictionaries.make(), tokenizer, text, 1),
+            code(dictionaries.model(), tokenizer, text, 2),
+            code(dictionaries.trim(), tokenizer, text, 3),
+            code(dictionaries.body(), tokenizer, text, 4),
+            code(dictionaries.transmission(), tokenizer, text, 5),
+            tokenizer.text(6),
+            code(dictionaries.state(), tokenizer, text, 7),
+            tokenizer.parseInt(8),
+            tokenizer.parseInt(9),
+            code(dictionaries.color(), tokenizer, text, 10),
+            code(dictionaries.interior(), tokenizer, text, 11),
+            code(dictionaries.seller(), tokenizer, text, 12),
+            tokenizer.parseInt(13),
+            tokenizer.parseInt(14),
+            SaleDateParser.parseEpochSeconds(text, tokenizer.start(15), tokenizer.end(15)));
+  }
+
+  private static String interned(StringDictionary dictionary, CsvTokenizer tokenizer,
+                                 CharSequence text, int field) {
+    return dictionary.value(code(dictionary, tokenizer, text, field));
+  }
+
+  /**
+   * Returns the dictionary code of a field, reading it in place unless it contains escaped quotes.
+   */
+  static int code(StringDictionary dictionary, CsvTokenizer tokenizer, CharSequence text, int field) {
+    if (tokenizer.hasEscapedQuotes(field)) {
+      return dictionary.intern(tokenizer.text(field));
+    }
+    return dictionary.intern(text, tokenizer.start(field), tokenizer.end(field));
+  }
+
+  static String normalizeBodyStyle(String body) {
     if (body == null || body.isEmpty()) {
       return "Unknown";
     }
@@ -82,7 +248,7 @@ public class CarCsvLoader {
   }
 
 
-  private String toTitleCase(String text) {
+  private static String toTitleCase(String text) {
     if (text == null || text.isEmpty()) {
       return text;
     }
@@ -104,17 +270,4 @@ public class CarCsvLoader {
 
     return result.toString();
   }
-
-  private int parseIntSafe(String s) {
-    String trimmed = s.trim();
-    return trimmed.isEmpty() || trimmed.equals("—")
-            ? 0
-            : Integer.parseInt(trimmed);
-  }
-
-  private LocalDateTime parseSaleDateTimeSafe(String s) {
-    return s == null || s.length() < 24
-            ? LocalDateTime.of(1970, 1, 1, 0, 0)
-            : LocalDateTime.parse(s.substring(0, 24), SALEDATE_FORMATTER);
-  }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package com.a2;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * One {@link StringDictionary} per low-cardinality text column of the car dataset. Sharing an
+ * instance between loads makes the same value map to the same code and String in every load.
+ * VINs are unique per car and are not interned.
+ */
+public class CarDictionaries {
+
+  private final StringDictionary make = new StringDictionary();
+  private final StringDictionary model = new StringDictionary();
+  private final StringDictionary trim = new StringDictionary();
+  private final StringDictionary body;
+  private final StringDictionary transmission = new StringDictionary();
+  private final StringDictionary state = new StringDictionary();
+  private final StringDictionary color = new StringDictionary();
+  private final StringDictionary interior = new StringDictionary();
+  private final StringDictionary seller = new StringDictionary();
+
+  /**
+   * Creates dictionaries that normalize body styles the way {@link CarCsvLoader} does.
+   */
+  public CarDictionaries() {
+    this(CarCsvLoader::normalizeBodyStyle);
+  }
+
+  private CarDictionaries(UnaryOperator<String> bodyNormalizer) {
+    this.body = new StringDictionary(bodyNormalizer);
+  }
+
+  /**
+   * Creates dictionaries that store every value exactly as given, for records that did not come
+   * from the loader.
+   */
+  public static CarDictionaries exact() {
+    return new CarDictionaries(UnaryOperator.identity());
+  }
+
+  public StringDictionary make() {
+    return make;
+  }
+
+  public StringDictionary model() {
+    return model;
+  }
+
+  public StringDictionary trim() {
+    return trim;
+  }
+
+  /**
+   * Body styles are stored title-cased, with a blank body stored as "Unknown".
+   */
+  public StringDictionary body() {
+    return body;
+  }
+
+  public StringDictionary transmission() {
+    return transmission;
+  }
+
+  public StringDictionary state() {
+    return state;
+  }
+
+  public StringDictionary color() {
+    return color;
+  }
+
+  public StringDictionary interior() {
+    return interior;
+  }
+
+  public StringDictionary seller() {
+    return seller;
+  }
+
+  /**
+   * Returns the dictionaries in the order make, model, trim, body, transmission, state, color,
+   * interior, seller.
+   */
+  StringDictionary[] all() {
+    return new StringDictionary[] {make, model, trim, body, transmission, state, color, interior, seller};
+  }
+}
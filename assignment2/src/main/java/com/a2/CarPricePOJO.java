@@ -1,11 +1,16 @@
 package com.a2;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.YearMonth;
 
 /**
  * POJO containing car attributes (year, make, model, condition) and sale data (price, MMR, date, location) along with other data.
  */
-public class CarPricePOJO {
+public class CarPricePOJO implements Serializable {
+
+  private static final long serialVersionUID = 2L;
 
   private final int year;
   private final String make;
@@ -22,7 +27,8 @@ public class CarPricePOJO {
   private final String seller;
   private final int mmr;
   private final int sellingPrice;
-  private final LocalDateTime saleDateTime;
+  // Local sale time as seconds since 1970-01-01T00:00, see SaleDateParser.
+  private final long saleEpochSeconds;
 
   public CarPricePOJO (
           int year,
@@ -41,6 +47,31 @@ public class CarPricePOJO {
           int mmr,
           int sellingPrice,
           LocalDateTime saleDateTime
+  ) {
+    this(year, make, model, trim, body, transmission, vin, state, condition, odometer, color,
+            interior, seller, mmr, sellingPrice, SaleDateParser.toEpochSeconds(saleDateTime));
+  }
+
+  /**
+   * Creates a record whose sale date is given as seconds since 1970-01-01T00:00 local time.
+   */
+  public CarPricePOJO (
+          int year,
+          String make,
+          String model,
+          String trim,
+          String body,
+          String transmission,
+          String vin,
+          String state,
+          int condition,
+          int odometer,
+          String color,
+          String interior,
+          String seller,
+          int mmr,
+          int sellingPrice,
+          long saleEpochSeconds
   ) {
     this.year = year;
     this.make = make;
@@ -57,7 +88,7 @@ public class CarPricePOJO {
     this.seller = seller;
     this.mmr = mmr;
     this.sellingPrice = sellingPrice;
-    this.saleDateTime = saleDateTime;
+    this.saleEpochSeconds = saleEpochSeconds;
   }
 
   public int getYear() {
@@ -120,8 +151,32 @@ public class CarPricePOJO {
     return sellingPrice;
   }
 
+  /**
+   * Returns the sale date, created from the stored epoch seconds on each call.
+   */
   public LocalDateTime getSaleDateTime() {
-    return saleDateTime;
+    return SaleDateParser.toLocalDateTime(saleEpochSeconds);
+  }
+
+  /**
+   * Returns the local sale time as seconds since 1970-01-01T00:00.
+   */
+  public long getSaleEpochSeconds() {
+    return saleEpochSeconds;
+  }
+
+  /**
+   * Returns the year and month of the sale without creating a date.
+   */
+  public YearMonth getSaleYearMonth() {
+    return SaleDateParser.yearMonthOf(SaleDateParser.epochMonth(SaleDateParser.epochDay(saleEpochSeconds)));
+  }
+
+  /**
+   * Returns the month of the year of the sale without creating a date.
+   */
+  public Month getSaleMonth() {
+    return SaleDateParser.monthOf(SaleDateParser.epochMonth(SaleDateParser.epochDay(saleEpochSeconds)));
   }
 
   /**
@@ -157,7 +212,7 @@ public class CarPricePOJO {
             ", seller='" + seller + '\'' +
             ", mmr=" + mmr +
             ", sellingPrice=" + sellingPrice +
-            ", saleDateTime=" + saleDateTime +
+            ", saleDateTime=" + getSaleDateTime() +
             '}';
   }
 }
\ No newline at end of file
@@ -0,0 +1,252 @@
+package com.a2;
+
+import java.time.Month;
+import java.time.YearMonth;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Results of every report printed by {@link Main}, computed together in one pass with {@link FusedAggregator}.
+ */
+public class CarReport {
+
+  public static final double DEAL_THRESHOLD_PERCENT = 10.0;
+  public static final int CURRENT_YEAR = 2025;
+  public static final int TOP_N = 10;
+  public static final int REGIONAL_TOP_MODELS = 3;
+  public static final int INVENTORY_TOP_N = 15;
+
+  private final long recordCount;
+  private final double averageSellingPrice;
+  private final Map<String, Double> averageSellingPriceByMake;
+  private final Map<String, Double> averageSellingPriceByMakeModel;
+  private final Map<String, Long> salesCountByState;
+  private final Map<String, Double> averageOdometerByMake;
+  private final Map<String, DoubleSummaryStatistics> priceDeltaStatsByMake;
+  private final Map<Integer, Long> salesCountByYear;
+  private final Map<YearMonth, Double> averagePriceByYearMonth;
+  private final List<Map.Entry<String, Long>> topMakeModelsByVolume;
+  private final Map<String, Long> countByBody;
+  private final List<CarPricePOJO> bestDeals;
+  private final Map<String, Double> depreciationRateByMake;
+  private final Map<Month, Double> averagePriceByMonth;
+  private final Map<String, Double> priceByMileageBracket;
+  private final Map<Integer, DoubleSummaryStatistics> priceStatsByCondition;
+  private final Map<String, Map<String, Double>> regionalPriceByModel;
+  private final Map<String, Double> sellerMarkupPercentage;
+  private final List<CarAnalytics.InventoryMetrics> inventoryProfitabilityRanking;
+  private final Map<String, Long> salesCountByMake;
+
+  CarReport(long recordCount,
+            double averageSellingPrice,
+            Map<String, Double> averageSellingPriceByMake,
+            Map<String, Double> averageSellingPriceByMakeModel,
+            Map<String, Long> salesCountByState,
+            Map<String, Double> averageOdometerByMake,
+            Map<String, DoubleSummaryStatistics> priceDeltaStatsByMake,
+            Map<Integer, Long> salesCountByYear,
+            Map<YearMonth, Double> averagePriceByYearMonth,
+            List<Map.Entry<String, Long>> topMakeModelsByVolume,
+            Map<String, Long> countByBody,
+            List<CarPricePOJO> bestDeals,
+            Map<String, Double> depreciationRateByMake,
+            Map<Month, Double> averagePriceByMonth,
+            Map<String, Double> priceByMileageBracket,
+            Map<Integer, DoubleSummaryStatistics> priceStatsByCondition,
+            Map<String, Map<String, Double>> regionalPriceByModel,
+            Map<String, Double> sellerMarkupPercentage,
+            List<CarAnalytics.InventoryMetrics> inventoryProfitabilityRanking,
+            Map<String, Long> salesCountByMake) {
+    this.recordCount = recordCount;
+    this.averageSellingPrice = averageSellingPrice;
+    this.averageSellingPriceByMake = averageSellingPriceByMake;
+    this.averageSellingPriceByMakeModel = averageSellingPriceByMakeModel;
+    this.salesCountByState = salesCountByState;
+    this.averageOdometerByMake = averageOdometerByMake;
+    this.priceDeltaStatsByMake = priceDeltaStatsByMake;
+    this.salesCountByYear = salesCountByYear;
+    this.averagePriceByYearMonth = averagePriceByYearMonth;
+    this.topMakeModelsByVolume = topMakeModelsByVolume;
+    this.countByBody = countByBody;
+    this.bestDeals = bestDeals;
+    this.depreciationRateByMake = depreciationRateByMake;
+    this.averagePriceByMonth = averagePriceByMonth;
+    this.priceByMileageBracket = priceByMileageBracket;
+    this.priceStatsByCondition = priceStatsByCondition;
+    this.regionalPriceByModel = regionalPriceByModel;
+    this.sellerMarkupPercentage = sellerMarkupPercentage;
+    this.inventoryProfitabilityRanking = inventoryProfitabilityRanking;
+    this.salesCountByMake = salesCountByMake;
+  }
+
+  /**
+   * Computes every report with a single scan of the cars.
+   */
+  public static CarReport compute(Iterable<CarPricePOJO> cars) {
+    FusedAggregator<CarPricePOJO> fused = new FusedAggregator<>();
+    Supplier<CarReport> report = register(fused);
+    fused.run(cars);
+    return report.get();
+  }
+
+  /**
+   * Computes every report with one scan split across up to {@code parallelism} threads. The result
+   * is identical to {@link #compute(Iterable)}.
+   */
+  public static CarReport compute(List<CarPricePOJO> cars, int parallelism) {
+    FusedAggregator<CarPricePOJO> fused = new FusedAggregator<>();
+    Supplier<CarReport> report = register(fused);
+    fused.runParallel(cars, parallelism);
+    return report.get();
+  }
+
+  /**
+   * Registers every report with the given aggregator; the returned supplier assembles them once it has run.
+   */
+  static Supplier<CarReport> register(FusedAggregator<CarPricePOJO> fused) {
+    Supplier<Long> recordCount = fused.register(Collectors.counting());
+    Supplier<Double> averageSellingPrice = fused.register(CarAnalytics.averageSellingPriceCollector());
+    Supplier<Map<String, Double>> byMake = fused.register(CarAnalytics.averageSellingPriceByMakeCollector());
+    Supplier<Map<String, Double>> byMakeModel =
+            fused.register(CarAnalytics.averageSellingPriceByMakeModelCollector());
+    Supplier<Map<String, Long>> byState = fused.register(CarAnalytics.salesCountByStateCollector());
+    Supplier<Map<String, Double>> odometer = fused.register(CarAnalytics.averageOdometerByMakeCollector());
+    Supplier<Map<String, DoubleSummaryStatistics>> deltaStats =
+            fused.register(CarAnalytics.priceDeltaStatsByMakeCollector());
+    Supplier<Map<Integer, Long>> byYear = fused.register(CarAnalytics.salesCountByYearCollector());
+    Supplier<Map<YearMonth, Double>> byYearMonth =
+            fused.register(CarAnalytics.averagePriceByYearMonthCollector());
+    Supplier<List<Map.Entry<String, Long>>> topModels =
+            fused.register(CarAnalytics.topMakeModelsByVolumeCollector(TOP_N));
+    Supplier<Map<String, Long>> byBody = fused.register(CarAnalytics.countByBodyCollector());
+    Supplier<List<CarPricePOJO>> deals = fused.register(Collectors.collectingAndThen(
+            CarAnalytics.findBestDealsCollector(DEAL_THRESHOLD_PERCENT),
+            all -> List.copyOf(all.subList(0, Math.min(TOP_N, all.size())))));
+    Supplier<Map<String, Double>> depreciation =
+            fused.register(CarAnalytics.depreciationRateByMakeCollector(CURRENT_YEAR));
+    Supplier<Map<Month, Double>> byMonth = fused.register(CarAnalytics.averagePriceByMonthCollector());
+    Supplier<Map<String, Double>> mileage = fused.register(CarAnalytics.priceByMileageBracketCollector());
+    Supplier<Map<Integer, DoubleSummaryStatistics>> byCondition =
+            fused.register(CarAnalytics.priceStatsByConditionCollector());
+    Supplier<Map<String, Map<String, Double>>> regional =
+            fused.register(CarAnalytics.regionalPriceForTopModelsCollector(REGIONAL_TOP_MODELS));
+    Supplier<Map<String, Double>> markup = fused.register(CarAnalytics.sellerMarkupPercentageCollector());
+    Supplier<List<CarAnalytics.InventoryMetrics>> inventory =
+            fused.register(CarAnalytics.inventoryProfitabilityRankingCollector(INVENTORY_TOP_N));
+    Supplier<Map<String, Long>> byMakeCount = fused.register(CarAnalytics.salesCountByMakeCollector());
+
+    return () -> new CarReport(
+            recordCount.get(),
+            averageSellingPrice.get(),
+            byMake.get(),
+            byMakeModel.get(),
+            byState.get(),
+            odometer.get(),
+            deltaStats.get(),
+            byYear.get(),
+            byYearMonth.get(),
+            topModels.get(),
+            byBody.get(),
+            deals.get(),
+            depreciation.get(),
+            byMonth.get(),
+            mileage.get(),
+            byCondition.get(),
+            regional.get(),
+            markup.get(),
+            inventory.get(),
+            byMakeCount.get());
+  }
+
+  public long getRecordCount() {
+    return recordCount;
+  }
+
+  public double getAverageSellingPrice() {
+    return averageSellingPrice;
+  }
+
+  public Map<String, Double> getAverageSellingPriceByMake() {
+    return averageSellingPriceByMake;
+  }
+
+  public Map<String, Double> getAverageSellingPriceByMakeModel() {
+    return averageSellingPriceByMakeModel;
+  }
+
+  public Map<String, Long> getSalesCountByState() {
+    return salesCountByState;
+  }
+
+  public Map<String, Double> getAverageOdometerByMake() {
+    return averageOdometerByMake;
+  }
+
+  public Map<String, DoubleSummaryStatistics> getPriceDeltaStatsByMake() {
+    return priceDeltaStatsByMake;
+  }
+
+  public Map<Integer, Long> getSalesCountByYear() {
+    return salesCountByYear;
+  }
+
+  public Map<YearMonth, Double> getAveragePriceByYearMonth() {
+    return averagePriceByYearMonth;
+  }
+
+  /**
+   * The {@link #TOP_N} make-models by volume.
+   */
+  public List<Map.Entry<String, Long>> getTopMakeModelsByVolume() {
+    return topMakeModelsByVolume;
+  }
+
+  public Map<String, Long> getCountByBody() {
+    return countByBody;
+  }
+
+  /**
+   * The first {@link #TOP_N} deals at {@link #DEAL_THRESHOLD_PERCENT} or more below MMR, biggest saving first.
+   */
+  public List<CarPricePOJO> getBestDeals() {
+    return bestDeals;
+  }
+
+  public Map<String, Double> getDepreciationRateByMake() {
+    return depreciationRateByMake;
+  }
+
+  public Map<Month, Double> getAveragePriceByMonth() {
+    return averagePriceByMonth;
+  }
+
+  public Map<String, Double> getPriceByMileageBracket() {
+    return priceByMileageBracket;
+  }
+
+  public Map<Integer, DoubleSummaryStatistics> getPriceStatsByCondition() {
+    return priceStatsByCondition;
+  }
+
+  /**
+   * Average price by state for the {@link #REGIONAL_TOP_MODELS} make-models by volume.
+   */
+  public Map<String, Map<String, Double>> getRegionalPriceByModel() {
+    return regionalPriceByModel;
+  }
+
+  public Map<String, Double> getSellerMarkupPercentage() {
+    return sellerMarkupPercentage;
+  }
+
+  public List<CarAnalytics.InventoryMetrics> getInventoryProfitabilityRanking() {
+    return inventoryProfitabilityRanking;
+  }
+
+  public Map<String, Long> getSalesCountByMake() {
+    return salesCountByMake;
+  }
+}
@@ -0,0 +1,387 @@
+package com.a2;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of a {@link CarColumns} store, so a later run can skip parsing the CSV text.
+ * All numbers are little-endian:
+ *
+ * <pre>
+ * header   magic "A2CARSNP" (8 bytes), version (int), row count (int),
+ *          size of the CSV it was built from (long), CRC32 of everything after the header (long)
+ * dicts    the nine {@link CarDictionaries} in {@link CarDictionaries#all()} order, then the
+ *          make-model dictionary; each is a value count followed by (byte length, UTF-8 bytes)
+ * padding  zero bytes up to a multiple of 4
+ * columns  the {@link CarColumns#intColumns()}, row count ints each
+ * vins     per row, a UTF-8 byte length (-1 for null) followed by the bytes
+ * </pre>
+ *
+ * <p>Writing streams through a small buffer, and reading maps the file in windows, so a snapshot
+ * may be larger than one buffer or mapping. Reading bulk-copies each mapped column into an
+ * {@code int[]}, the representation {@link CarColumns} and {@link ColumnarAnalytics} work on;
+ * only the dictionary values and VINs are decoded. Dictionary codes are re-interned into the
+ * caller's dictionaries and remapped if they differ, so a snapshot can be loaded into
+ * dictionaries that already hold values.
+ */
+final class CarSnapshot {
+
+  static final long MAGIC = ByteBuffer.wrap("A2CARSNP".getBytes(StandardCharsets.US_ASCII))
+          .order(ByteOrder.LITTLE_ENDIAN).getLong();
+  static final int VERSION = 3;
+  static final int HEADER_BYTES = 32;
+
+  // Bytes mapped at a time when reading; a multiple of 4, so aligned ints never straddle windows.
+  static final int WINDOW_BYTES = 1 << 30;
+  private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+  // Position of each dictionary's code column in CarColumns.intColumns(); the last is make-model.
+  private static final int[] DICTIONARY_COLUMNS = {1, 2, 3, 4, 5, 6, 9, 10, 11, 16};
+
+  /**
+   * Writes the content of a file being replaced.
+   */
+  @FunctionalInterface
+  interface ChannelWriter {
+    void write(FileChannel channel) throws IOException;
+  }
+
+  private CarSnapshot() {
+  }
+
+  /**
+   * Writes the columns to a temporary file next to the snapshot and moves it into place, so a
+   * reader never sees a half-written snapshot.
+   */
+  static void write(CarColumns columns, long sourceSize, Path snapshotPath) throws IOException {
+    replaceAtomically(snapshotPath, channel -> writeTo(channel, columns, sourceSize));
+  }
+
+  private static void writeTo(FileChannel channel, CarColumns columns, long sourceSize) throws IOException {
+    int rows = columns.size();
+    channel.write(ByteBuffer.allocate(HEADER_BYTES), 0);
+    Output out = new Output(channel, HEADER_BYTES);
+    for (StringDictionary dictionary : dictionariesOf(columns)) {
+      int count = dictionary.size();
+      out.putInt(count);
+      for (int code = 0; code < count; code++) {
+        out.putBytes(dictionary.value(code).getBytes(StandardCharsets.UTF_8));
+      }
+    }
+    out.padTo(Integer.BYTES);
+    for (int[] column : columns.intColumns()) {
+      out.putInts(column, rows);
+    }
+    String[] vin = columns.vin();
+    for (int i = 0; i < rows; i++) {
+      if (vin[i] == null) {
+        out.putInt(-1);
+      } else {
+        out.putBytes(vin[i].getBytes(StandardCharsets.UTF_8));
+      }
+    }
+    long crc = out.finish();
+
+    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    header.putLong(MAGIC).putInt(VERSION).putInt(rows).putLong(sourceSize).putLong(crc).flip();
+    while (header.hasRemaining()) {
+      channel.write(header, header.position());
+    }
+  }
+
+  /**
+   * Writes the bytes to a temporary file in the target's directory and moves it over the target.
+   */
+  static void replaceAtomically(Path path, byte[] bytes) throws IOException {
+    replaceAtomically(path, channel -> {
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    });
+  }
+
+  /**
+   * Lets the writer fill a temporary file in the target's directory and moves it over the target.
+   */
+  static void replaceAtomically(Path path, ChannelWriter writer) throws IOException {
+    Path target = path.toAbsolutePath();
+    Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+        writer.write(channel);
+      }
+      try {
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  /**
+   * Reads a snapshot into the given dictionaries. Fails if the file is not a snapshot of this
+   * version, does not match its checksum, or was built from a CSV of a different size.
+   */
+  static CarColumns read(Path snapshotPath, CarDictionaries dictionaries, long sourceSize) throws IOException {
+    try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+      long fileSize = channel.size();
+      if (fileSize < HEADER_BYTES) {
+        throw new IOException("Not a car snapshot: " + snapshotPath);
+      }
+      ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      while (header.hasRemaining()) {
+        if (channel.read(header, header.position()) < 0) {
+          throw new IOException("Not a car snapshot: " + snapshotPath);
+        }
+      }
+      if (header.getLong(0) != MAGIC) {
+        throw new IOException("Not a car snapshot: " + snapshotPath);
+      }
+      int version = header.getInt(8);
+      if (version != VERSION) {
+        throw new IOException("Unsupported snapshot version " + version + " in " + snapshotPath);
+      }
+      int rows = header.getInt(12);
+      if (rows < 0) {
+        throw new IOException("Corrupt snapshot " + snapshotPath);
+      }
+      if (header.getLong(16) != sourceSize) {
+        throw new IOException("Snapshot " + snapshotPath + " was built from a different CSV");
+      }
+      CRC32 crc = new CRC32();
+      for (long position = HEADER_BYTES; position < fileSize; position += WINDOW_BYTES) {
+        crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_BYTES, fileSize - position)));
+      }
+      if (crc.getValue() != header.getLong(24)) {
+        throw new IOException("Checksum mismatch in snapshot " + snapshotPath);
+      }
+
+      try {
+        return readBody(new Input(channel, HEADER_BYTES), rows, dictionaries);
+      } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException
+               | NegativeArraySizeException e) {
+        throw new IOException("Corrupt snapshot " + snapshotPath, e);
+      }
+    }
+  }
+
+  private static CarColumns readBody(Input in, int rows, CarDictionaries dictionaries) throws IOException {
+    StringDictionary makeModels = new StringDictionary();
+    StringDictionary[] targets = dictionariesOf(dictionaries, makeModels);
+    int[][] codes = new int[targets.length][];
+    for (int d = 0; d < targets.length; d++) {
+      int count = in.getInt();
+      codes[d] = new int[count];
+      for (int code = 0; code < count; code++) {
+        codes[d][code] = targets[d].intern(in.getString(in.getInt()));
+      }
+    }
+    in.alignTo(Integer.BYTES);
+
+    int[][] columns = new int[CarColumns.INT_COLUMN_COUNT][];
+    for (int c = 0; c < columns.length; c++) {
+      columns[c] = in.getInts(rows);
+    }
+    for (int d = 0; d < targets.length; d++) {
+      remap(columns[DICTIONARY_COLUMNS[d]], codes[d]);
+    }
+
+    String[] vin = new String[rows];
+    for (int i = 0; i < rows; i++) {
+      int length = in.getInt();
+      if (length >= 0) {
+        vin[i] = in.getString(length);
+      }
+    }
+    return new CarColumns(dictionaries, makeModels, columns, vin);
+  }
+
+  /**
+   * Rewrites snapshot codes to the target dictionary's codes, unless they already agree.
+   */
+  private static void remap(int[] column, int[] codes) {
+    boolean identity = true;
+    for (int code = 0; code < codes.length && identity; code++) {
+      identity = codes[code] == code;
+    }
+    for (int i = 0; i < column.length; i++) {
+      int code = column[i];
+      if (code < 0 || code >= codes.length) {
+        throw new IndexOutOfBoundsException("Code " + code + " is not in the dictionary");
+      }
+      if (!identity) {
+        column[i] = codes[code];
+      }
+    }
+  }
+
+  private static StringDictionary[] dictionariesOf(CarColumns columns) {
+    return dictionariesOf(columns.getDictionaries(), columns.getMakeModels());
+  }
+
+  private static StringDictionary[] dictionariesOf(CarDictionaries dictionaries, StringDictionary makeModels) {
+    StringDictionary[] all = dictionaries.all();
+    StringDictionary[] result = new StringDictionary[all.length + 1];
+    System.arraycopy(all, 0, result, 0, all.length);
+    result[all.length] = makeModels;
+    return result;
+  }
+
+  /**
+   * Buffered little-endian writer that checksums everything it writes.
+   */
+  private static final class Output {
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32 crc = new CRC32();
+    private long position;
+
+    Output(FileChannel channel, long position) {
+      this.channel = channel;
+      this.position = position;
+    }
+
+    void putInt(int value) throws IOException {
+      ensure(Integer.BYTES);
+      buffer.putInt(value);
+    }
+
+    /**
+     * Writes the byte length followed by the bytes.
+     */
+    void putBytes(byte[] bytes) throws IOException {
+      putInt(bytes.length);
+      int done = 0;
+      while (done < bytes.length) {
+        ensure(1);
+        int n = Math.min(bytes.length - done, buffer.remaining());
+        buffer.put(bytes, done, n);
+        done += n;
+      }
+    }
+
+    void putInts(int[] values, int count) throws IOException {
+      int done = 0;
+      while (done < count) {
+        ensure(Integer.BYTES);
+        int n = Math.min(count - done, buffer.remaining() / Integer.BYTES);
+        buffer.asIntBuffer().put(values, done, n);
+        buffer.position(buffer.position() + n * Integer.BYTES);
+        done += n;
+      }
+    }
+
+    void padTo(int alignment) throws IOException {
+      while ((position + buffer.position()) % alignment != 0) {
+        ensure(1);
+        buffer.put((byte) 0);
+      }
+    }
+
+    /**
+     * Writes what is still buffered and returns the checksum of everything written.
+     */
+    long finish() throws IOException {
+      flush();
+      return crc.getValue();
+    }
+
+    private void ensure(int bytes) throws IOException {
+      if (buffer.remaining() < bytes) {
+        flush();
+      }
+    }
+
+    private void flush() throws IOException {
+      buffer.flip();
+      crc.update(buffer.duplicate());
+      while (buffer.hasRemaining()) {
+        position += channel.write(buffer, position);
+      }
+      buffer.clear();
+    }
+  }
+
+  /**
+   * Sequential little-endian reader over a file mapped in windows of at most
+   * {@link #WINDOW_BYTES}. Reading past the end throws {@link BufferUnderflowException}.
+   */
+  private static final class Input {
+    private final FileChannel channel;
+    private final long size;
+    private long windowStart;
+    private ByteBuffer window = ByteBuffer.allocate(0);
+
+    Input(FileChannel channel, long position) throws IOException {
+      this.channel = channel;
+      this.size = channel.size();
+      this.windowStart = position;
+    }
+
+    int getInt() throws IOException {
+      ensure(Integer.BYTES);
+      return window.getInt();
+    }
+
+    String getString(int length) throws IOException {
+      byte[] bytes = new byte[length];
+      int done = 0;
+      while (done < length) {
+        ensure(1);
+        int n = Math.min(length - done, window.remaining());
+        window.get(bytes, done, n);
+        done += n;
+      }
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    int[] getInts(int count) throws IOException {
+      int[] values = new int[count];
+      int done = 0;
+      while (done < count) {
+        ensure(Integer.BYTES);
+        int n = Math.min(count - done, window.remaining() / Integer.BYTES);
+        window.asIntBuffer().get(values, done, n);
+        window.position(window.position() + n * Integer.BYTES);
+        done += n;
+      }
+      return values;
+    }
+
+    void alignTo(int alignment) throws IOException {
+      long position = windowStart + window.position();
+      long aligned = (position + alignment - 1) / alignment * alignment;
+      ensure((int) (aligned - position));
+      window.position(window.position() + (int) (aligned - position));
+    }
+
+    /**
+     * Maps a new window at the current position unless the current one holds the bytes.
+     */
+    private void ensure(int bytes) throws IOException {
+      if (window.remaining() >= bytes) {
+        return;
+      }
+      long position = windowStart + window.position();
+      if (size - position < bytes) {
+        throw new BufferUnderflowException();
+      }
+      windowStart = position;
+      window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_BYTES, size - position))
+              .order(ByteOrder.LITTLE_ENDIAN);
+    }
+  }
+}
@@ -0,0 +1,427 @@
+package com.a2;
+
+import java.time.Month;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link CarAnalytics} reports computed over a {@link CarColumns} store. Each method scans the
+ * columns it needs and groups by dictionary code into arrays indexed by code, so grouping hashes
+ * nothing per row; keys are turned back into Strings once per group. Results have the same types
+ * and values as the matching {@link CarAnalytics} method on the same data.
+ */
+public class ColumnarAnalytics {
+
+  /**
+   * Average selling price across all cars.
+   */
+  public static double averageSellingPrice(CarColumns cars) {
+    if (cars.size() == 0) {
+      return 0.0;
+    }
+    int[] price = cars.sellingPrice();
+    long sum = 0;
+    for (int i = 0; i < cars.size(); i++) {
+      sum += price[i];
+    }
+    return (double) sum / cars.size();
+  }
+
+  /**
+   * Returns average selling price grouped by make.
+   */
+  public static Map<String, Double> averageSellingPriceByMake(CarColumns cars) {
+    return averageByCode(cars, cars.make(), cars.getDictionaries().make(), cars.sellingPrice(), false);
+  }
+
+  /**
+   * Returns average selling price grouped by make and model.
+   */
+  public static Map<String, Double> averageSellingPriceByMakeModel(CarColumns cars) {
+    return averageByCode(cars, cars.makeModel(), cars.getMakeModels(), cars.sellingPrice(), false);
+  }
+
+  /**
+   * Returns count of sales grouped by state.
+   */
+  public static Map<String, Long> salesCountByState(CarColumns cars) {
+    return countByCode(cars, cars.state(), cars.getDictionaries().state());
+  }
+
+  /**
+   * Returns average odometer reading by make, excluding invalid readings.
+   */
+  public static Map<String, Double> averageOdometerByMake(CarColumns cars) {
+    return averageByCode(cars, cars.make(), cars.getDictionaries().make(), cars.odometer(), true);
+  }
+
+  /**
+   * Price delta (sellingPrice - mmr) statistics by make.
+   * Only cars with mmr > 0 are included.
+   */
+  public static Map<String, DoubleSummaryStatistics> priceDeltaStatsByMake(CarColumns cars) {
+    StringDictionary makes = cars.getDictionaries().make();
+    DoubleSummaryStatistics[] stats = new DoubleSummaryStatistics[makes.size()];
+    int[] make = cars.make();
+    int[] mmr = cars.mmr();
+    int[] price = cars.sellingPrice();
+    for (int i = 0; i < cars.size(); i++) {
+      if (mmr[i] > 0) {
+        statsFor(stats, make[i]).accept(price[i] - mmr[i]);
+      }
+    }
+    return byValue(stats, makes);
+  }
+
+  /**
+   * Returns count of sales grouped by vehicle year.
+   */
+  public static Map<Integer, Long> salesCountByYear(CarColumns cars) {
+    int[] year = cars.year();
+    Map<Integer, Long> result = new HashMap<>();
+    if (cars.size() == 0) {
+      return result;
+    }
+    int min = Arrays.stream(year, 0, cars.size()).min().getAsInt();
+    int max = Arrays.stream(year, 0, cars.size()).max().getAsInt();
+    long[] counts = new long[max - min + 1];
+    for (int i = 0; i < cars.size(); i++) {
+      counts[year[i] - min]++;
+    }
+    for (int y = 0; y < counts.length; y++) {
+      if (counts[y] > 0) {
+        result.put(min + y, counts[y]);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns average selling price grouped by year-month of sale.
+   */
+  public static Map<YearMonth, Double> averagePriceByYearMonth(CarColumns cars) {
+    Map<YearMonth, Double> result = new HashMap<>();
+    if (cars.size() == 0) {
+      return result;
+    }
+    int[] epochDay = cars.saleEpochDay();
+    int[] price = cars.sellingPrice();
+    int[] months = new int[cars.size()];
+    int min = Integer.MAX_VALUE;
+    int max = Integer.MIN_VALUE;
+    for (int i = 0; i < cars.size(); i++) {
+      months[i] = SaleDateParser.epochMonth(epochDay[i]);
+      min = Math.min(min, months[i]);
+      max = Math.max(max, months[i]);
+    }
+    long[] sums = new long[max - min + 1];
+    long[] counts = new long[max - min + 1];
+    for (int i = 0; i < cars.size(); i++) {
+      sums[months[i] - min] += price[i];
+      counts[months[i] - min]++;
+    }
+    for (int m = 0; m < counts.length; m++) {
+      if (counts[m] > 0) {
+        int month = min + m;
+        YearMonth key = YearMonth.of(1970 + Math.floorDiv(month, 12), Math.floorMod(month, 12) + 1);
+        result.put(key, (double) sums[m] / counts[m]);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns top N make-model combinations by sales volume.
+   */
+  public static List<Map.Entry<String, Long>> topMakeModelsByVolume(CarColumns cars, int n) {
+    return countByCode(cars, cars.makeModel(), cars.getMakeModels())
+            .entrySet()
+            .stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+            .limit(n)
+            .collect(Collectors.toList());
+  }
+
+  /**
+   * Returns count of cars grouped by body style (Sedan, SUV, etc).
+   */
+  public static Map<String, Long> countByBody(CarColumns cars) {
+    return countByCode(cars, cars.body(), cars.getDictionaries().body());
+  }
+
+  /**
+   * Find vehicles selling significantly below MMR (potential bargains).
+   * Only the matching rows are materialized as records.
+   */
+  public static List<CarPricePOJO> findBestDeals(CarColumns cars, double thresholdPercent) {
+    int[] mmr = cars.mmr();
+    int[] price = cars.sellingPrice();
+    List<Integer> matches = new ArrayList<>();
+    for (int i = 0; i < cars.size(); i++) {
+      if (mmr[i] > 0) {
+        double discount = ((double) (mmr[i] - price[i]) / mmr[i]) * 100;
+        if (discount >= thresholdPercent) {
+          matches.add(i);
+        }
+      }
+    }
+    matches.sort(Comparator.comparingDouble((Integer i) -> (double) (mmr[i] - price[i])).reversed());
+    List<CarPricePOJO> result = new ArrayList<>(matches.size());
+    for (int i : matches) {
+      result.add(cars.row(i));
+    }
+    return result;
+  }
+
+  /**
+   * Returns average price per year of age by make to indicate depreciation rate.
+   */
+  public static Map<String, Double> depreciationRateByMake(CarColumns cars, int currentYear) {
+    StringDictionary makes = cars.getDictionaries().make();
+    ExactSum[] sums = new ExactSum[makes.size()];
+    int[] make = cars.make();
+    int[] year = cars.year();
+    int[] price = cars.sellingPrice();
+    for (int i = 0; i < cars.size(); i++) {
+      if (year[i] < currentYear) {
+        int age = currentYear - year[i];
+        sumFor(sums, make[i]).add((double) price[i] / age);
+      }
+    }
+    return exactAverages(sums, makes);
+  }
+
+  /**
+   * Returns average selling price grouped by month to identify seasonal trends.
+   */
+  public static Map<Month, Double> averagePriceByMonth(CarColumns cars) {
+    int[] epochDay = cars.saleEpochDay();
+    int[] price = cars.sellingPrice();
+    long[] sums = new long[12];
+    long[] counts = new long[12];
+    for (int i = 0; i < cars.size(); i++) {
+      int month = Math.floorMod(SaleDateParser.epochMonth(epochDay[i]), 12);
+      sums[month] += price[i];
+      counts[month]++;
+    }
+    Map<Month, Double> result = new HashMap<>();
+    for (int m = 0; m < 12; m++) {
+      if (counts[m] > 0) {
+        result.put(Month.of(m + 1), (double) sums[m] / counts[m]);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns average price grouped by 10k mile brackets to show depreciation by mileage.
+   */
+  public static Map<String, Double> priceByMileageBracket(CarColumns cars) {
+    int[] odometer = cars.odometer();
+    int[] price = cars.sellingPrice();
+    int maxBracket = 0;
+    for (int i = 0; i < cars.size(); i++) {
+      if (odometer[i] > 0) {
+        maxBracket = Math.max(maxBracket, odometer[i] / 10000);
+      }
+    }
+    long[] sums = new long[maxBracket + 1];
+    long[] counts = new long[maxBracket + 1];
+    for (int i = 0; i < cars.size(); i++) {
+      if (odometer[i] > 0) {
+        sums[odometer[i] / 10000] += price[i];
+        counts[odometer[i] / 10000]++;
+      }
+    }
+    Map<String, Double> result = new HashMap<>();
+    for (int b = 0; b < counts.length; b++) {
+      if (counts[b] > 0) {
+        int bracket = b * 10;
+        result.put(bracket + "k-" + (bracket + 10) + "k miles", (double) sums[b] / counts[b]);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns price statistics grouped by condition rating.
+   */
+  public static Map<Integer, DoubleSummaryStatistics> priceStatsByCondition(CarColumns cars) {
+    int[] condition = cars.condition();
+    int[] price = cars.sellingPrice();
+    Map<Integer, DoubleSummaryStatistics> result = new TreeMap<>();
+    DoubleSummaryStatistics current = null;
+    int currentCondition = 0;
+    for (int i = 0; i < cars.size(); i++) {
+      // Consecutive rows often share a condition, so skip the map lookup when it repeats.
+      if (current == null || condition[i] != currentCondition) {
+        currentCondition = condition[i];
+        current = result.computeIfAbsent(currentCondition, c -> new DoubleSummaryStatistics());
+      }
+      current.accept(price[i]);
+    }
+    return result;
+  }
+
+  /**
+   * Returns average prices by state for specified popular models.
+   */
+  public static Map<String, Map<String, Double>> regionalPriceByModel(CarColumns cars, List<String> topModels) {
+    StringDictionary makeModels = cars.getMakeModels();
+    StringDictionary states = cars.getDictionaries().state();
+    boolean[] selected = new boolean[makeModels.size()];
+    for (int code = 0; code < selected.length; code++) {
+      selected[code] = topModels.contains(makeModels.value(code));
+    }
+    int stateCount = states.size();
+    long[] sums = new long[selected.length * stateCount];
+    long[] counts = new long[selected.length * stateCount];
+    int[] makeModel = cars.makeModel();
+    int[] state = cars.state();
+    int[] price = cars.sellingPrice();
+    for (int i = 0; i < cars.size(); i++) {
+      if (selected[makeModel[i]]) {
+        int cell = makeModel[i] * stateCount + state[i];
+        sums[cell] += price[i];
+        counts[cell]++;
+      }
+    }
+    Map<String, Map<String, Double>> result = new HashMap<>();
+    for (int code = 0; code < selected.length; code++) {
+      for (int s = 0; s < stateCount; s++) {
+        int cell = code * stateCount + s;
+        if (counts[cell] > 0) {
+          result.computeIfAbsent(makeModels.value(code), k -> new HashMap<>())
+                  .put(states.value(s), (double) sums[cell] / counts[cell]);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Average markup percentage (above/below MMR) by seller.
+   */
+  public static Map<String, Double> sellerMarkupPercentage(CarColumns cars) {
+    StringDictionary sellers = cars.getDictionaries().seller();
+    ExactSum[] sums = new ExactSum[sellers.size()];
+    int[] seller = cars.seller();
+    int[] mmr = cars.mmr();
+    int[] price = cars.sellingPrice();
+    for (int i = 0; i < cars.size(); i++) {
+      if (mmr[i] > 0) {
+        sumFor(sums, seller[i]).add(((double) (price[i] - mmr[i]) / mmr[i]) * 100);
+      }
+    }
+    return exactAverages(sums, sellers);
+  }
+
+  /**
+   * Returns top N make-models ranked by profitability score combining volume and profit margin.
+   */
+  public static List<CarAnalytics.InventoryMetrics> inventoryProfitabilityRanking(CarColumns cars, int topN) {
+    StringDictionary makeModels = cars.getMakeModels();
+    DoubleSummaryStatistics[] stats = new DoubleSummaryStatistics[makeModels.size()];
+    int[] makeModel = cars.makeModel();
+    int[] mmr = cars.mmr();
+    int[] price = cars.sellingPrice();
+    for (int i = 0; i < cars.size(); i++) {
+      if (mmr[i] > 0) {
+        statsFor(stats, makeModel[i]).accept(price[i] - mmr[i]);
+      }
+    }
+    Map<String, Long> volumeMap = new HashMap<>();
+    Map<String, Double> profitMap = new HashMap<>();
+    for (int code = 0; code < stats.length; code++) {
+      if (stats[code] != null) {
+        volumeMap.put(makeModels.value(code), stats[code].getCount());
+        profitMap.put(makeModels.value(code), stats[code].getAverage());
+      }
+    }
+    return volumeMap.keySet().stream()
+            .map(key -> new CarAnalytics.InventoryMetrics(key, volumeMap.get(key), profitMap.get(key)))
+            .sorted(Comparator.comparingDouble(m -> -m.profitabilityScore))
+            .limit(topN)
+            .collect(Collectors.toList());
+  }
+
+  private static Map<String, Double> averageByCode(CarColumns cars, int[] keys, StringDictionary dictionary,
+                                                   int[] values, boolean positiveOnly) {
+    long[] sums = new long[dictionary.size()];
+    long[] counts = new long[dictionary.size()];
+    for (int i = 0; i < cars.size(); i++) {
+      if (!positiveOnly || values[i] > 0) {
+        sums[keys[i]] += values[i];
+        counts[keys[i]]++;
+      }
+    }
+    Map<String, Double> result = new HashMap<>();
+    for (int code = 0; code < counts.length; code++) {
+      if (counts[code] > 0) {
+        result.put(dictionary.value(code), (double) sums[code] / counts[code]);
+      }
+    }
+    return result;
+  }
+
+  private static Map<String, Long> countByCode(CarColumns cars, int[] keys, StringDictionary dictionary) {
+    long[] counts = new long[dictionary.size()];
+    for (int i = 0; i < cars.size(); i++) {
+      counts[keys[i]]++;
+    }
+    Map<String, Long> result = new HashMap<>();
+    for (int code = 0; code < counts.length; code++) {
+      if (counts[code] > 0) {
+        result.put(dictionary.value(code), counts[code]);
+      }
+    }
+    return result;
+  }
+
+  private static DoubleSummaryStatistics statsFor(DoubleSummaryStatistics[] stats, int code) {
+    DoubleSummaryStatistics s = stats[code];
+    if (s == null) {
+      s = new DoubleSummaryStatistics();
+      stats[code] = s;
+    }
+    return s;
+  }
+
+  private static Map<String, DoubleSummaryStatistics> byValue(DoubleSummaryStatistics[] stats,
+                                                              StringDictionary dictionary) {
+    Map<String, DoubleSummaryStatistics> result = new HashMap<>();
+    for (int code = 0; code < stats.length; code++) {
+      if (stats[code] != null) {
+        result.put(dictionary.value(code), stats[code]);
+      }
+    }
+    return result;
+  }
+
+  private static ExactSum sumFor(ExactSum[] sums, int code) {
+    ExactSum s = sums[code];
+    if (s == null) {
+      s = new ExactSum();
+      sums[code] = s;
+    }
+    return s;
+  }
+
+  private static Map<String, Double> exactAverages(ExactSum[] sums, StringDictionary dictionary) {
+    Map<String, Double> result = new HashMap<>();
+    for (int code = 0; code < sums.length; code++) {
+      if (sums[code] != null) {
+        result.put(dictionary.value(code), sums[code].getAverage());
+      }
+    }
+    return result;
+  }
+}
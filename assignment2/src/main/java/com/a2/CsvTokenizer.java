@@ -0,0 +1,205 @@
+package com.a2;
+
+import java.util.Arrays;
+
+/**
+ * Single-pass CSV field tokenizer following RFC 4180 quoting: fields may be wrapped in double
+ * quotes, in which case they can contain commas and a doubled quote stands for one quote.
+ * Tokenizing only records where each field starts and ends in reusable offset arrays; numeric
+ * fields are parsed straight from the characters and Strings are created only for the fields
+ * a caller asks for. An instance is not thread-safe.
+ */
+class CsvTokenizer {
+
+  private static final char EM_DASH = '—';
+
+  private CharSequence line;
+  private int[] starts = new int[16];
+  private int[] ends = new int[16];
+  private boolean[] escaped = new boolean[16];
+  private int fieldCount;
+
+  /**
+   * Splits the line into fields and returns how many there are. Offsets stay valid until the
+   * next call.
+   *
+   * @throws IllegalArgumentException if a quoted field is not closed
+   */
+  int tokenize(CharSequence line) {
+    return tokenize(line, 0, line.length());
+  }
+
+  /**
+   * Splits the characters from {@code from} (inclusive) to {@code to} (exclusive) into fields.
+   */
+  int tokenize(CharSequence text, int from, int to) {
+    this.line = text;
+    fieldCount = 0;
+    int pos = from;
+    while (true) {
+      ensureCapacity(fieldCount + 1);
+      int field = fieldCount++;
+      escaped[field] = false;
+      int quoteStart = skipSpaces(text, pos, to);
+      if (quoteStart < to && text.charAt(quoteStart) == '"') {
+        pos = quoteStart + 1;
+        starts[field] = pos;
+        while (true) {
+          if (pos >= to) {
+            throw new IllegalArgumentException("Unterminated quoted field: " + text.subSequence(from, to));
+          }
+          if (text.charAt(pos) == '"') {
+            if (pos + 1 < to && text.charAt(pos + 1) == '"') {
+              escaped[field] = true;
+              pos += 2;
+              continue;
+            }
+            break;
+          }
+          pos++;
+        }
+        ends[field] = pos;
+        pos++;
+        while (pos < to && text.charAt(pos) != ',') {
+          pos++;
+        }
+      } else {
+        starts[field] = pos;
+        while (pos < to && text.charAt(pos) != ',') {
+          pos++;
+        }
+        ends[field] = pos;
+      }
+      if (pos >= to) {
+        return fieldCount;
+      }
+      pos++;
+    }
+  }
+
+  /**
+   * Returns the number of fields found by the last call to {@link #tokenize}.
+   */
+  int fieldCount() {
+    return fieldCount;
+  }
+
+  /**
+   * Returns the field as a trimmed String, with doubled quotes in quoted fields collapsed.
+   */
+  String text(int field) {
+    int start = trimStart(field);
+    int end = trimEnd(field, start);
+    if (!escaped[field]) {
+      return line.subSequence(start, end).toString();
+    }
+    StringBuilder unescaped = new StringBuilder(end - start);
+    for (int i = start; i < end; i++) {
+      char c = line.charAt(i);
+      unescaped.append(c);
+      if (c == '"') {
+        i++;
+      }
+    }
+    return unescaped.toString();
+  }
+
+  /**
+   * Returns true if the field is quoted and contains doubled quotes, so its characters in the
+   * tokenized text differ from its value.
+   */
+  boolean hasEscapedQuotes(int field) {
+    return escaped[field];
+  }
+
+  /**
+   * Returns the trimmed start offset of the field within the tokenized text.
+   */
+  int start(int field) {
+    return trimStart(field);
+  }
+
+  /**
+   * Returns the trimmed end offset (exclusive) of the field within the tokenized text.
+   */
+  int end(int field) {
+    return trimEnd(field, trimStart(field));
+  }
+
+  /**
+   * Parses the field as an int without creating a String. An empty field or a lone em dash,
+   * which the dataset uses for missing values, is read as 0.
+   *
+   * @throws NumberFormatException if the field is not a valid int
+   */
+  int parseInt(int field) {
+    int start = trimStart(field);
+    int end = trimEnd(field, start);
+    if (start == end || (end - start == 1 && line.charAt(start) == EM_DASH)) {
+      return 0;
+    }
+    int pos = start;
+    boolean negative = false;
+    char first = line.charAt(pos);
+    if (first == '-' || first == '+') {
+      negative = first == '-';
+      pos++;
+      if (pos == end) {
+        throw invalidInt(start, end);
+      }
+    }
+    // Accumulate negatively so Integer.MIN_VALUE parses without overflow.
+    int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+    int multiplyLimit = limit / 10;
+    int result = 0;
+    for (; pos < end; pos++) {
+      int digit = line.charAt(pos) - '0';
+      if (digit < 0 || digit > 9 || result < multiplyLimit) {
+        throw invalidInt(start, end);
+      }
+      result *= 10;
+      if (result < limit + digit) {
+        throw invalidInt(start, end);
+      }
+      result -= digit;
+    }
+    return negative ? result : -result;
+  }
+
+  private NumberFormatException invalidInt(int start, int end) {
+    return new NumberFormatException("For input string: \"" + line.subSequence(start, end) + "\"");
+  }
+
+  private int trimStart(int field) {
+    int start = starts[field];
+    int end = ends[field];
+    while (start < end && Character.isWhitespace(line.charAt(start))) {
+      start++;
+    }
+    return start;
+  }
+
+  private int trimEnd(int field, int start) {
+    int end = ends[field];
+    while (end > start && Character.isWhitespace(line.charAt(end - 1))) {
+      end--;
+    }
+    return end;
+  }
+
+  private static int skipSpaces(CharSequence text, int pos, int to) {
+    while (pos < to && text.charAt(pos) == ' ') {
+      pos++;
+    }
+    return pos;
+  }
+
+  private void ensureCapacity(int fields) {
+    if (fields > starts.length) {
+      int size = Math.max(fields, starts.length * 2);
+      starts = Arrays.copyOf(starts, size);
+      ends = Arrays.copyOf(ends, size);
+      escaped = Arrays.copyOf(escaped, size);
+    }
+  }
+}
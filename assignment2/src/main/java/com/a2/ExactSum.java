@@ -0,0 +1,100 @@
+package com.a2;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Order-independent sum and average of finite doubles. The running sum is kept exactly as a short
+ * list of non-overlapping partials (Shewchuk's algorithm, as in Python's {@code math.fsum}) and is
+ * rounded once at the end, so adding values in any order, or merging partial sums built on
+ * different threads, gives bit-for-bit the same result.
+ */
+final class ExactSum implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private double[] partials = new double[4];
+  private int size;
+  private long count;
+
+  void add(double value) {
+    addExactly(value);
+    count++;
+  }
+
+  private void addExactly(double value) {
+    double x = value;
+    int kept = 0;
+    for (int j = 0; j < size; j++) {
+      double y = partials[j];
+      if (Math.abs(x) < Math.abs(y)) {
+        double t = x;
+        x = y;
+        y = t;
+      }
+      double hi = x + y;
+      double lo = y - (hi - x);
+      if (lo != 0.0) {
+        partials[kept++] = lo;
+      }
+      x = hi;
+    }
+    if (kept == partials.length) {
+      partials = Arrays.copyOf(partials, kept * 2);
+    }
+    partials[kept++] = x;
+    size = kept;
+  }
+
+  /**
+   * Adds the values of another sum to this one and returns this sum.
+   */
+  ExactSum combine(ExactSum other) {
+    for (int j = 0; j < other.size; j++) {
+      addExactly(other.partials[j]);
+    }
+    count += other.count;
+    return this;
+  }
+
+  long getCount() {
+    return count;
+  }
+
+  /**
+   * The exact sum rounded to the nearest double.
+   */
+  double getSum() {
+    int n = size;
+    if (n == 0) {
+      return 0.0;
+    }
+    double hi = partials[--n];
+    double lo = 0.0;
+    while (n > 0) {
+      double x = hi;
+      double y = partials[--n];
+      hi = x + y;
+      lo = y - (hi - x);
+      if (lo != 0.0) {
+        break;
+      }
+    }
+    // Round half-even correctly when the remaining partials push lo past a halfway point.
+    if (n > 0 && ((lo < 0.0 && partials[n - 1] < 0.0) || (lo > 0.0 && partials[n - 1] > 0.0))) {
+      double y = lo * 2.0;
+      double x = hi + y;
+      if (y == x - hi) {
+        hi = x;
+      }
+    }
+    return hi;
+  }
+
+  /**
+   * The average of the added values, or zero if there are none.
+   */
+  double getAverage() {
+    return count == 0 ? 0.0 : getSum() / count;
+  }
+}
@@ -0,0 +1,112 @@
+package com.a2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+/**
+ * Runs any number of registered {@link Collector}s over the same data in a single pass.
+ * Each registration returns a handle that yields that collector's result once {@link #run} has finished.
+ */
+public class FusedAggregator<T> {
+
+  private final List<Collector<? super T, Object, Object>> collectors = new ArrayList<>();
+  private Object[] results;
+
+  /**
+   * Adds a collector to the pass. The returned supplier throws until the aggregator has been run.
+   */
+  @SuppressWarnings("unchecked")
+  public <R> Supplier<R> register(Collector<? super T, ?, R> collector) {
+    int slot = collectors.size();
+    collectors.add((Collector<? super T, Object, Object>) collector);
+    return () -> {
+      if (results == null || slot >= results.length) {
+        throw new IllegalStateException("Aggregator has not been run since this collector was registered");
+      }
+      return (R) results[slot];
+    };
+  }
+
+  /**
+   * Number of registered collectors.
+   */
+  public int size() {
+    return collectors.size();
+  }
+
+  /**
+   * Feeds every item to every registered collector, visiting the data once.
+   */
+  public void run(Iterable<? extends T> items) {
+    Collector<T, Object[], Object[]> fused = collector();
+    Object[] containers = fused.supplier().get();
+    BiConsumer<Object[], T> accumulator = fused.accumulator();
+    for (T item : items) {
+      accumulator.accept(containers, item);
+    }
+    results = fused.finisher().apply(containers);
+  }
+
+  public void run(Stream<? extends T> items) {
+    results = items.collect(collector());
+  }
+
+  /**
+   * Same results as {@link #run(Iterable)}, computed by up to {@code parallelism} threads with {@link ParallelCollect}.
+   */
+  public void runParallel(List<? extends T> items, int parallelism) {
+    results = ParallelCollect.collect(items, collector(), parallelism);
+  }
+
+  /**
+   * The registered collectors as one collector whose container holds one container per registration.
+   * Each collector's functions are looked up once here, so the per-item loop only indexes arrays.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  Collector<T, Object[], Object[]> collector() {
+    int n = collectors.size();
+    Supplier<Object>[] suppliers = new Supplier[n];
+    BiConsumer<Object, ? super T>[] accumulators = new BiConsumer[n];
+    BinaryOperator<Object>[] combiners = new BinaryOperator[n];
+    Function<Object, Object>[] finishers = new Function[n];
+    for (int i = 0; i < n; i++) {
+      Collector<? super T, Object, Object> collector = collectors.get(i);
+      suppliers[i] = collector.supplier();
+      accumulators[i] = collector.accumulator();
+      combiners[i] = collector.combiner();
+      finishers[i] = collector.finisher();
+    }
+    return Collector.of(
+            () -> {
+              Object[] containers = new Object[n];
+              for (int i = 0; i < n; i++) {
+                containers[i] = suppliers[i].get();
+              }
+              return containers;
+            },
+            (containers, item) -> {
+              for (int i = 0; i < n; i++) {
+                accumulators[i].accept(containers[i], item);
+              }
+            },
+            (left, right) -> {
+              for (int i = 0; i < n; i++) {
+                left[i] = combiners[i].apply(left[i], right[i]);
+              }
+              return left;
+            },
+            containers -> {
+              Object[] finished = new Object[n];
+              for (int i = 0; i < n; i++) {
+                finished[i] = finishers[i].apply(containers[i]);
+              }
+              return finished;
+            });
+  }
+}
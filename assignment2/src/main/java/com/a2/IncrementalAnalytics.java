@@ -0,0 +1,172 @@
+package com.a2;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps the {@link CarReport} of a CSV file that is only ever appended to, parsing just the lines
+ * added since the last refresh. The aggregates of every report and the number of bytes already
+ * processed are saved in a state file next to the CSV, so a refresh costs time in proportion to
+ * the new rows rather than the whole history.
+ *
+ * <p>Only complete lines are read: a last line without its newline is taken to be still being
+ * written and is picked up by a later refresh. If the file shrank or the bytes already processed
+ * changed, the saved state is dropped and the whole file is read again.
+ */
+public class IncrementalAnalytics {
+
+  /**
+   * Bytes at the start of the file and just before the processed offset that are checksummed to
+   * notice a file that was replaced rather than appended to.
+   */
+  static final int FINGERPRINT_BYTES = 4096;
+
+  /**
+   * What is saved between refreshes.
+   */
+  static final class State implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    long processedBytes;
+    long headChecksum;
+    long tailChecksum;
+    ReportAggregates aggregates = new ReportAggregates();
+  }
+
+  private final Path csvPath;
+  private final Path statePath;
+  private final CarCsvLoader loader = new CarCsvLoader();
+  private long lastRefreshRows;
+  private long processedBytes;
+
+  /**
+   * Keeps the state in {@code <csv name>.state} next to the CSV.
+   */
+  public IncrementalAnalytics(Path csvPath) {
+    this(csvPath, csvPath.resolveSibling(csvPath.getFileName() + ".state"));
+  }
+
+  public IncrementalAnalytics(Path csvPath, Path statePath) {
+    this.csvPath = csvPath;
+    this.statePath = statePath;
+  }
+
+  /**
+   * Parses the lines appended since the last refresh, merges them into the saved aggregates, saves
+   * them again and returns the report over every row processed so far.
+   */
+  public CarReport refresh() throws IOException {
+    State state = readState();
+    long end;
+    try (FileChannel channel = FileChannel.open(csvPath, StandardOpenOption.READ)) {
+      if (state == null || !matches(channel, state)) {
+        state = new State();
+      }
+      end = lastLineEnd(channel, state.processedBytes, channel.size());
+      lastRefreshRows = 0;
+      if (end > state.processedBytes) {
+        ReportAggregates appended = loader.loadAggregates(csvPath, state.processedBytes, end);
+        lastRefreshRows = appended.getRowCount();
+        state.aggregates.merge(appended);
+        state.processedBytes = end;
+        state.headChecksum = checksum(channel, 0, Math.min(FINGERPRINT_BYTES, end));
+        state.tailChecksum = checksum(channel, Math.max(0, end - FINGERPRINT_BYTES), end);
+        writeState(state);
+      }
+    }
+    processedBytes = state.processedBytes;
+    return state.aggregates.toReport();
+  }
+
+  /**
+   * Number of rows parsed by the last refresh.
+   */
+  public long getLastRefreshRows() {
+    return lastRefreshRows;
+  }
+
+  /**
+   * Bytes of the CSV covered by the last refresh, i.e. the offset the next refresh starts from.
+   */
+  public long getProcessedBytes() {
+    return processedBytes;
+  }
+
+  private static boolean matches(FileChannel channel, State state) throws IOException {
+    long processed = state.processedBytes;
+    return channel.size() >= processed
+            && checksum(channel, 0, Math.min(FINGERPRINT_BYTES, processed)) == state.headChecksum
+            && checksum(channel, Math.max(0, processed - FINGERPRINT_BYTES), processed) == state.tailChecksum;
+  }
+
+  private static long checksum(FileChannel channel, long from, long to) throws IOException {
+    ByteBuffer bytes = ByteBuffer.allocate((int) (to - from));
+    while (bytes.hasRemaining()) {
+      if (channel.read(bytes, from + bytes.position()) < 0) {
+        break;
+      }
+    }
+    CRC32 crc = new CRC32();
+    crc.update(bytes.flip());
+    return crc.getValue();
+  }
+
+  /**
+   * Returns the offset just past the last newline in {@code [from, size)}, or {@code from} if there is none.
+   */
+  static long lastLineEnd(FileChannel channel, long from, long size) throws IOException {
+    ByteBuffer block = ByteBuffer.allocate(8192);
+    long blockEnd = size;
+    while (blockEnd > from) {
+      long blockStart = Math.max(from, blockEnd - block.capacity());
+      block.clear().limit((int) (blockEnd - blockStart));
+      while (block.hasRemaining()) {
+        if (channel.read(block, blockStart + block.position()) < 0) {
+          break;
+        }
+      }
+      for (int i = block.position() - 1; i >= 0; i--) {
+        if (block.get(i) == '\n') {
+          return blockStart + i + 1;
+        }
+      }
+      blockEnd = blockStart;
+    }
+    return from;
+  }
+
+  /**
+   * Returns the saved state, or null if there is none or it cannot be read, e.g. after a format change.
+   */
+  private State readState() {
+    if (!Files.exists(statePath)) {
+      return null;
+    }
+    try (InputStream file = Files.newInputStream(statePath);
+         ObjectInputStream in = new ObjectInputStream(file)) {
+      in.setObjectInputFilter(ObjectInputFilter.Config.createFilter("com.a2.*;java.base/*;!*"));
+      return (State) in.readObject();
+    } catch (IOException | ClassNotFoundException | ClassCastException e) {
+      return null;
+    }
+  }
+
+  private void writeState(State state) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(state);
+    }
+    CarSnapshot.replaceAtomically(statePath, bytes.toByteArray());
+  }
+}
@@ -11,15 +11,45 @@ import java.util.Map;
 
 public class Main {
 
+  private static final String USAGE = "Usage: java com.a2.Main [--incremental] [--parallelism=N]";
+
   public static void main(String[] args) {
     Path csvPath = Path.of("car_prices.csv");
     CarCsvLoader loader = new CarCsvLoader();
+    boolean incrementalMode = false;
+    int parallelism = Runtime.getRuntime().availableProcessors();
+    for (String arg : args) {
+      if (arg.equals("--incremental")) {
+        incrementalMode = true;
+      } else if (arg.startsWith("--parallelism=")) {
+        parallelism = parsePositive(arg.substring("--parallelism=".length()));
+        if (parallelism <= 0) {
+          System.err.println("Parallelism must be a positive integer: " + arg);
+          System.err.println(USAGE);
+          return;
+        }
+      } else {
+        System.err.println("Unknown argument: " + arg);
+        System.err.println(USAGE);
+        return;
+      }
+    }
 
     try {
-      List<CarPricePOJO> cars = loader.load(csvPath);
+      if (incrementalMode) {
+        // Only the rows appended since the last --incremental run are parsed.
+        IncrementalAnalytics incremental = new IncrementalAnalytics(csvPath);
+        CarReport report = incremental.refresh();
+        System.out.println("Total records: " + report.getRecordCount()
+                + " (" + incremental.getLastRefreshRows() + " new)");
+        System.out.println();
+        runAnalytics(report);
+        return;
+      }
+      List<CarPricePOJO> cars = loader.loadColumnsCached(csvPath).asRows();
       System.out.println("Total records loaded: " + cars.size());
       System.out.println();
-      runAnalytics(cars);
+      runAnalytics(CarReport.compute(cars, parallelism));
 
     } catch (IOException e) {
       System.err.println("Failed to read CSV file from " + csvPath.toAbsolutePath());
@@ -30,19 +60,30 @@ public class Main {
     }
   }
 
-  private static void runAnalytics(List<CarPricePOJO> cars) {
+  /**
+   * Returns the value as an int, or 0 if it is not a number.
+   */
+  private static int parsePositive(String value) {
+    try {
+      return Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  private static void runAnalytics(CarReport report) {
     System.out.println("1. OVERALL AVERAGE SELLING PRICE");
-    double avgPrice = CarAnalytics.averageSellingPrice(cars);
+    double avgPrice = report.getAverageSellingPrice();
     System.out.printf("   Average: %s%n%n", CarAnalytics.formatPrice(avgPrice));
 
     System.out.println("2. AVERAGE SELLING PRICE BY MAKE");
-    CarAnalytics.sortByDoubleValueDesc(CarAnalytics.averageSellingPriceByMake(cars))
+    CarAnalytics.sortByDoubleValueDesc(report.getAverageSellingPriceByMake())
             .forEach((make, price) ->
                     System.out.printf("   %-15s -> %s%n", make, CarAnalytics.formatPrice(price)));
     System.out.println();
 
     System.out.println("3. AVERAGE SELLING PRICE BY MAKE & MODEL (Top 10)");
-    CarAnalytics.averageSellingPriceByMakeModel(cars).entrySet().stream()
+    report.getAverageSellingPriceByMakeModel().entrySet().stream()
             .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
             .limit(10)
             .forEach(entry ->
@@ -51,13 +92,13 @@ public class Main {
     System.out.println();
 
     System.out.println("4. SALES VOLUME BY STATE");
-    CarAnalytics.sortByLongValueDesc(CarAnalytics.salesCountByState(cars))
+    CarAnalytics.sortByLongValueDesc(report.getSalesCountByState())
             .forEach((state, count) ->
                     System.out.printf("   %-5s -> %,d vehicles%n", state, count));
     System.out.println();
 
     System.out.println("5. AVERAGE ODOMETER READING BY MAKE (Top 10)");
-    CarAnalytics.averageOdometerByMake(cars).entrySet().stream()
+    report.getAverageOdometerByMake().entrySet().stream()
             .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
             .limit(10)
             .forEach(entry ->
@@ -65,8 +106,7 @@ public class Main {
     System.out.println();
 
     System.out.println("6. PRICE DELTA STATISTICS BY MAKE (Selling Price - MMR)");
-    Map<String, DoubleSummaryStatistics> deltaStatsByMake =
-            CarAnalytics.priceDeltaStatsByMake(cars);
+    Map<String, DoubleSummaryStatistics> deltaStatsByMake = report.getPriceDeltaStatsByMake();
     deltaStatsByMake.entrySet().stream()
             .sorted(Map.Entry.comparingByKey())
             .forEach((entry) -> {
@@ -81,14 +121,14 @@ public class Main {
     System.out.println();
 
     System.out.println("7. SALES VOLUME BY VEHICLE YEAR");
-    CarAnalytics.salesCountByYear(cars).entrySet().stream()
+    report.getSalesCountByYear().entrySet().stream()
             .sorted(Map.Entry.comparingByKey())
             .forEach(entry ->
                     System.out.printf("   %d -> %,d vehicles%n", entry.getKey(), entry.getValue()));
     System.out.println();
 
     System.out.println("8. AVERAGE SELLING PRICE BY SALE MONTH");
-    Map<YearMonth, Double> avgByMonth = CarAnalytics.averagePriceByYearMonth(cars);
+    Map<YearMonth, Double> avgByMonth = report.getAveragePriceByYearMonth();
     avgByMonth.entrySet().stream()
             .sorted(Map.Entry.comparingByKey())
             .forEach(entry ->
@@ -97,32 +137,30 @@ public class Main {
     System.out.println();
 
     System.out.println("9. TOP SELLING MODELS BY VOLUME (Top 10)");
-    CarAnalytics.topMakeModelsByVolume(cars, 10)
+    report.getTopMakeModelsByVolume()
             .forEach(entry ->
                     System.out.printf("   %-30s -> %,d units%n", entry.getKey(), entry.getValue()));
     System.out.println();
 
     System.out.println("10. SALES VOLUME BY BODY STYLE");
-    CarAnalytics.sortByLongValueDesc(CarAnalytics.countByBody(cars))
+    CarAnalytics.sortByLongValueDesc(report.getCountByBody())
             .forEach((body, count) ->
                     System.out.printf("   %-15s -> %,d vehicles%n", body, count));
     System.out.println();
 
     System.out.println("11. BEST DEALS - VEHICLES WITH 10%+ DISCOUNT (Top 10)");
-    List<CarPricePOJO> bestDeals = CarAnalytics.findBestDeals(cars, 10.0);
-    bestDeals.stream()
-            .limit(10)
-            .forEach(car -> {
-              double savings = car.getMmr() - car.getSellingPrice();
-              double percent = (savings / car.getMmr()) * 100;
-              System.out.printf("   %d %s %s - Save %s (%.1f%% off)%n",
-                      car.getYear(), car.getMake(), car.getModel(),
-                      CarAnalytics.formatPrice(savings), percent);
-            });
+    List<CarPricePOJO> bestDeals = report.getBestDeals();
+    bestDeals.forEach(car -> {
+      double savings = car.getMmr() - car.getSellingPrice();
+      double percent = (savings / car.getMmr()) * 100;
+      System.out.printf("   %d %s %s - Save %s (%.1f%% off)%n",
+              car.getYear(), car.getMake(), car.getModel(),
+              CarAnalytics.formatPrice(savings), percent);
+    });
     System.out.println();
 
     System.out.println("12. VALUE RETENTION BY MAKE (Price per year of age, Top 10)");
-    Map<String, Double> depreciation = CarAnalytics.depreciationRateByMake(cars, 2025);
+    Map<String, Double> depreciation = report.getDepreciationRateByMake();
     CarAnalytics.sortByDoubleValueDesc(depreciation).entrySet().stream()
             .limit(10)
             .forEach(e -> System.out.printf("   %-15s -> %s per year%n",
@@ -130,7 +168,7 @@ public class Main {
     System.out.println();
 
     System.out.println("13. SEASONAL PRICING TRENDS (Best months to buy)");
-    Map<Month, Double> seasonal = CarAnalytics.averagePriceByMonth(cars);
+    Map<Month, Double> seasonal = report.getAveragePriceByMonth();
     seasonal.entrySet().stream()
             .sorted(Map.Entry.comparingByValue())
             .limit(3)
@@ -139,7 +177,7 @@ public class Main {
     System.out.println();
 
     System.out.println("14. PRICE BY MILEAGE BRACKET");
-    Map<String, Double> mileageImpact = CarAnalytics.priceByMileageBracket(cars);
+    Map<String, Double> mileageImpact = report.getPriceByMileageBracket();
     mileageImpact.entrySet().stream()
             .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
             .forEach(e -> System.out.printf("   %-20s -> %s%n",
@@ -147,19 +185,14 @@ public class Main {
     System.out.println();
 
     System.out.println("15. PRICE BY CONDITION RATING");
-    Map<Integer, DoubleSummaryStatistics> conditionStats =
-            CarAnalytics.priceStatsByCondition(cars);
+    Map<Integer, DoubleSummaryStatistics> conditionStats = report.getPriceStatsByCondition();
     conditionStats.forEach((condition, stats) ->
             System.out.printf("   Condition %d: %s%n", condition,
                     CarAnalytics.formatStats(stats)));
     System.out.println();
 
     System.out.println("16. REGIONAL PRICE VARIATIONS (Top 3 models, Top 5 states each)");
-    List<String> topModels = CarAnalytics.topMakeModelsByVolume(cars, 3).stream()
-            .map(Map.Entry::getKey)
-            .toList();
-    Map<String, Map<String, Double>> regional =
-            CarAnalytics.regionalPriceByModel(cars, topModels);
+    Map<String, Map<String, Double>> regional = report.getRegionalPriceByModel();
     regional.forEach((model, stateMap) -> {
       System.out.println("   " + model + ":");
       stateMap.entrySet().stream()
@@ -172,7 +205,7 @@ public class Main {
 
 
     System.out.println("17. SELLER MARKUP PERCENTAGE (vs MMR, Top 10)");
-    Map<String, Double> sellerMarkup = CarAnalytics.sellerMarkupPercentage(cars);
+    Map<String, Double> sellerMarkup = report.getSellerMarkupPercentage();
     CarAnalytics.sortByDoubleValueDesc(sellerMarkup).entrySet().stream()
             .limit(10)
             .forEach(e -> System.out.printf("   %-20s -> %+.2f%%%n", e.getKey(), e.getValue()));
@@ -180,8 +213,7 @@ public class Main {
 
 
     System.out.println("18. INVENTORY PROFITABILITY RANKING (Top 15)");
-    List<CarAnalytics.InventoryMetrics> profitable =
-            CarAnalytics.inventoryProfitabilityRanking(cars, 15);
+    List<CarAnalytics.InventoryMetrics> profitable = report.getInventoryProfitabilityRanking();
     int rank = 1;
     for (CarAnalytics.InventoryMetrics metric : profitable) {
       System.out.printf("   %2d. %s%n", rank++, metric);
@@ -190,14 +222,9 @@ public class Main {
 
     System.out.println("19. MARKET SUMMARY");
     System.out.printf("   Overall average: %s%n",
-            CarAnalytics.formatPrice(CarAnalytics.averageSellingPrice(cars)));
+            CarAnalytics.formatPrice(report.getAverageSellingPrice()));
     System.out.println("   Top 5 makes by volume:");
-    Map<String, Long> makeVolume = cars.stream()
-            .collect(java.util.stream.Collectors.groupingBy(
-                    CarPricePOJO::getMake,
-                    java.util.stream.Collectors.counting()
-            ));
-    CarAnalytics.sortByLongValueDesc(makeVolume).entrySet().stream()
+    CarAnalytics.sortByLongValueDesc(report.getSalesCountByMake()).entrySet().stream()
             .limit(5)
             .forEach(e -> System.out.printf("      %-15s -> %,d units%n", e.getKey(), e.getValue()));
   }
@@ -0,0 +1,101 @@
+package com.a2;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.stream.Collector;
+
+/**
+ * Parallel execution of any {@link Collector}, e.g. the {@link CarAnalytics} report collectors.
+ * The list is split into contiguous index ranges; each range is collected into its own fresh
+ * container on a worker of a dedicated fork-join pool, and the containers are merged pairwise
+ * with the collector's combiner, the right neighbour's container always into the left one's.
+ *
+ * <p>Because every merge keeps encounter order, the result equals a sequential collect whenever
+ * the combiner is exact: counts and int averages are long sums, group maps are merged left to
+ * right so hash maps end up with the same insertion order, and the double averages use
+ * {@link ExactSum}.
+ */
+public final class ParallelCollect {
+
+  /**
+   * Ranges smaller than this are never split further.
+   */
+  static final int MIN_LEAF_SIZE = 4096;
+
+  private ParallelCollect() {
+  }
+
+  /**
+   * Collects the items using up to {@code parallelism} threads.
+   */
+  public static <T, A, R> R collect(List<? extends T> items, Collector<? super T, A, R> collector,
+                                    int parallelism) {
+    return collector.finisher().apply(accumulate(items, collector, parallelism, MIN_LEAF_SIZE));
+  }
+
+  /**
+   * Runs the fork-join tree and returns the merged, unfinished container.
+   */
+  static <T, A> A accumulate(List<? extends T> items, Collector<? super T, A, ?> collector,
+                             int parallelism, int minLeafSize) {
+    if (parallelism <= 0) {
+      throw new IllegalArgumentException("Parallelism must be positive");
+    }
+    // A few leaves per thread lets work stealing even out uneven ranges.
+    int leafSize = Math.max(minLeafSize, ceilDiv(items.size(), parallelism * 4));
+    if (parallelism == 1 || items.size() <= leafSize) {
+      return new RangeTask<>(items, collector, 0, items.size(), leafSize).collectRange();
+    }
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      return pool.invoke(new RangeTask<>(items, collector, 0, items.size(), leafSize));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private static int ceilDiv(int x, int y) {
+    return (x + y - 1) / y;
+  }
+
+  private static final class RangeTask<T, A> extends RecursiveTask<A> {
+    private static final long serialVersionUID = 1L;
+
+    private final List<? extends T> items;
+    private final Collector<? super T, A, ?> collector;
+    private final int from;
+    private final int to;
+    private final int leafSize;
+
+    RangeTask(List<? extends T> items, Collector<? super T, A, ?> collector, int from, int to, int leafSize) {
+      this.items = items;
+      this.collector = collector;
+      this.from = from;
+      this.to = to;
+      this.leafSize = leafSize;
+    }
+
+    @Override
+    protected A compute() {
+      if (to - from <= leafSize) {
+        return collectRange();
+      }
+      int mid = (from + to) >>> 1;
+      RangeTask<T, A> left = new RangeTask<>(items, collector, from, mid, leafSize);
+      left.fork();
+      A right = new RangeTask<>(items, collector, mid, to, leafSize).compute();
+      return collector.combiner().apply(left.join(), right);
+    }
+
+    A collectRange() {
+      A container = collector.supplier().get();
+      BiConsumer<A, ? super T> accumulator = collector.accumulator();
+      for (int i = from; i < to; i++) {
+        accumulator.accept(container, items.get(i));
+      }
+      return container;
+    }
+  }
+}
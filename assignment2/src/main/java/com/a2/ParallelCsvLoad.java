@@ -0,0 +1,279 @@
+package com.a2;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Parallel CSV load over a memory-mapped file. The file is cut into byte ranges that start and end
+ * on line boundaries; each range is mapped and tokenized by its own fork-join task into a fresh
+ * result container, and the containers are merged in file order. Lines that are plain ASCII are
+ * tokenized straight from the mapped bytes, since every delimiter is ASCII; only lines holding
+ * other characters are decoded from UTF-8.
+ *
+ * @param <R> the per-chunk result container, e.g. a list of records or a column builder
+ */
+final class ParallelCsvLoad<R> {
+
+  static final int DEFAULT_CHUNK_BYTES = 8 * 1024 * 1024;
+
+  /**
+   * Parses one data line, {@code text[from, to)}, and adds it to the chunk's container.
+   */
+  @FunctionalInterface
+  interface RowParser<R> {
+    void parse(CsvTokenizer tokenizer, CharSequence text, int from, int to, R into);
+  }
+
+  private final Supplier<R> containers;
+  private final RowParser<R> parser;
+  private final BinaryOperator<R> merger;
+
+  /**
+   * Creates a load that parses every chunk into a new container and merges the left container
+   * with the right one; the merger may return either, modified.
+   */
+  ParallelCsvLoad(Supplier<R> containers, RowParser<R> parser, BinaryOperator<R> merger) {
+    this.containers = containers;
+    this.parser = parser;
+    this.merger = merger;
+  }
+
+  R load(Path csvPath, int chunkBytes) throws IOException {
+    return load(csvPath, 0, Long.MAX_VALUE, chunkBytes);
+  }
+
+  /**
+   * Loads only the lines in bytes {@code [from, to)} of the file, where {@code from} must be the
+   * start of a line; {@code to} is capped at the file size. The header is skipped only when
+   * {@code from} is 0.
+   */
+  R load(Path csvPath, long from, long to, int chunkBytes) throws IOException {
+    if (chunkBytes <= 0) {
+      throw new IllegalArgumentException("Chunk size must be positive");
+    }
+    try (FileChannel channel = FileChannel.open(csvPath, StandardOpenOption.READ)) {
+      long[] bounds = chunkBounds(channel, from, Math.min(to, channel.size()), chunkBytes);
+      try {
+        return ForkJoinPool.commonPool().invoke(new ChunkTask(channel, bounds, 0, bounds.length - 1));
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+    }
+  }
+
+  /**
+   * Returns chunk boundaries: every boundary after the first is moved forward to the start of the
+   * next line, so no line is split between chunks.
+   */
+  static long[] chunkBounds(FileChannel channel, int chunkBytes) throws IOException {
+    return chunkBounds(channel, 0, channel.size(), chunkBytes);
+  }
+
+  static long[] chunkBounds(FileChannel channel, long from, long size, int chunkBytes) throws IOException {
+    List<Long> bounds = new ArrayList<>();
+    bounds.add(from);
+    ByteBuffer probe = ByteBuffer.allocate(8192);
+    long last = from;
+    for (long nominal = from + chunkBytes; nominal < size; nominal += chunkBytes) {
+      if (nominal <= last) {
+        continue;
+      }
+      long aligned = nextLineStart(channel, nominal, size, probe);
+      if (aligned > last && aligned < size) {
+        bounds.add(aligned);
+        last = aligned;
+      }
+    }
+    bounds.add(size);
+    long[] result = new long[bounds.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = bounds.get(i);
+    }
+    return result;
+  }
+
+  private static long nextLineStart(FileChannel channel, long from, long size, ByteBuffer probe)
+          throws IOException {
+    // A line starts right after a newline, so look for one at or after the byte before 'from'.
+    long pos = from - 1;
+    while (pos < size) {
+      probe.clear();
+      int read = channel.read(probe, pos);
+      if (read <= 0) {
+        break;
+      }
+      for (int i = 0; i < read; i++) {
+        if (probe.get(i) == '\n') {
+          return pos + i + 1;
+        }
+      }
+      pos += read;
+    }
+    return size;
+  }
+
+  private final class ChunkTask extends RecursiveTask<R> {
+    private static final long serialVersionUID = 1L;
+
+    private final FileChannel channel;
+    private final long[] bounds;
+    private final int first;
+    private final int last;
+
+    ChunkTask(FileChannel channel, long[] bounds, int first, int last) {
+      this.channel = channel;
+      this.bounds = bounds;
+      this.first = first;
+      this.last = last;
+    }
+
+    @Override
+    protected R compute() {
+      if (last - first == 1) {
+        return parseChunk();
+      }
+      int mid = (first + last) >>> 1;
+      ChunkTask left = new ChunkTask(channel, bounds, first, mid);
+      left.fork();
+      R right = new ChunkTask(channel, bounds, mid, last).compute();
+      return merger.apply(left.join(), right);
+    }
+
+    private R parseChunk() {
+      long start = bounds[first];
+      long length = bounds[last] - start;
+      R rows = containers.get();
+      if (length == 0) {
+        return rows;
+      }
+      MappedByteBuffer mapped;
+      try {
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+
+      // ASCII lines are tokenized straight from the mapped bytes; only lines with other
+      // characters are decoded, one at a time into a reused buffer.
+      AsciiText ascii = new AsciiText(mapped, 0, mapped.limit());
+      CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+      CharBuffer decoded = CharBuffer.allocate(256);
+      CsvTokenizer tokenizer = new CsvTokenizer();
+      int end = mapped.limit();
+      int lineStart = 0;
+      // The first line of the file is the header.
+      boolean skip = start == 0;
+      while (lineStart < end) {
+        int lineEnd = lineStart;
+        boolean isAscii = true;
+        byte b;
+        while (lineEnd < end && (b = mapped.get(lineEnd)) != '\n') {
+          isAscii &= b >= 0;
+          lineEnd++;
+        }
+        int next = lineEnd + 1;
+        if (lineEnd > lineStart && mapped.get(lineEnd - 1) == '\r') {
+          lineEnd--;
+        }
+        if (skip) {
+          skip = false;
+        } else if (isAscii) {
+          if (!isBlank(ascii, lineStart, lineEnd)) {
+            parser.parse(tokenizer, ascii, lineStart, lineEnd, rows);
+          }
+        } else {
+          decoded = decode(decoder, mapped, lineStart, lineEnd, decoded, start);
+          if (!isBlank(decoded, 0, decoded.limit())) {
+            parser.parse(tokenizer, decoded, 0, decoded.limit(), rows);
+          }
+        }
+        lineStart = next;
+      }
+      return rows;
+    }
+
+    /**
+     * Decodes bytes {@code [from, to)} of the chunk into the buffer, or a larger one if it is too
+     * small, and returns it flipped for reading.
+     */
+    private CharBuffer decode(CharsetDecoder decoder, ByteBuffer bytes, int from, int to, CharBuffer into,
+                              long chunkStart) {
+      CharBuffer out = into.capacity() >= to - from
+              ? into : CharBuffer.allocate(Math.max(to - from, into.capacity() * 2));
+      out.clear();
+      decoder.reset();
+      try {
+        CoderResult result = decoder.decode(bytes.duplicate().position(from).limit(to), out, true);
+        if (result.isError()) {
+          result.throwException();
+        }
+      } catch (CharacterCodingException e) {
+        throw new UncheckedIOException("Invalid UTF-8 in bytes " + (chunkStart + from) + "-" + (chunkStart + to), e);
+      }
+      decoder.flush(out);
+      return out.flip();
+    }
+
+    private static boolean isBlank(CharSequence text, int from, int to) {
+      for (int i = from; i < to; i++) {
+        if (!Character.isWhitespace(text.charAt(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Read-only view of ASCII bytes as characters, without copying them.
+   */
+  static final class AsciiText implements CharSequence {
+    private final ByteBuffer bytes;
+    private final int offset;
+    private final int length;
+
+    AsciiText(ByteBuffer bytes, int offset, int length) {
+      this.bytes = bytes;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+      return (char) bytes.get(offset + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return new AsciiText(bytes, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+      byte[] copy = new byte[length];
+      bytes.get(offset, copy);
+      return new String(copy, StandardCharsets.US_ASCII);
+    }
+  }
+}
@@ -0,0 +1,221 @@
+package com.a2;
+
+import java.io.Serializable;
+import java.time.Month;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Running totals for every report in {@link CarReport}, kept in a form that can be saved and merged.
+ * Adding rows in file order, or merging the aggregates of consecutive row ranges left to right,
+ * gives exactly the report {@link CarReport#compute} gives over all the rows. Groups are kept in
+ * first-seen order so the finished maps are filled in the same order the collectors fill theirs,
+ * and ties in the rankings resolve the same way.
+ */
+final class ReportAggregates implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Count, sum, min and max of int values. Sums are exact longs, so merging is exact.
+   */
+  static final class IntStats implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private long count;
+    private long sum;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+
+    void add(int value) {
+      count++;
+      sum += value;
+      min = Math.min(min, value);
+      max = Math.max(max, value);
+    }
+
+    IntStats merge(IntStats other) {
+      count += other.count;
+      sum += other.sum;
+      min = Math.min(min, other.min);
+      max = Math.max(max, other.max);
+      return this;
+    }
+
+    double average() {
+      return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    DoubleSummaryStatistics toSummary() {
+      return count == 0 ? new DoubleSummaryStatistics() : new DoubleSummaryStatistics(count, min, max, sum);
+    }
+  }
+
+  private long rows;
+  private final IntStats price = new IntStats();
+  private final LinkedHashMap<String, IntStats> priceByMake = new LinkedHashMap<>();
+  private final LinkedHashMap<String, IntStats> priceByMakeModel = new LinkedHashMap<>();
+  private final LinkedHashMap<String, Long> countByState = new LinkedHashMap<>();
+  private final LinkedHashMap<String, IntStats> odometerByMake = new LinkedHashMap<>();
+  private final LinkedHashMap<String, IntStats> deltaByMake = new LinkedHashMap<>();
+  private final LinkedHashMap<Integer, Long> countByYear = new LinkedHashMap<>();
+  private final LinkedHashMap<YearMonth, IntStats> priceByYearMonth = new LinkedHashMap<>();
+  private final LinkedHashMap<String, Long> countByMakeModel = new LinkedHashMap<>();
+  private final LinkedHashMap<String, Long> countByBody = new LinkedHashMap<>();
+  // Best deals so far, trimmed to the top TOP_N now and then; see trimDeals.
+  private final ArrayList<CarPricePOJO> deals = new ArrayList<>();
+  private final LinkedHashMap<String, ExactSum> valuePerYearByMake = new LinkedHashMap<>();
+  private final LinkedHashMap<Month, IntStats> priceByMonth = new LinkedHashMap<>();
+  private final LinkedHashMap<String, IntStats> priceByMileage = new LinkedHashMap<>();
+  private final TreeMap<Integer, IntStats> priceByCondition = new TreeMap<>();
+  private final LinkedHashMap<String, LinkedHashMap<String, IntStats>> priceByModelAndState = new LinkedHashMap<>();
+  private final LinkedHashMap<String, ExactSum> markupBySeller = new LinkedHashMap<>();
+  private final LinkedHashMap<String, IntStats> profitByMakeModel = new LinkedHashMap<>();
+  private final LinkedHashMap<String, Long> countByMake = new LinkedHashMap<>();
+
+  long getRowCount() {
+    return rows;
+  }
+
+  /**
+   * Adds one row, applying the same filters as the {@link CarAnalytics} collectors.
+   */
+  void add(CarPricePOJO car) {
+    int sellingPrice = car.getSellingPrice();
+    String makeModel = car.getMakeModelKey();
+    rows++;
+    price.add(sellingPrice);
+    stats(priceByMake, car.getMake()).add(sellingPrice);
+    stats(priceByMakeModel, makeModel).add(sellingPrice);
+    countByState.merge(car.getState(), 1L, Long::sum);
+    if (car.getOdometer() > 0) {
+      stats(odometerByMake, car.getMake()).add(car.getOdometer());
+      stats(priceByMileage, CarAnalytics.mileageBracket(car.getOdometer())).add(sellingPrice);
+    }
+    countByYear.merge(car.getYear(), 1L, Long::sum);
+    stats(priceByYearMonth, car.getSaleYearMonth()).add(sellingPrice);
+    countByMakeModel.merge(makeModel, 1L, Long::sum);
+    countByBody.merge(car.getBody(), 1L, Long::sum);
+    if (CarAnalytics.isDeal(car, CarReport.DEAL_THRESHOLD_PERCENT)) {
+      deals.add(car);
+      if (deals.size() >= 4 * CarReport.TOP_N) {
+        trimDeals();
+      }
+    }
+    if (car.getYear() < CarReport.CURRENT_YEAR) {
+      valuePerYearByMake.computeIfAbsent(car.getMake(), k -> new ExactSum())
+              .add(CarAnalytics.valuePerYearOfAge(car, CarReport.CURRENT_YEAR));
+    }
+    stats(priceByMonth, car.getSaleMonth()).add(sellingPrice);
+    stats(priceByCondition, car.getCondition()).add(sellingPrice);
+    stats(priceByModelAndState.computeIfAbsent(makeModel, k -> new LinkedHashMap<>()), car.getState())
+            .add(sellingPrice);
+    if (car.getMmr() > 0) {
+      int delta = sellingPrice - car.getMmr();
+      stats(deltaByMake, car.getMake()).add(delta);
+      markupBySeller.computeIfAbsent(car.getSeller(), k -> new ExactSum()).add(CarAnalytics.markupPercent(car));
+      stats(profitByMakeModel, makeModel).add(delta);
+    }
+    countByMake.merge(car.getMake(), 1L, Long::sum);
+  }
+
+  /**
+   * Adds the aggregates of the rows that follow this one's in the file and returns this.
+   */
+  ReportAggregates merge(ReportAggregates next) {
+    rows += next.rows;
+    price.merge(next.price);
+    mergeStats(priceByMake, next.priceByMake);
+    mergeStats(priceByMakeModel, next.priceByMakeModel);
+    mergeCounts(countByState, next.countByState);
+    mergeStats(odometerByMake, next.odometerByMake);
+    mergeStats(deltaByMake, next.deltaByMake);
+    mergeCounts(countByYear, next.countByYear);
+    mergeStats(priceByYearMonth, next.priceByYearMonth);
+    mergeCounts(countByMakeModel, next.countByMakeModel);
+    mergeCounts(countByBody, next.countByBody);
+    deals.addAll(next.deals);
+    trimDeals();
+    next.valuePerYearByMake.forEach((make, sum) -> valuePerYearByMake.merge(make, sum, ExactSum::combine));
+    mergeStats(priceByMonth, next.priceByMonth);
+    mergeStats(priceByMileage, next.priceByMileage);
+    mergeStats(priceByCondition, next.priceByCondition);
+    next.priceByModelAndState.forEach((model, byState) ->
+            mergeStats(priceByModelAndState.computeIfAbsent(model, k -> new LinkedHashMap<>()), byState));
+    next.markupBySeller.forEach((seller, sum) -> markupBySeller.merge(seller, sum, ExactSum::combine));
+    mergeStats(profitByMakeModel, next.profitByMakeModel);
+    mergeCounts(countByMake, next.countByMake);
+    return this;
+  }
+
+  CarReport toReport() {
+    List<CarPricePOJO> bestDeals = new ArrayList<>(deals);
+    CarAnalytics.sortBySavingDesc(bestDeals);
+    Map<String, Long> modelVolume = inOrder(countByMakeModel, Function.identity());
+    Map<String, Map<String, Double>> regional = new LinkedHashMap<>();
+    priceByModelAndState.forEach((model, byState) -> regional.put(model, inOrder(byState, IntStats::average)));
+    Map<Integer, DoubleSummaryStatistics> byCondition = new TreeMap<>();
+    priceByCondition.forEach((condition, stats) -> byCondition.put(condition, stats.toSummary()));
+
+    return new CarReport(
+            rows,
+            price.average(),
+            inOrder(priceByMake, IntStats::average),
+            inOrder(priceByMakeModel, IntStats::average),
+            inOrder(countByState, Function.identity()),
+            inOrder(odometerByMake, IntStats::average),
+            inOrder(deltaByMake, IntStats::toSummary),
+            inOrder(countByYear, Function.identity()),
+            inOrder(priceByYearMonth, IntStats::average),
+            CarAnalytics.topByValue(modelVolume, CarReport.TOP_N),
+            inOrder(countByBody, Function.identity()),
+            List.copyOf(bestDeals.subList(0, Math.min(CarReport.TOP_N, bestDeals.size()))),
+            inOrder(valuePerYearByMake, ExactSum::getAverage),
+            inOrder(priceByMonth, IntStats::average),
+            inOrder(priceByMileage, IntStats::average),
+            byCondition,
+            CarAnalytics.regionalForTopModels(regional, modelVolume, CarReport.REGIONAL_TOP_MODELS),
+            inOrder(markupBySeller, ExactSum::getAverage),
+            CarAnalytics.rankInventory(inOrder(profitByMakeModel, IntStats::toSummary), CarReport.INVENTORY_TOP_N),
+            inOrder(countByMake, Function.identity()));
+  }
+
+  /**
+   * Keeps only the top deals. The sort is stable and kept deals always precede later ones, so ties
+   * stay in file order as in {@link CarAnalytics#findBestDeals}.
+   */
+  private void trimDeals() {
+    CarAnalytics.sortBySavingDesc(deals);
+    if (deals.size() > CarReport.TOP_N) {
+      deals.subList(CarReport.TOP_N, deals.size()).clear();
+    }
+  }
+
+  private static <K> IntStats stats(Map<K, IntStats> groups, K key) {
+    return groups.computeIfAbsent(key, k -> new IntStats());
+  }
+
+  private static <K> void mergeStats(Map<K, IntStats> into, Map<K, IntStats> from) {
+    from.forEach((key, stats) -> into.merge(key, stats, IntStats::merge));
+  }
+
+  private static <K> void mergeCounts(Map<K, Long> into, Map<K, Long> from) {
+    from.forEach((key, count) -> into.merge(key, count, Long::sum));
+  }
+
+  /**
+   * Copies groups into a new HashMap one by one in first-seen order, as groupingBy fills its map.
+   */
+  private static <K, V, R> Map<K, R> inOrder(Map<K, V> groups, Function<V, R> finisher) {
+    Map<K, R> result = new HashMap<>();
+    groups.forEach((key, value) -> result.put(key, finisher.apply(value)));
+    return result;
+  }
+}
@@ -0,0 +1,209 @@
+package com.a2;
+
+import java.time.LocalDateTime;
+import java.time.Month;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Parser for the dataset's fixed sale-date layout, {@code EEE MMM dd yyyy HH:mm:ss} followed by a
+ * time zone that is ignored, e.g. {@code Tue Dec 16 2014 12:30:00 GMT-0800 (PST)}. Digits are read by
+ * position and the month abbreviation is matched with a switch; the day-of-week is not checked.
+ * Dates are returned as seconds since 1970-01-01T00:00 with the local time read as UTC, which
+ * needs no object per row. Month keys for the reports are derived from the epoch day by arithmetic.
+ */
+final class SaleDateParser {
+
+  /** Value used when the field is missing or too short, matching {@code 1970-01-01T00:00}. */
+  static final long FALLBACK_EPOCH_SECONDS = 0;
+
+  static final int SECONDS_PER_DAY = 86_400;
+  private static final int LAYOUT_LENGTH = 24;
+
+  // Year-month keys for 1970 to 2169, created on first use. YearMonth is immutable, so threads
+  // racing on a slot at worst create equal values twice.
+  private static final YearMonth[] YEAR_MONTHS = new YearMonth[200 * 12];
+
+  private SaleDateParser() {
+  }
+
+  /**
+   * Parses the sale date in {@code text[from, to)} to epoch seconds. Fields shorter than the layout
+   * give {@link #FALLBACK_EPOCH_SECONDS}. A day past the end of the month is moved back to the last
+   * day, as {@code DateTimeFormatter} does by default.
+   *
+   * @throws DateTimeParseException if the field does not match the layout
+   */
+  static long parseEpochSeconds(CharSequence text, int from, int to) {
+    if (to - from < LAYOUT_LENGTH) {
+      return FALLBACK_EPOCH_SECONDS;
+    }
+    if (text.charAt(from + 3) != ' ' || text.charAt(from + 7) != ' ' || text.charAt(from + 10) != ' '
+            || text.charAt(from + 15) != ' ' || text.charAt(from + 18) != ':' || text.charAt(from + 21) != ':') {
+      throw invalid(text, from, to, "unexpected layout");
+    }
+    int month = month(text, from + 4);
+    if (month == 0) {
+      throw invalid(text, from, to, "unknown month");
+    }
+    int day = digits(text, from, to, 8, 2);
+    int year = digits(text, from, to, 11, 4);
+    int hour = digits(text, from, to, 16, 2);
+    int minute = digits(text, from, to, 19, 2);
+    int second = digits(text, from, to, 22, 2);
+    if (day < 1 || day > 31 || hour > 23 || minute > 59 || second > 59) {
+      throw invalid(text, from, to, "field out of range");
+    }
+    day = Math.min(day, lengthOfMonth(year, month));
+
+    return epochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600L + minute * 60L + second;
+  }
+
+  /**
+   * Parses a whole sale-date string to epoch seconds.
+   */
+  static long parseEpochSeconds(String text) {
+    return text == null ? FALLBACK_EPOCH_SECONDS : parseEpochSeconds(text, 0, text.length());
+  }
+
+  static LocalDateTime toLocalDateTime(long epochSeconds) {
+    return LocalDateTime.ofEpochSecond(epochSeconds, 0, ZoneOffset.UTC);
+  }
+
+  static long toEpochSeconds(LocalDateTime dateTime) {
+    return dateTime.toEpochSecond(ZoneOffset.UTC);
+  }
+
+  /**
+   * Returns the days since 1970-01-01 of a sale time; every four-digit year fits an int.
+   */
+  static int epochDay(long epochSeconds) {
+    return (int) Math.floorDiv(epochSeconds, SECONDS_PER_DAY);
+  }
+
+  static int secondOfDay(long epochSeconds) {
+    return Math.floorMod(epochSeconds, SECONDS_PER_DAY);
+  }
+
+  /**
+   * Returns the year and month of an epoch day as months since 1970-01, without creating a date
+   * object.
+   */
+  static int epochMonth(int epochDay) {
+    long days = epochDay + 719_468L;
+    long era = Math.floorDiv(days, 146_097);
+    long dayOfEra = days - era * 146_097;
+    long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+    long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    long shiftedMonth = (5 * dayOfYear + 2) / 153;
+    int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+    long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+    return (int) ((year - 1970) * 12 + month - 1);
+  }
+
+  /**
+   * Returns the year-month of a month count from {@link #epochMonth}, shared between calls.
+   */
+  static YearMonth yearMonthOf(int epochMonth) {
+    if (epochMonth < 0 || epochMonth >= YEAR_MONTHS.length) {
+      return YearMonth.of(1970 + Math.floorDiv(epochMonth, 12), Math.floorMod(epochMonth, 12) + 1);
+    }
+    YearMonth yearMonth = YEAR_MONTHS[epochMonth];
+    if (yearMonth == null) {
+      yearMonth = YearMonth.of(1970 + epochMonth / 12, epochMonth % 12 + 1);
+      YEAR_MONTHS[epochMonth] = yearMonth;
+    }
+    return yearMonth;
+  }
+
+  /**
+   * Returns the month of the year of a month count from {@link #epochMonth}.
+   */
+  static Month monthOf(int epochMonth) {
+    return Month.of(Math.floorMod(epochMonth, 12) + 1);
+  }
+
+  private static int month(CharSequence text, int at) {
+    char a = text.charAt(at);
+    char b = text.charAt(at + 1);
+    char c = text.charAt(at + 2);
+    switch (a) {
+      case 'J':
+        if (b == 'a' && c == 'n') {
+          return 1;
+        }
+        if (b == 'u' && c == 'n') {
+          return 6;
+        }
+        return b == 'u' && c == 'l' ? 7 : 0;
+      case 'F':
+        return b == 'e' && c == 'b' ? 2 : 0;
+      case 'M':
+        if (b == 'a' && c == 'r') {
+          return 3;
+        }
+        return b == 'a' && c == 'y' ? 5 : 0;
+      case 'A':
+        if (b == 'p' && c == 'r') {
+          return 4;
+        }
+        return b == 'u' && c == 'g' ? 8 : 0;
+      case 'S':
+        return b == 'e' && c == 'p' ? 9 : 0;
+      case 'O':
+        return b == 'c' && c == 't' ? 10 : 0;
+      case 'N':
+        return b == 'o' && c == 'v' ? 11 : 0;
+      case 'D':
+        return b == 'e' && c == 'c' ? 12 : 0;
+      default:
+        return 0;
+    }
+  }
+
+  private static int digits(CharSequence text, int from, int to, int offset, int count) {
+    int value = 0;
+    for (int i = from + offset; i < from + offset + count; i++) {
+      int digit = text.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        throw invalid(text, from, to, "expected a digit at index " + (i - from));
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+
+  private static int lengthOfMonth(int year, int month) {
+    switch (month) {
+      case 2:
+        boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+        return leap ? 29 : 28;
+      case 4:
+      case 6:
+      case 9:
+      case 11:
+        return 30;
+      default:
+        return 31;
+    }
+  }
+
+  /**
+   * Days since 1970-01-01 for a proleptic Gregorian date.
+   */
+  private static long epochDay(int year, int month, int day) {
+    long y = month <= 2 ? year - 1 : year;
+    long era = Math.floorDiv(y, 400);
+    long yearOfEra = y - era * 400;
+    int shiftedMonth = month > 2 ? month - 3 : month + 9;
+    long dayOfYear = (153L * shiftedMonth + 2) / 5 + day - 1;
+    long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146_097 + dayOfEra - 719_468;
+  }
+
+  private static DateTimeParseException invalid(CharSequence text, int from, int to, String reason) {
+    String value = text.subSequence(from, to).toString();
+    return new DateTimeParseException("Text '" + value + "' could not be parsed: " + reason, value, 0);
+  }
+}
@@ -0,0 +1,168 @@
+package com.a2;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * Intern table that maps the distinct values of a low-cardinality text column to small int codes
+ * and one shared String per value. Lookups hash the characters in place and compare them against
+ * the stored raw text, so a value that has been seen before costs no allocation. An optional
+ * normalizer lets several raw spellings share a code, e.g. "sedan" and "Sedan".
+ *
+ * <p>Lookups are lock-free and may run from several loader threads at once; only adding a new
+ * value takes the lock.
+ */
+public class StringDictionary {
+
+  /**
+   * Raw text seen in the input and the code it maps to. Final fields make an entry safe to read
+   * as soon as its reference is visible.
+   */
+  private static final class Entry {
+    final String raw;
+    final int hash;
+    final int code;
+
+    Entry(String raw, int hash, int code) {
+      this.raw = raw;
+      this.hash = hash;
+      this.code = code;
+    }
+  }
+
+  private final UnaryOperator<String> normalizer;
+  private final Map<String, Integer> codesByValue = new HashMap<>();
+  private volatile Entry[] table = new Entry[64];
+  private volatile String[] values = new String[16];
+  private int entryCount;
+  private volatile int size;
+
+  public StringDictionary() {
+    this(UnaryOperator.identity());
+  }
+
+  /**
+   * Creates a dictionary that stores normalizer(raw) as the value for each raw text.
+   */
+  public StringDictionary(UnaryOperator<String> normalizer) {
+    this.normalizer = normalizer;
+  }
+
+  /**
+   * Returns the code for the characters in {@code text[from, to)}, adding the value if it is new.
+   */
+  public int intern(CharSequence text, int from, int to) {
+    int hash = hash(text, from, to);
+    Entry[] current = table;
+    int mask = current.length - 1;
+    for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+      Entry entry = current[slot];
+      if (entry == null) {
+        // Possibly added by another thread but not visible yet; settle it under the lock.
+        return internSlow(text, from, to, hash);
+      }
+      if (entry.hash == hash && contentEquals(entry.raw, text, from, to)) {
+        return entry.code;
+      }
+    }
+  }
+
+  public int intern(CharSequence text) {
+    return intern(text, 0, text.length());
+  }
+
+  /**
+   * Returns the shared String for a code.
+   */
+  public String value(int code) {
+    if (code < 0 || code >= size) {
+      throw new IndexOutOfBoundsException("Unknown code " + code);
+    }
+    return values[code];
+  }
+
+  /**
+   * Returns the number of distinct values, which is also one more than the highest code.
+   */
+  public int size() {
+    return size;
+  }
+
+  private synchronized int internSlow(CharSequence text, int from, int to, int hash) {
+    Entry[] current = table;
+    int mask = current.length - 1;
+    int slot = hash & mask;
+    for (Entry entry = current[slot]; entry != null; entry = current[slot]) {
+      if (entry.hash == hash && contentEquals(entry.raw, text, from, to)) {
+        return entry.code;
+      }
+      slot = (slot + 1) & mask;
+    }
+
+    String raw = text.subSequence(from, to).toString();
+    String value = normalizer.apply(raw);
+    Integer code = codesByValue.get(value);
+    if (code == null) {
+      code = size;
+      String[] currentValues = values;
+      if (code == currentValues.length) {
+        currentValues = Arrays.copyOf(currentValues, code * 2);
+      }
+      currentValues[code] = value;
+      values = currentValues;
+      codesByValue.put(value, code);
+      size = code + 1;
+    }
+
+    // Keep the table at most half full so probe sequences stay short.
+    if (2 * (entryCount + 1) > current.length) {
+      current = grow(current);
+      mask = current.length - 1;
+      slot = hash & mask;
+      while (current[slot] != null) {
+        slot = (slot + 1) & mask;
+      }
+    }
+    current[slot] = new Entry(raw, hash, code);
+    entryCount++;
+    table = current;
+    return code;
+  }
+
+  private static Entry[] grow(Entry[] old) {
+    Entry[] grown = new Entry[old.length * 2];
+    int mask = grown.length - 1;
+    for (Entry entry : old) {
+      if (entry != null) {
+        int slot = entry.hash & mask;
+        while (grown[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        grown[slot] = entry;
+      }
+    }
+    return grown;
+  }
+
+  private static int hash(CharSequence text, int from, int to) {
+    int h = 0;
+    for (int i = from; i < to; i++) {
+      h = 31 * h + text.charAt(i);
+    }
+    return h ^ (h >>> 16);
+  }
+
+  private static boolean contentEquals(String raw, CharSequence text, int from, int to) {
+    if (raw.length() != to - from) {
+      return false;
+    }
+    for (int i = 0; i < raw.length(); i++) {
+      if (raw.charAt(i) != text.charAt(from + i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -5,6 +5,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 /**
@@ -73,4 +74,204 @@ public class CarCsvLoaderTest {
     assertEquals(12, saleDate.getHour());
     assertEquals(30, saleDate.getMinute());
   }
-}
\ No newline at end of file
+
+  /**
+   * Verifies the stream parses rows lazily, so rows after the ones consumed are never parsed.
+   */
+  @Test
+  void testStreamParsesLazily() throws IOException {
+    Path tempCsv = Files.createTempFile("car_prices_stream", ".csv");
+    String header = "year,make,model,trim,body,transmission,vin,state,condition,odometer,color,interior,seller,mmr,sellingprice,saledate";
+    String row = "2014,Toyota,Camry,LE,Sedan,Automatic,1NXBR32E54Z,CA,4,60000,Blue,Cloth,DealerA,8000,8500,Tue Dec 16 2014 12:30:00 GMT-0800 (PST)";
+    Files.write(tempCsv, String.join(System.lineSeparator(), header, row, "not,a,valid,row").getBytes());
+
+    CarCsvLoader loader = new CarCsvLoader();
+    try (var cars = loader.stream(tempCsv)) {
+      CarPricePOJO first = cars.findFirst().orElseThrow();
+      assertEquals("Toyota", first.getMake());
+    }
+    assertThrows(IllegalArgumentException.class, () -> loader.load(tempCsv));
+  }
+
+  /**
+   * Verifies forEach pushes every row to the callback and returns the row count.
+   */
+  @Test
+  void testForEachPushesEveryRow() throws IOException {
+    Path tempCsv = Files.createTempFile("car_prices_callback", ".csv");
+    String header = "year,make,model,trim,body,transmission,vin,state,condition,odometer,color,interior,seller,mmr,sellingprice,saledate";
+    String first = "2014,Toyota,Camry,LE,Sedan,Automatic,VIN1,CA,4,60000,Blue,Cloth,DealerA,8000,8500,Tue Dec 16 2014 12:30:00 GMT-0800 (PST)";
+    String second = "2013,Honda,Accord,EX,sedan,Automatic,VIN2,TX,3,45000,Black,Leather,DealerB,9000,9100,Wed Jan 14 2015 09:15:00 GMT-0800 (PST)";
+    Files.write(tempCsv, String.join(System.lineSeparator(), header, first, "", second).getBytes());
+
+    long[] priceSum = new long[1];
+    long rows = new CarCsvLoader().forEach(tempCsv, car -> priceSum[0] += car.getSellingPrice());
+
+    assertEquals(2, rows);
+    assertEquals(17600, priceSum[0]);
+  }
+
+  /**
+   * Verifies quoted fields may contain commas and doubled quotes, and still count as one column.
+   */
+  @Test
+  void testQuotedFieldsWithCommas() throws IOException {
+    Path tempCsv = Files.createTempFile("car_prices_quoted", ".csv");
+    String header = "year,make,model,trim,body,transmission,vin,state,condition,odometer,color,interior,seller,mmr,sellingprice,saledate";
+    String row = "2014,Toyota,Camry,LE,Sedan,Automatic,VIN1,CA,4,60000,Blue,Cloth,"
+            + "\"Dealer, \"\"Best\"\" Inc\",8000,8500,Tue Dec 16 2014 12:30:00 GMT-0800 (PST)";
+    Files.write(tempCsv, (header + System.lineSeparator() + row).getBytes());
+
+    CarPricePOJO r = new CarCsvLoader().load(tempCsv).get(0);
+
+    assertEquals("Dealer, \"Best\" Inc", r.getSeller());
+    assertEquals(8000, r.getMmr());
+    assertEquals(8500, r.getSellingPrice());
+  }
+
+  /**
+   * Verifies numeric fields are trimmed, blanks and em dashes read as 0 and bad numbers are rejected.
+   */
+  @Test
+  void testTokenizerParsesIntsInPlace() {
+    CsvTokenizer tokenizer = new CsvTokenizer();
+
+    assertEquals(5, tokenizer.tokenize(" 42 ,,—,-17,2147483647"));
+    assertEquals(42, tokenizer.parseInt(0));
+    assertEquals(0, tokenizer.parseInt(1));
+    assertEquals(0, tokenizer.parseInt(2));
+    assertEquals(-17, tokenizer.parseInt(3));
+    assertEquals(Integer.MAX_VALUE, tokenizer.parseInt(4));
+
+    tokenizer.tokenize("12a,2147483648,-");
+    assertThrows(NumberFormatException.class, () -> tokenizer.parseInt(0));
+    assertThrows(NumberFormatException.class, () -> tokenizer.parseInt(1));
+    assertThrows(NumberFormatException.class, () -> tokenizer.parseInt(2));
+  }
+
+  /**
+   * Verifies the parallel chunked load returns the same rows in the same order as the sequential load,
+   * with chunks small enough to cut through most lines.
+   */
+  @Test
+  void testLoadParallelMatchesLoad() throws IOException {
+    Path tempCsv = Files.createTempFile("car_prices_parallel", ".csv");
+    StringBuilder csv = new StringBuilder("year,make,model,trim,body,transmission,vin,state,condition,odometer,color,interior,seller,mmr,sellingprice,saledate\r\n");
+    for (int i = 0; i < 200; i++) {
+      csv.append(2000 + i % 15).append(",Make").append(i % 7).append(",Model").append(i % 11)
+              .append(",LE,sedan,automatic,VIN").append(i).append(",ca,").append(i % 5)
+              .append(',').append(i % 3 == 0 ? "—" : String.valueOf(i * 1000))
+              .append(",white,black,\"Dealer, ").append(i % 4).append("\",")
+              .append(8000 + i).append(',').append(7500 + i)
+              .append(",Tue Dec 16 2014 12:30:00 GMT-0800 (PST)").append(i % 2 == 0 ? "\r\n" : "\n");
+      if (i % 50 == 0) {
+        csv.append('\n');
+      }
+    }
+    Files.write(tempCsv, csv.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
+
+    CarCsvLoader loader = new CarCsvLoader();
+    List<String> expected = loader.load(tempCsv).stream().map(CarPricePOJO::toString).toList();
+
+    assertEquals(200, expected.size());
+    for (int chunkBytes : new int[] {1, 97, 4096, 1 << 20}) {
+      List<String> actual = loader.loadParallel(tempCsv, chunkBytes).stream()
+              .map(CarPricePOJO::toString).toList();
+      assertEquals(expected, actual, "chunk size " + chunkBytes);
+    }
+  }
+
+  /**
+   * Verifies the fixed-layout sale date parser agrees with DateTimeFormatter across many dates.
+   */
+  @Test
+  void testSaleDateParserMatchesFormatter() {
+    java.time.format.DateTimeFormatter formatter =
+            java.time.format.DateTimeFormatter.ofPattern("EEE MMM dd yyyy HH:mm:ss", java.util.Locale.ENGLISH);
+    LocalDateTime dateTime = LocalDateTime.of(1999, 12, 31, 23, 59, 58);
+    for (int i = 0; i < 500; i++) {
+      String text = dateTime.format(formatter) + " GMT-0800 (PST)";
+      long epoch = SaleDateParser.parseEpochSeconds(text);
+      assertEquals(LocalDateTime.parse(text.substring(0, 24), formatter), SaleDateParser.toLocalDateTime(epoch), text);
+      dateTime = dateTime.plusHours(331).plusSeconds(37);
+    }
+  }
+
+  /**
+   * Verifies short values fall back to 1970-01-01 and malformed values are rejected.
+   */
+  @Test
+  void testSaleDateParserFallbackAndErrors() {
+    assertEquals(LocalDateTime.of(1970, 1, 1, 0, 0),
+            SaleDateParser.toLocalDateTime(SaleDateParser.parseEpochSeconds("")));
+    assertEquals(LocalDateTime.of(2015, 2, 28, 10, 0),
+            SaleDateParser.toLocalDateTime(SaleDateParser.parseEpochSeconds("Sat Feb 30 2015 10:00:00")));
+    assertEquals(LocalDateTime.of(2041, 3, 9, 8, 15),
+            SaleDateParser.toLocalDateTime(SaleDateParser.parseEpochSeconds("Sat Mar 09 2041 08:15:00")));
+    assertThrows(java.time.format.DateTimeParseException.class,
+            () -> SaleDateParser.parseEpochSeconds("Tue Dek 16 2014 12:30:00 GMT-0800 (PST)"));
+    assertThrows(java.time.format.DateTimeParseException.class,
+            () -> SaleDateParser.parseEpochSeconds("Tue Dec 16 2014 25:30:00 GMT-0800 (PST)"));
+    assertThrows(java.time.format.DateTimeParseException.class,
+            () -> SaleDateParser.parseEpochSeconds("Tue Dec 1x 2014 12:30:00 GMT-0800 (PST)"));
+  }
+
+  /**
+   * Verifies the dictionary hands out one code and String per value, also from concurrent threads.
+   */
+  @Test
+  void testStringDictionaryInternsValues() throws InterruptedException {
+    StringDictionary dictionary = new StringDictionary(CarCsvLoader::normalizeBodyStyle);
+
+    int sedan = dictionary.intern("xx sedan yy", 3, 8);
+    assertEquals(sedan, dictionary.intern("Sedan"));
+    assertEquals(sedan, dictionary.intern("SEDAN"));
+    assertEquals("Sedan", dictionary.value(sedan));
+    assertEquals("Unknown", dictionary.value(dictionary.intern("")));
+
+    Thread[] threads = new Thread[4];
+    int[][] codes = new int[threads.length][500];
+    for (int t = 0; t < threads.length; t++) {
+      int thread = t;
+      threads[t] = new Thread(() -> {
+        for (int i = 0; i < 500; i++) {
+          codes[thread][i] = dictionary.intern("body " + i);
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    for (int i = 0; i < 500; i++) {
+      for (int t = 1; t < threads.length; t++) {
+        assertEquals(codes[0][i], codes[t][i]);
+      }
+      assertEquals("Body " + i, dictionary.value(codes[0][i]));
+    }
+    assertEquals(502, dictionary.size());
+  }
+
+  /**
+   * Verifies loaded records share String instances for repeated text values across loads.
+   */
+  @Test
+  void testLoadSharesInternedStrings() throws IOException {
+    Path tempCsv = Files.createTempFile("car_prices_interned", ".csv");
+    String header = "year,make,model,trim,body,transmission,vin,state,condition,odometer,color,interior,seller,mmr,sellingprice,saledate";
+    String first = "2014,Toyota,Camry,LE,sedan,Automatic,VIN1,CA,4,60000,Blue,Cloth,DealerA,8000,8500,Tue Dec 16 2014 12:30:00 GMT-0800 (PST)";
+    String second = "2013,Toyota,Camry,SE,Sedan,Automatic,VIN2,CA,3,45000,Blue,Cloth,DealerA,9000,9100,Wed Jan 14 2015 09:15:00 GMT-0800 (PST)";
+    Files.write(tempCsv, String.join(System.lineSeparator(), header, first, second).getBytes());
+
+    CarDictionaries dictionaries = new CarDictionaries();
+    List<CarPricePOJO> firstLoad = new CarCsvLoader(dictionaries).load(tempCsv);
+    List<CarPricePOJO> secondLoad = new CarCsvLoader(dictionaries).loadParallel(tempCsv);
+
+    assertSame(firstLoad.get(0).getMake(), firstLoad.get(1).getMake());
+    assertSame(firstLoad.get(0).getBody(), firstLoad.get(1).getBody());
+    assertSame(firstLoad.get(0).getSeller(), secondLoad.get(1).getSeller());
+    assertEquals("Sedan", firstLoad.get(0).getBody());
+    assertEquals(1, dictionaries.body().size());
+    assertEquals(2, dictionaries.trim().size());
+  }
+}
@@ -0,0 +1,132 @@
+package com.a2;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the single-pass CarReport and FusedAggregator give the same answers as the CarAnalytics methods.
+ */
+public class CarReportTest {
+
+  private static <K> void assertSameStats(Map<K, DoubleSummaryStatistics> expected,
+                                          Map<K, DoubleSummaryStatistics> actual) {
+    assertEquals(expected.keySet(), actual.keySet());
+    expected.forEach((key, stats) -> assertEquals(stats.toString(), actual.get(key).toString(), String.valueOf(key)));
+  }
+
+  private static List<String> describe(List<?> values) {
+    return values.stream().map(Object::toString).collect(Collectors.toList());
+  }
+
+  static void assertSameReport(List<CarPricePOJO> cars, CarReport report) {
+    assertEquals(cars.size(), report.getRecordCount());
+    assertEquals(CarAnalytics.averageSellingPrice(cars), report.getAverageSellingPrice());
+    assertEquals(CarAnalytics.averageSellingPriceByMake(cars), report.getAverageSellingPriceByMake());
+    assertEquals(CarAnalytics.averageSellingPriceByMakeModel(cars), report.getAverageSellingPriceByMakeModel());
+    assertEquals(CarAnalytics.salesCountByState(cars), report.getSalesCountByState());
+    assertEquals(CarAnalytics.averageOdometerByMake(cars), report.getAverageOdometerByMake());
+    assertSameStats(CarAnalytics.priceDeltaStatsByMake(cars), report.getPriceDeltaStatsByMake());
+    assertEquals(CarAnalytics.salesCountByYear(cars), report.getSalesCountByYear());
+    assertEquals(CarAnalytics.averagePriceByYearMonth(cars), report.getAveragePriceByYearMonth());
+    assertEquals(CarAnalytics.topMakeModelsByVolume(cars, CarReport.TOP_N), report.getTopMakeModelsByVolume());
+    assertEquals(CarAnalytics.countByBody(cars), report.getCountByBody());
+    assertEquals(describe(CarAnalytics.findBestDeals(cars, CarReport.DEAL_THRESHOLD_PERCENT).stream()
+            .limit(CarReport.TOP_N).collect(Collectors.toList())), describe(report.getBestDeals()));
+    assertEquals(CarAnalytics.depreciationRateByMake(cars, CarReport.CURRENT_YEAR),
+            report.getDepreciationRateByMake());
+    assertEquals(CarAnalytics.averagePriceByMonth(cars), report.getAveragePriceByMonth());
+    assertEquals(CarAnalytics.priceByMileageBracket(cars), report.getPriceByMileageBracket());
+    assertSameStats(CarAnalytics.priceStatsByCondition(cars), report.getPriceStatsByCondition());
+    assertEquals(CarAnalytics.sellerMarkupPercentage(cars), report.getSellerMarkupPercentage());
+    assertEquals(describe(CarAnalytics.inventoryProfitabilityRanking(cars, CarReport.INVENTORY_TOP_N)),
+            describe(report.getInventoryProfitabilityRanking()));
+    assertEquals(CarAnalytics.salesCountByMake(cars), report.getSalesCountByMake());
+
+    List<String> topModels = CarAnalytics.topMakeModelsByVolume(cars, CarReport.REGIONAL_TOP_MODELS).stream()
+            .map(Map.Entry::getKey)
+            .collect(Collectors.toList());
+    Map<String, Map<String, Double>> regional = CarAnalytics.regionalPriceByModel(cars, topModels);
+    assertEquals(regional, report.getRegionalPriceByModel());
+    assertEquals(List.copyOf(regional.keySet()), List.copyOf(report.getRegionalPriceByModel().keySet()));
+  }
+
+  /**
+   * Verifies every report in the single pass matches the corresponding CarAnalytics method.
+   */
+  @Test
+  void testComputeMatchesCarAnalytics() {
+    List<CarPricePOJO> cars = ColumnarAnalyticsTest.randomCars(3000, 11);
+    assertSameReport(cars, CarReport.compute(cars));
+  }
+
+  /**
+   * Verifies an empty input yields empty reports rather than failing.
+   */
+  @Test
+  void testComputeOnEmptyInput() {
+    CarReport report = CarReport.compute(List.of());
+    assertEquals(0, report.getRecordCount());
+    assertEquals(0.0, report.getAverageSellingPrice());
+    assertTrue(report.getAverageSellingPriceByMake().isEmpty());
+    assertTrue(report.getBestDeals().isEmpty());
+    assertTrue(report.getRegionalPriceByModel().isEmpty());
+    assertTrue(report.getInventoryProfitabilityRanking().isEmpty());
+  }
+
+  /**
+   * Verifies the one-summary profitability ranking matches the original two-map computation.
+   */
+  @Test
+  void testInventoryRankingMatchesTwoPassVersion() {
+    List<CarPricePOJO> cars = ColumnarAnalyticsTest.randomCars(2500, 5);
+    Map<String, Long> volumeMap = cars.stream()
+            .filter(car -> car.getMmr() > 0)
+            .collect(Collectors.groupingBy(CarPricePOJO::getMakeModelKey, Collectors.counting()));
+    Map<String, Double> profitMap = cars.stream()
+            .filter(car -> car.getMmr() > 0)
+            .collect(Collectors.groupingBy(
+                    CarPricePOJO::getMakeModelKey,
+                    Collectors.averagingDouble(CarPricePOJO::getPriceDeltaFromMmr)));
+    List<CarAnalytics.InventoryMetrics> expected = volumeMap.keySet().stream()
+            .map(makeModel -> new CarAnalytics.InventoryMetrics(
+                    makeModel, volumeMap.get(makeModel), profitMap.getOrDefault(makeModel, 0.0)))
+            .sorted(Comparator.comparingDouble(m -> -m.profitabilityScore))
+            .limit(8)
+            .collect(Collectors.toList());
+
+    List<CarAnalytics.InventoryMetrics> actual = CarAnalytics.inventoryProfitabilityRanking(cars, 8);
+    assertEquals(describe(expected), describe(actual));
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i).avgProfit, actual.get(i).avgProfit);
+    }
+  }
+
+  /**
+   * Verifies registered results are only available after a run, and that list and stream runs agree.
+   */
+  @Test
+  void testFusedAggregatorRuns() {
+    List<CarPricePOJO> cars = ColumnarAnalyticsTest.randomCars(500, 3);
+    FusedAggregator<CarPricePOJO> fused = new FusedAggregator<>();
+    Supplier<Long> count = fused.register(Collectors.counting());
+    Supplier<Map<String, Long>> byState = fused.register(CarAnalytics.salesCountByStateCollector());
+    assertEquals(2, fused.size());
+    assertThrows(IllegalStateException.class, count::get);
+
+    fused.run(cars);
+    assertEquals(500L, count.get());
+    assertEquals(CarAnalytics.salesCountByState(cars), byState.get());
+
+    fused.run(cars.stream().filter(car -> car.getState().equals("CA")));
+    assertEquals(byState.get().get("CA"), count.get());
+    assertEquals(1, byState.get().size());
+  }
+}
@@ -0,0 +1,109 @@
+package com.a2;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests the binary snapshot format and the cached columnar load.
+ */
+public class CarSnapshotTest {
+
+  private static Path snapshotFile() throws IOException {
+    Path snapshot = Files.createTempFile("car_prices", ".snapshot");
+    Files.delete(snapshot);
+    return snapshot;
+  }
+
+  /**
+   * Verifies a snapshot reads back the same rows, derived make-model column and dictionaries.
+   */
+  @Test
+  void testRoundTrip() throws IOException {
+    CarColumns columns = CarColumns.from(ColumnarAnalyticsTest.randomCars(1500, 8));
+    Path snapshot = snapshotFile();
+    CarSnapshot.write(columns, 1234, snapshot);
+
+    CarColumns read = CarSnapshot.read(snapshot, CarDictionaries.exact(), 1234);
+    assertEquals(columns.size(), read.size());
+    assertEquals(ColumnarAnalyticsTest.describe(columns.asRows()), ColumnarAnalyticsTest.describe(read.asRows()));
+    assertArrayEquals(columns.makeModel(), read.makeModel());
+    assertEquals(columns.getDictionaries().make().size(), read.getDictionaries().make().size());
+    assertEquals(ColumnarAnalytics.averageSellingPriceByMakeModel(columns),
+            ColumnarAnalytics.averageSellingPriceByMakeModel(read));
+  }
+
+  /**
+   * Verifies codes are remapped when the target dictionaries already hold other values.
+   */
+  @Test
+  void testReadRemapsIntoUsedDictionaries() throws IOException {
+    List<CarPricePOJO> cars = ColumnarAnalyticsTest.randomCars(400, 2);
+    CarColumns columns = CarColumns.from(cars);
+    Path snapshot = snapshotFile();
+    CarSnapshot.write(columns, 0, snapshot);
+
+    CarDictionaries used = CarDictionaries.exact();
+    used.make().intern("Zastava");
+    used.state().intern("ZZ");
+    CarColumns read = CarSnapshot.read(snapshot, used, 0);
+
+    assertEquals(ColumnarAnalyticsTest.describe(cars), ColumnarAnalyticsTest.describe(read.asRows()));
+    assertEquals("Zastava", used.make().value(0));
+  }
+
+  /**
+   * Verifies damaged, foreign and stale snapshots are rejected.
+   */
+  @Test
+  void testRejectsBadSnapshots() throws IOException {
+    CarColumns columns = CarColumns.from(ColumnarAnalyticsTest.randomCars(50, 4));
+    Path snapshot = snapshotFile();
+    CarSnapshot.write(columns, 99, snapshot);
+
+    assertThrows(IOException.class, () -> CarSnapshot.read(snapshot, CarDictionaries.exact(), 100));
+
+    byte[] bytes = Files.readAllBytes(snapshot);
+    bytes[bytes.length - 3] ^= 1;
+    Files.write(snapshot, bytes);
+    IOException corrupt = assertThrows(IOException.class,
+            () -> CarSnapshot.read(snapshot, CarDictionaries.exact(), 99));
+    assertTrue(corrupt.getMessage().contains("Checksum"));
+
+    Files.write(snapshot, "year,make,model\n2014,Kia,Soul\n2015,Kia,Rio\n".getBytes());
+    assertThrows(IOException.class, () -> CarSnapshot.read(snapshot, CarDictionaries.exact(), 99));
+  }
+
+  /**
+   * Verifies the cached load writes a snapshot on the first run, uses it while the CSV is unchanged,
+   * and re-parses after the CSV is modified.
+   */
+  @Test
+  void testLoadColumnsCached() throws IOException {
+    List<CarPricePOJO> cars = ColumnarAnalyticsTest.randomCars(300, 21);
+    Path csv = ColumnarAnalyticsTest.writeCsv(cars);
+    Path snapshot = snapshotFile();
+
+    List<String> expected = ColumnarAnalyticsTest.describe(new CarCsvLoader().load(csv));
+    CarColumns first = new CarCsvLoader().loadColumnsCached(csv, snapshot);
+    assertTrue(Files.exists(snapshot));
+    assertEquals(expected, ColumnarAnalyticsTest.describe(first.asRows()));
+
+    Files.setLastModifiedTime(snapshot, FileTime.fromMillis(Files.getLastModifiedTime(csv).toMillis() + 1000));
+    CarColumns cached = new CarCsvLoader().loadColumnsCached(csv, snapshot);
+    assertEquals(expected, ColumnarAnalyticsTest.describe(cached.asRows()));
+
+    Path other = ColumnarAnalyticsTest.writeCsv(ColumnarAnalyticsTest.randomCars(120, 22));
+    Files.copy(other, csv, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+    Files.setLastModifiedTime(csv, FileTime.fromMillis(Files.getLastModifiedTime(snapshot).toMillis() + 1000));
+    CarColumns reparsed = new CarCsvLoader().loadColumnsCached(csv, snapshot);
+    assertEquals(120, reparsed.size());
+    assertEquals(120, new CarCsvLoader().loadColumnsCached(csv, snapshot).size());
+  }
+}
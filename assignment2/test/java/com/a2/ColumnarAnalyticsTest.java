@@ -0,0 +1,159 @@
+package com.a2;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the columnar store and ColumnarAnalytics give the same answers as CarAnalytics.
+ */
+public class ColumnarAnalyticsTest {
+
+  private static final String[] MAKES = {"Toyota", "Honda", "Ford", "BMW", "Kia"};
+  private static final String[] MODELS = {"A", "B", "C", "D"};
+  private static final String[] STATES = {"CA", "TX", "FL", "NY", "WA", "OR"};
+  private static final String[] BODIES = {"Sedan", "SUV", "Truck", "Coupe"};
+
+  static List<CarPricePOJO> randomCars(int count, long seed) {
+    Random random = new Random(seed);
+    List<CarPricePOJO> cars = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      int mmr = random.nextInt(10) == 0 ? 0 : 2000 + random.nextInt(30000);
+      cars.add(new CarPricePOJO(
+              1995 + random.nextInt(22),
+              MAKES[random.nextInt(MAKES.length)],
+              MODELS[random.nextInt(MODELS.length)],
+              "T" + random.nextInt(3),
+              BODIES[random.nextInt(BODIES.length)],
+              random.nextBoolean() ? "automatic" : "manual",
+              "VIN" + i,
+              STATES[random.nextInt(STATES.length)],
+              random.nextInt(6),
+              random.nextInt(8) == 0 ? 0 : random.nextInt(250000),
+              "color" + random.nextInt(5),
+              "interior" + random.nextInt(4),
+              "seller" + random.nextInt(40),
+              mmr,
+              500 + random.nextInt(35000),
+              LocalDateTime.of(2014 + random.nextInt(2), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                      random.nextInt(24), random.nextInt(60), random.nextInt(60))));
+    }
+    return cars;
+  }
+
+  private static <K> void assertSameStats(Map<K, DoubleSummaryStatistics> expected,
+                                          Map<K, DoubleSummaryStatistics> actual) {
+    assertEquals(expected.keySet(), actual.keySet());
+    expected.forEach((key, stats) -> assertEquals(stats.toString(), actual.get(key).toString(), String.valueOf(key)));
+  }
+
+  static List<String> describe(List<CarPricePOJO> cars) {
+    return cars.stream().map(CarPricePOJO::toString).collect(Collectors.toList());
+  }
+
+  /**
+   * Verifies every grouped report matches CarAnalytics exactly.
+   */
+  @Test
+  void testGroupedReportsMatchCarAnalytics() {
+    List<CarPricePOJO> cars = randomCars(2000, 42);
+    CarColumns columns = CarColumns.from(cars);
+
+    assertEquals(CarAnalytics.averageSellingPrice(cars), ColumnarAnalytics.averageSellingPrice(columns));
+    assertEquals(CarAnalytics.averageSellingPriceByMake(cars), ColumnarAnalytics.averageSellingPriceByMake(columns));
+    assertEquals(CarAnalytics.averageSellingPriceByMakeModel(cars),
+            ColumnarAnalytics.averageSellingPriceByMakeModel(columns));
+    assertEquals(CarAnalytics.salesCountByState(cars), ColumnarAnalytics.salesCountByState(columns));
+    assertEquals(CarAnalytics.averageOdometerByMake(cars), ColumnarAnalytics.averageOdometerByMake(columns));
+    assertSameStats(CarAnalytics.priceDeltaStatsByMake(cars), ColumnarAnalytics.priceDeltaStatsByMake(columns));
+    assertEquals(CarAnalytics.salesCountByYear(cars), ColumnarAnalytics.salesCountByYear(columns));
+    assertEquals(CarAnalytics.averagePriceByYearMonth(cars), ColumnarAnalytics.averagePriceByYearMonth(columns));
+    assertEquals(CarAnalytics.countByBody(cars), ColumnarAnalytics.countByBody(columns));
+    assertEquals(CarAnalytics.depreciationRateByMake(cars, 2015),
+            ColumnarAnalytics.depreciationRateByMake(columns, 2015));
+    assertEquals(CarAnalytics.averagePriceByMonth(cars), ColumnarAnalytics.averagePriceByMonth(columns));
+    assertEquals(CarAnalytics.priceByMileageBracket(cars), ColumnarAnalytics.priceByMileageBracket(columns));
+    assertSameStats(CarAnalytics.priceStatsByCondition(cars), ColumnarAnalytics.priceStatsByCondition(columns));
+    assertEquals(CarAnalytics.sellerMarkupPercentage(cars), ColumnarAnalytics.sellerMarkupPercentage(columns));
+
+    List<String> topModels = List.of("Toyota A", "Kia D", "BMW B");
+    assertEquals(CarAnalytics.regionalPriceByModel(cars, topModels),
+            ColumnarAnalytics.regionalPriceByModel(columns, topModels));
+  }
+
+  /**
+   * Verifies ranked reports return the same entries in the same order.
+   */
+  @Test
+  void testRankedReportsMatchCarAnalytics() {
+    List<CarPricePOJO> cars = randomCars(2000, 7);
+    CarColumns columns = CarColumns.from(cars);
+
+    assertEquals(CarAnalytics.topMakeModelsByVolume(cars, 5), ColumnarAnalytics.topMakeModelsByVolume(columns, 5));
+    assertEquals(describe(CarAnalytics.findBestDeals(cars, 10.0)),
+            describe(ColumnarAnalytics.findBestDeals(columns, 10.0)));
+    assertEquals(CarAnalytics.inventoryProfitabilityRanking(cars, 8).toString(),
+            ColumnarAnalytics.inventoryProfitabilityRanking(columns, 8).toString());
+  }
+
+  /**
+   * Verifies the row view materializes the original records.
+   */
+  @Test
+  void testRowViewRoundTrips() {
+    List<CarPricePOJO> cars = randomCars(100, 3);
+    CarColumns columns = CarColumns.from(cars);
+
+    assertEquals(100, columns.asRows().size());
+    assertEquals(describe(cars), describe(columns.asRows()));
+    assertSame(columns.row(0).getMake(), columns.asRows().get(0).getMake());
+    assertThrows(IndexOutOfBoundsException.class, () -> columns.asRows().get(100));
+  }
+
+  /**
+   * Verifies loading a CSV straight into columns gives the same rows as the record loader.
+   */
+  @Test
+  void testLoadColumnsMatchesLoad() throws IOException {
+    Path tempCsv = writeCsv(randomCars(300, 11));
+
+    CarCsvLoader loader = new CarCsvLoader();
+    CarColumns columns = loader.loadColumns(tempCsv, 512);
+
+    assertEquals(describe(loader.load(tempCsv)), describe(columns.asRows()));
+  }
+
+  /**
+   * Writes the cars to a temporary CSV in the dataset's layout, with lower-cased body styles.
+   */
+  static Path writeCsv(List<CarPricePOJO> cars) throws IOException {
+    Path tempCsv = Files.createTempFile("car_prices_columns", ".csv");
+    StringBuilder csv = new StringBuilder("year,make,model,trim,body,transmission,vin,state,condition,odometer,color,interior,seller,mmr,sellingprice,saledate\n");
+    for (CarPricePOJO car : cars) {
+      csv.append(csvLine(car)).append('\n');
+    }
+    Files.write(tempCsv, csv.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8));
+    return tempCsv;
+  }
+
+  static String csvLine(CarPricePOJO car) {
+    java.time.format.DateTimeFormatter formatter =
+            java.time.format.DateTimeFormatter.ofPattern("EEE MMM dd yyyy HH:mm:ss", java.util.Locale.ENGLISH);
+    return String.join(",", String.valueOf(car.getYear()), car.getMake(), car.getModel(), car.getTrim(),
+            car.getBody().toLowerCase(), car.getTransmission(), car.getVin(), car.getState(),
+            String.valueOf(car.getCondition()), String.valueOf(car.getOdometer()), car.getColor(),
+            car.getInterior(), car.getSeller(), String.valueOf(car.getMmr()), String.valueOf(car.getSellingPrice()),
+            car.getSaleDateTime().format(formatter) + " GMT-0800 (PST)");
+  }
+}
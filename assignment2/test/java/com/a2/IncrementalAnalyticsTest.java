@@ -0,0 +1,107 @@
+package com.a2;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that incremental refreshes over an appended CSV give the same report as a full load.
+ */
+public class IncrementalAnalyticsTest {
+
+  private static Path stateFile() throws IOException {
+    Path state = Files.createTempFile("car_prices", ".state");
+    Files.delete(state);
+    return state;
+  }
+
+  private static void append(Path csv, String text) throws IOException {
+    Files.write(csv, text.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+  }
+
+  private static String lines(List<CarPricePOJO> cars) {
+    StringBuilder text = new StringBuilder();
+    for (CarPricePOJO car : cars) {
+      text.append(ColumnarAnalyticsTest.csvLine(car)).append('\n');
+    }
+    return text.toString();
+  }
+
+  /**
+   * Verifies merged aggregates of consecutive row ranges equal the aggregates of all rows.
+   */
+  @Test
+  void testMergedAggregatesMatchCarAnalytics() {
+    List<CarPricePOJO> cars = ColumnarAnalyticsTest.randomCars(4000, 31);
+    ReportAggregates first = new ReportAggregates();
+    ReportAggregates second = new ReportAggregates();
+    ReportAggregates third = new ReportAggregates();
+    for (int i = 0; i < cars.size(); i++) {
+      (i < 1000 ? first : i < 2500 ? second : third).add(cars.get(i));
+    }
+    CarReportTest.assertSameReport(cars, first.merge(second).merge(third).toReport());
+  }
+
+  /**
+   * Verifies refreshes parse only appended complete lines and always match a full load.
+   */
+  @Test
+  void testRefreshParsesOnlyAppendedLines() throws IOException {
+    List<CarPricePOJO> cars = ColumnarAnalyticsTest.randomCars(900, 41);
+    Path csv = ColumnarAnalyticsTest.writeCsv(cars.subList(0, 600));
+    Path state = stateFile();
+
+    IncrementalAnalytics incremental = new IncrementalAnalytics(csv, state);
+    CarReport report = incremental.refresh();
+    assertEquals(600, incremental.getLastRefreshRows());
+    assertEquals(Files.size(csv), incremental.getProcessedBytes());
+    CarReportTest.assertSameReport(new CarCsvLoader().load(csv), report);
+
+    // The last line is still being written, so only the complete lines before it are read.
+    String partial = ColumnarAnalyticsTest.csvLine(cars.get(899));
+    append(csv, lines(cars.subList(600, 899)) + partial.substring(0, 20));
+    report = incremental.refresh();
+    assertEquals(299, incremental.getLastRefreshRows());
+    assertEquals(899, report.getRecordCount());
+    CarReportTest.assertSameReport(
+            new CarCsvLoader().load(ColumnarAnalyticsTest.writeCsv(cars.subList(0, 899))), report);
+
+    append(csv, partial.substring(20) + "\n");
+    IncrementalAnalytics restarted = new IncrementalAnalytics(csv, state);
+    report = restarted.refresh();
+    assertEquals(1, restarted.getLastRefreshRows());
+    CarReportTest.assertSameReport(new CarCsvLoader().load(csv), report);
+
+    restarted.refresh();
+    assertEquals(0, restarted.getLastRefreshRows());
+  }
+
+  /**
+   * Verifies a replaced file, or an unreadable state file, leads to a full re-read.
+   */
+  @Test
+  void testReplacedFileIsReadAgain() throws IOException {
+    Path csv = ColumnarAnalyticsTest.writeCsv(ColumnarAnalyticsTest.randomCars(300, 51));
+    Path state = stateFile();
+    IncrementalAnalytics incremental = new IncrementalAnalytics(csv, state);
+    incremental.refresh();
+
+    Path replacement = ColumnarAnalyticsTest.writeCsv(ColumnarAnalyticsTest.randomCars(400, 52));
+    Files.copy(replacement, csv, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+    CarReport report = incremental.refresh();
+    assertEquals(400, incremental.getLastRefreshRows());
+    CarReportTest.assertSameReport(new CarCsvLoader().load(csv), report);
+
+    Files.write(state, "not a state file".getBytes(StandardCharsets.UTF_8));
+    report = incremental.refresh();
+    assertEquals(400, incremental.getLastRefreshRows());
+    assertEquals(400, report.getRecordCount());
+  }
+}
@@ -0,0 +1,103 @@
+package com.a2;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collector;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that the parallel mode gives exactly the sequential results.
+ */
+public class ParallelCollectTest {
+
+  private static <A, R> R splitFinely(List<CarPricePOJO> cars, Collector<CarPricePOJO, A, R> collector) {
+    return collector.finisher().apply(ParallelCollect.accumulate(cars, collector, 4, 7));
+  }
+
+  /**
+   * Verifies the full report is identical whether computed sequentially or in parallel.
+   */
+  @Test
+  void testParallelReportMatchesSequential() {
+    List<CarPricePOJO> cars = ColumnarAnalyticsTest.randomCars(20000, 17);
+    CarReport parallel = CarReport.compute(cars, 4);
+    CarReportTest.assertSameReport(cars, parallel);
+    assertEquals(CarAnalytics.depreciationRateByMake(cars, CarReport.CURRENT_YEAR),
+            parallel.getDepreciationRateByMake());
+    assertEquals(CarAnalytics.sellerMarkupPercentage(cars), parallel.getSellerMarkupPercentage());
+  }
+
+  /**
+   * Verifies that many tiny leaves still reproduce the sequential maps, including iteration order.
+   */
+  @Test
+  void testFineSplitsKeepValuesAndOrder() {
+    List<CarPricePOJO> cars = ColumnarAnalyticsTest.randomCars(3000, 23);
+
+    Map<String, Double> byMakeModel = splitFinely(cars, CarAnalytics.averageSellingPriceByMakeModelCollector());
+    assertEquals(CarAnalytics.averageSellingPriceByMakeModel(cars), byMakeModel);
+    assertEquals(List.copyOf(CarAnalytics.averageSellingPriceByMakeModel(cars).keySet()),
+            List.copyOf(byMakeModel.keySet()));
+
+    Map<String, Double> markup = splitFinely(cars, CarAnalytics.sellerMarkupPercentageCollector());
+    assertEquals(CarAnalytics.sellerMarkupPercentage(cars), markup);
+    assertEquals(List.copyOf(CarAnalytics.sellerMarkupPercentage(cars).keySet()), List.copyOf(markup.keySet()));
+
+    assertEquals(CarAnalytics.depreciationRateByMake(cars, 2025),
+            splitFinely(cars, CarAnalytics.depreciationRateByMakeCollector(2025)));
+    assertEquals(CarAnalytics.topMakeModelsByVolume(cars, 10),
+            splitFinely(cars, CarAnalytics.topMakeModelsByVolumeCollector(10)));
+    assertEquals(CarAnalytics.findBestDeals(cars, 10.0),
+            splitFinely(cars, CarAnalytics.findBestDealsCollector(10.0)));
+    assertEquals(CarAnalytics.priceStatsByCondition(cars).toString(),
+            splitFinely(cars, CarAnalytics.priceStatsByConditionCollector()).toString());
+  }
+
+  /**
+   * Verifies ExactSum is exactly rounded and independent of addition order and merging.
+   */
+  @Test
+  void testExactSumIsOrderIndependent() {
+    Random random = new Random(99);
+    List<Double> values = new ArrayList<>();
+    BigDecimal exact = BigDecimal.ZERO;
+    for (int i = 0; i < 5000; i++) {
+      double value = (random.nextDouble() - 0.3) * Math.pow(10, random.nextInt(12) - 4);
+      values.add(value);
+      exact = exact.add(new BigDecimal(value));
+    }
+
+    ExactSum forward = new ExactSum();
+    values.forEach(forward::add);
+    assertEquals(exact.doubleValue(), forward.getSum());
+    assertEquals(5000, forward.getCount());
+
+    Collections.shuffle(values, random);
+    ExactSum left = new ExactSum();
+    ExactSum right = new ExactSum();
+    for (int i = 0; i < values.size(); i++) {
+      (i % 3 == 0 ? left : right).add(values.get(i));
+    }
+    ExactSum merged = left.combine(right);
+    assertEquals(forward.getSum(), merged.getSum());
+    assertEquals(forward.getAverage(), merged.getAverage());
+    assertEquals(0.0, new ExactSum().getAverage());
+  }
+
+  /**
+   * Verifies parallelism must be positive.
+   */
+  @Test
+  void testRejectsNonPositiveParallelism() {
+    List<CarPricePOJO> cars = ColumnarAnalyticsTest.randomCars(10, 1);
+    assertThrows(IllegalArgumentException.class,
+            () -> ParallelCollect.collect(cars, CarAnalytics.countByBodyCollector(), 0));
+  }
+}